@@ -0,0 +1,134 @@
+package com.example.s3webapp.accounting;
+
+import com.example.s3webapp.config.S3AccountingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Component
+public class S3CallAccountingFilter extends OncePerRequestFilter {
+
+    static final String CALLS_HEADER = "X-S3-Calls";
+    static final String BYTES_HEADER = "X-S3-Bytes";
+    private static final String STREAMED_ATTRIBUTE = S3CallAccountingFilter.class.getName() + ".streamed";
+
+    private static final Logger log = LoggerFactory.getLogger(S3CallAccountingFilter.class);
+
+    private final S3AccountingProperties properties;
+    private final S3CallStatistics statistics;
+
+    public S3CallAccountingFilter(S3AccountingProperties properties, S3CallStatistics statistics) {
+        this.properties = properties;
+        this.statistics = statistics;
+    }
+
+    // For handlers that write the body while still calling S3: headers sent with the first chunk would
+    // under-report, so the totals only go to the access log and statistics
+    public static void omitHeaders(HttpServletRequest request) {
+        request.setAttribute(STREAMED_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !properties.enabled() || !path.startsWith("/api/") || path.startsWith("/api/ws/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        S3CallTally tally = S3CallContext.open();
+        TallyHeaderResponse wrapped = new TallyHeaderResponse(request, response, tally);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            S3CallContext.close();
+            wrapped.writeHeaders();
+            long durationMillis = (System.nanoTime() - started) / 1_000_000;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern == null ? "UNMATCHED" : pattern.toString();
+            statistics.record(
+                    request.getMethod(), route, request.getRequestURI(), response.getStatus(), durationMillis, tally);
+            if (properties.accessLog()) {
+                log.info("s3-access method={} route={} path={} status={} durationMs={} user={} s3Calls={} s3Operations={}"
+                                + " s3BytesSent={} s3BytesReceived={}",
+                        request.getMethod(),
+                        route,
+                        request.getRequestURI(),
+                        response.getStatus(),
+                        durationMillis,
+                        request.getRemoteUser(),
+                        tally.totalCalls(),
+                        tally.callsByOperation(),
+                        tally.bytesSent(),
+                        tally.bytesReceived());
+            }
+        }
+    }
+
+    // Headers must go out before the body, so they are written when the body is first touched; by then the
+    // controller has made its S3 calls and only serialization is left
+    private class TallyHeaderResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final S3CallTally tally;
+        private boolean written;
+
+        TallyHeaderResponse(HttpServletRequest request, HttpServletResponse response, S3CallTally tally) {
+            super(response);
+            this.request = request;
+            this.tally = tally;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        void writeHeaders() {
+            if (written || !properties.responseHeaders() || isCommitted()
+                    || request.getAttribute(STREAMED_ATTRIBUTE) != null) {
+                return;
+            }
+            written = true;
+            setHeader(CALLS_HEADER, tally.callsHeader());
+            setHeader(BYTES_HEADER, tally.bytesHeader());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.s3webapp.accounting;
+
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+// The tally is looked up on the calling thread in beforeExecution; later hooks may run on SDK threads.
+public class S3CallAccountingInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<S3CallTally> TALLY = new ExecutionAttribute<>("S3WebappCallTally");
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        S3CallTally tally = S3CallContext.current();
+        if (tally != null) {
+            executionAttributes.putAttribute(TALLY, tally);
+        }
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        S3CallTally tally = executionAttributes.getAttribute(TALLY);
+        if (tally == null) {
+            return;
+        }
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        tally.record(operation == null ? "unknown" : operation);
+        context.httpRequest().firstMatchingHeader("Content-Length")
+                .ifPresent(length -> tally.addBytesSent(parse(length)));
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes executionAttributes) {
+        S3CallTally tally = executionAttributes.getAttribute(TALLY);
+        if (tally != null) {
+            context.httpResponse().firstMatchingHeader("Content-Length")
+                    .ifPresent(length -> tally.addBytesReceived(parse(length)));
+        }
+    }
+
+    private static long parse(String length) {
+        try {
+            return Long.parseLong(length.trim());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.s3webapp.accounting;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+// Holds the tally of the HTTP request the current thread works for. Work handed to pools or async
+// continuations has to carry it explicitly through wrap/propagating.
+public final class S3CallContext {
+
+    private static final ThreadLocal<S3CallTally> CURRENT = new ThreadLocal<>();
+
+    private S3CallContext() {}
+
+    public static S3CallTally current() {
+        return CURRENT.get();
+    }
+
+    static S3CallTally open() {
+        S3CallTally tally = new S3CallTally();
+        CURRENT.set(tally);
+        return tally;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    public static <T> T callWith(S3CallTally tally, Supplier<T> work) {
+        if (tally == null) {
+            return work.get();
+        }
+        S3CallTally previous = CURRENT.get();
+        CURRENT.set(tally);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static Runnable wrap(Runnable work) {
+        S3CallTally tally = current();
+        return tally == null ? work : () -> callWith(tally, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static Executor propagating(Executor executor) {
+        return command -> executor.execute(wrap(command));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.s3webapp.accounting;
+
+import com.example.s3webapp.config.S3AccountingProperties;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import org.springframework.stereotype.Component;
+
+// Aggregates tallies by route pattern and keeps the individual requests with the most S3 calls.
+@Component
+public class S3CallStatistics {
+
+    private final int worstLimit;
+    private final Map<String, Route> routes = new HashMap<>();
+    private final PriorityQueue<RequestSummary> worst =
+            new PriorityQueue<>(Comparator.comparingLong(RequestSummary::calls));
+
+    public S3CallStatistics(S3AccountingProperties properties) {
+        this.worstLimit = properties.worstRequests();
+    }
+
+    public synchronized void record(String method, String route, String path, int status, long durationMillis, S3CallTally tally) {
+        String key = method + " " + route;
+        routes.computeIfAbsent(key, k -> new Route()).add(tally);
+        long calls = tally.totalCalls();
+        if (calls == 0) {
+            return;
+        }
+        if (worst.size() < worstLimit || worst.peek().calls() < calls) {
+            worst.add(new RequestSummary(
+                    method, path, status, durationMillis, calls, tally.callsByOperation(),
+                    tally.bytesSent(), tally.bytesReceived(), Instant.now()));
+            if (worst.size() > worstLimit) {
+                worst.poll();
+            }
+        }
+    }
+
+    public synchronized Report report() {
+        List<RouteSummary> summaries = new ArrayList<>();
+        routes.forEach((key, route) -> summaries.add(route.summary(key)));
+        summaries.sort(Comparator.comparingLong(RouteSummary::totalCalls).reversed()
+                .thenComparing(RouteSummary::route));
+        List<RequestSummary> requests = new ArrayList<>(worst);
+        requests.sort(Comparator.comparingLong(RequestSummary::calls).reversed());
+        return new Report(summaries, requests);
+    }
+
+    public synchronized void reset() {
+        routes.clear();
+        worst.clear();
+    }
+
+    public record Report(List<RouteSummary> routes, List<RequestSummary> worstRequests) {}
+
+    public record RouteSummary(
+            String route,
+            long requests,
+            long totalCalls,
+            long maxCalls,
+            double averageCalls,
+            Map<String, Long> callsByOperation,
+            long bytesSent,
+            long bytesReceived) {}
+
+    public record RequestSummary(
+            String method,
+            String path,
+            int status,
+            long durationMillis,
+            long calls,
+            Map<String, Long> callsByOperation,
+            long bytesSent,
+            long bytesReceived,
+            Instant at) {}
+
+    private static final class Route {
+        private long requests;
+        private long totalCalls;
+        private long maxCalls;
+        private long bytesSent;
+        private long bytesReceived;
+        private final Map<String, Long> callsByOperation = new TreeMap<>();
+
+        void add(S3CallTally tally) {
+            long calls = tally.totalCalls();
+            requests++;
+            totalCalls += calls;
+            maxCalls = Math.max(maxCalls, calls);
+            bytesSent += tally.bytesSent();
+            bytesReceived += tally.bytesReceived();
+            tally.callsByOperation().forEach((operation, count) -> callsByOperation.merge(operation, count, Long::sum));
+        }
+
+        RouteSummary summary(String key) {
+            return new RouteSummary(
+                    key,
+                    requests,
+                    totalCalls,
+                    maxCalls,
+                    requests == 0 ? 0 : (double) totalCalls / requests,
+                    new TreeMap<>(callsByOperation),
+                    bytesSent,
+                    bytesReceived);
+        }
+    }
+}
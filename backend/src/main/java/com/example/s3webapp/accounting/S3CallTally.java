@@ -0,0 +1,54 @@
+package com.example.s3webapp.accounting;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// S3 requests made on behalf of one incoming HTTP request. Attempts are counted, so retries and hedges show up.
+public class S3CallTally {
+
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+
+    public void record(String operation) {
+        calls.computeIfAbsent(operation, op -> new LongAdder()).increment();
+    }
+
+    public void addBytesSent(long bytes) {
+        bytesSent.add(bytes);
+    }
+
+    public void addBytesReceived(long bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    public long totalCalls() {
+        return calls.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Map<String, Long> callsByOperation() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        calls.forEach((operation, count) -> snapshot.put(operation, count.sum()));
+        return snapshot;
+    }
+
+    public long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    public long bytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    String callsHeader() {
+        StringBuilder header = new StringBuilder("total=").append(totalCalls());
+        callsByOperation().forEach((operation, count) -> header.append("; ").append(operation).append('=').append(count));
+        return header.toString();
+    }
+
+    String bytesHeader() {
+        return "sent=" + bytesSent() + "; received=" + bytesReceived();
+    }
+}
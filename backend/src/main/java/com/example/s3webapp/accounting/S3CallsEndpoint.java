@@ -0,0 +1,27 @@
+package com.example.s3webapp.accounting;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "s3calls")
+public class S3CallsEndpoint {
+
+    private final S3CallStatistics statistics;
+
+    public S3CallsEndpoint(S3CallStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @ReadOperation
+    public S3CallStatistics.Report report() {
+        return statistics.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+}
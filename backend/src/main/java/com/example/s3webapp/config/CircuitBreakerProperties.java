@@ -0,0 +1,25 @@
+package com.example.s3webapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.circuit-breaker")
+public record CircuitBreakerProperties(
+        Boolean enabled,
+        int window,
+        int minimumCalls,
+        int failureRatePercent,
+        Duration openDuration,
+        int halfOpenProbes) {
+
+    public CircuitBreakerProperties {
+        enabled = enabled == null || enabled;
+        window = window > 0 ? window : 20;
+        minimumCalls = minimumCalls > 0 ? Math.min(minimumCalls, window) : Math.min(10, window);
+        failureRatePercent = failureRatePercent > 0 && failureRatePercent <= 100 ? failureRatePercent : 50;
+        openDuration = openDuration == null || openDuration.isZero() || openDuration.isNegative()
+                ? Duration.ofSeconds(30)
+                : openDuration;
+        halfOpenProbes = halfOpenProbes > 0 ? halfOpenProbes : 3;
+    }
+}
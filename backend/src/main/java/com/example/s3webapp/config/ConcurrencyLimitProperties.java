@@ -0,0 +1,29 @@
+package com.example.s3webapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        Boolean enabled,
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        double backoffRatio,
+        Duration latencyThreshold,
+        Duration acquireTimeout) {
+
+    public ConcurrencyLimitProperties {
+        enabled = enabled == null || enabled;
+        minLimit = minLimit > 0 ? minLimit : 1;
+        maxLimit = maxLimit > 0 ? Math.max(maxLimit, minLimit) : Math.max(256, minLimit);
+        initialLimit = initialLimit > 0 ? Math.min(Math.max(initialLimit, minLimit), maxLimit) : Math.min(16, maxLimit);
+        backoffRatio = backoffRatio > 0 && backoffRatio < 1 ? backoffRatio : 0.5;
+        latencyThreshold = latencyThreshold == null || latencyThreshold.isZero() || latencyThreshold.isNegative()
+                ? Duration.ofSeconds(5)
+                : latencyThreshold;
+        acquireTimeout = acquireTimeout == null || acquireTimeout.isZero() || acquireTimeout.isNegative()
+                ? Duration.ofMinutes(1)
+                : acquireTimeout;
+    }
+}
@@ -10,7 +10,14 @@ public record FolderSizeProperties(
         long maxObjects,
         Duration maxRuntime,
         Duration retention,
-        boolean cancelOnDisconnect) {
+        boolean cancelOnDisconnect,
+        int scanConcurrency,
+        int fanOutDepth,
+        Duration cacheTtl,
+        Breakdown breakdown,
+        int maxQueuedJobs,
+        int maxQueuedPerUser,
+        int maxRunningPerUser) {
 
     public FolderSizeProperties {
         maxParallelJobs = maxParallelJobs > 0 ? maxParallelJobs : 2;
@@ -20,6 +27,21 @@ public record FolderSizeProperties(
         retention = retention == null || retention.isZero() || retention.isNegative()
                 ? Duration.ofMinutes(10)
                 : retention;
+        scanConcurrency = scanConcurrency > 0 ? scanConcurrency : 1;
+        fanOutDepth = fanOutDepth > 0 ? fanOutDepth : 3;
+        maxQueuedJobs = maxQueuedJobs > 0 ? maxQueuedJobs : 100;
+        maxQueuedPerUser = Math.max(0, maxQueuedPerUser);
+        maxRunningPerUser = Math.max(0, maxRunningPerUser);
+        breakdown = breakdown == null ? new Breakdown(0, 0, 0) : breakdown;
+        cacheTtl = cacheTtl == null ? Duration.ofMinutes(5) : cacheTtl.isNegative() ? Duration.ZERO : cacheTtl;
+    }
+
+    public boolean parallelScan() {
+        return scanConcurrency > 1;
+    }
+
+    public boolean cacheResults() {
+        return !cacheTtl.isZero();
     }
 
     public boolean hasObjectCap() {
@@ -29,4 +51,12 @@ public record FolderSizeProperties(
     public boolean hasRuntimeCap() {
         return maxRuntime != null && !maxRuntime.isZero() && !maxRuntime.isNegative();
     }
+
+    public record Breakdown(int maxDepth, int maxNodes, int topN) {
+        public Breakdown {
+            maxDepth = maxDepth > 0 ? maxDepth : 3;
+            maxNodes = maxNodes > 0 ? maxNodes : 10_000;
+            topN = topN > 0 ? topN : 20;
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package com.example.s3webapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.hedging")
+public record HedgingProperties(
+        Boolean enabled,
+        double percentile,
+        int window,
+        int minSamples,
+        double budgetPercent,
+        Duration minDelay) {
+
+    public HedgingProperties {
+        enabled = enabled == null || enabled;
+        percentile = percentile > 0 && percentile < 100 ? percentile : 95;
+        window = window > 0 ? window : 500;
+        minSamples = minSamples > 0 ? Math.min(minSamples, window) : Math.min(50, window);
+        budgetPercent = budgetPercent > 0 ? budgetPercent : 5;
+        minDelay = minDelay == null || minDelay.isNegative() ? Duration.ofMillis(10) : minDelay;
+    }
+}
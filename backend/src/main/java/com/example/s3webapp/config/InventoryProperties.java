@@ -0,0 +1,28 @@
+package com.example.s3webapp.config;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.inventory")
+public record InventoryProperties(
+        List<Source> sources, int readConcurrency, int maxSearchResults, int resultCacheSize) {
+
+    public InventoryProperties {
+        sources = sources == null ? List.of() : List.copyOf(sources);
+        readConcurrency = readConcurrency > 0 ? readConcurrency : 4;
+        maxSearchResults = maxSearchResults > 0 ? maxSearchResults : 1000;
+        resultCacheSize = resultCacheSize > 0 ? resultCacheSize : 256;
+    }
+
+    public Optional<Source> sourceFor(String bucketId) {
+        return sources.stream().filter(source -> source.bucketId().equals(bucketId)).findFirst();
+    }
+
+    public record Source(String bucketId, String inventoryBucketId, String manifestPrefix) {
+        public Source {
+            inventoryBucketId = inventoryBucketId == null || inventoryBucketId.isBlank() ? bucketId : inventoryBucketId;
+            manifestPrefix = manifestPrefix == null ? "" : manifestPrefix;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.s3webapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.jobs")
+public record JobProperties(
+        int maxParallelJobs,
+        int maxQueuedJobs,
+        Duration progressInterval,
+        Duration retention,
+        Journal journal,
+        int maxQueuedPerUser,
+        int maxRunningPerUser) {
+
+    public JobProperties {
+        maxParallelJobs = maxParallelJobs > 0 ? maxParallelJobs : 2;
+        maxQueuedJobs = maxQueuedJobs > 0 ? maxQueuedJobs : 100;
+        progressInterval = progressInterval == null || progressInterval.isNegative()
+                ? Duration.ofMillis(500)
+                : progressInterval;
+        retention = retention == null || retention.isZero() || retention.isNegative()
+                ? Duration.ofMinutes(30)
+                : retention;
+        journal = journal == null ? new Journal(null, 0, null) : journal;
+        maxQueuedPerUser = Math.max(0, maxQueuedPerUser);
+        maxRunningPerUser = Math.max(0, maxRunningPerUser);
+    }
+
+    public record Journal(String directory, int syncEvery, Duration syncInterval) {
+        public Journal {
+            syncEvery = syncEvery > 0 ? syncEvery : 256;
+            syncInterval = syncInterval == null || syncInterval.isZero() || syncInterval.isNegative()
+                    ? Duration.ofSeconds(1)
+                    : syncInterval;
+        }
+
+        public boolean enabled() {
+            return directory != null && !directory.isBlank();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.s3webapp.config;
+
+import com.example.s3webapp.foldersize.StoredJob;
+import com.example.s3webapp.jobs.StoredOperationJob;
+import com.example.s3webapp.jobs.store.FileJobStore;
+import com.example.s3webapp.jobs.store.JobStore;
+import com.example.s3webapp.jobs.store.MemoryJobStore;
+import com.example.s3webapp.jobs.store.S3JobStore;
+import com.example.s3webapp.s3.BucketRegistry;
+import com.example.s3webapp.s3.S3ClientFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.Objects;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JobStoreConfig {
+
+    private static final String FOLDER_SIZE = "folder-size";
+    private static final String OPERATIONS = "operations";
+
+    @Bean
+    public JobStore<StoredJob> folderSizeJobStore(
+            JobStoreProperties properties,
+            ObjectMapper objectMapper,
+            BucketRegistry bucketRegistry,
+            S3ClientFactory s3ClientFactory) {
+        return store(properties, objectMapper, bucketRegistry, s3ClientFactory, FOLDER_SIZE, StoredJob.class);
+    }
+
+    @Bean
+    public JobStore<StoredOperationJob> operationJobStore(
+            JobStoreProperties properties,
+            ObjectMapper objectMapper,
+            BucketRegistry bucketRegistry,
+            S3ClientFactory s3ClientFactory) {
+        return store(properties, objectMapper, bucketRegistry, s3ClientFactory, OPERATIONS, StoredOperationJob.class);
+    }
+
+    // Each kind of job gets its own directory or key prefix, so a listing only reads its own records
+    private static <T extends JobStore.Record> JobStore<T> store(
+            JobStoreProperties properties,
+            ObjectMapper objectMapper,
+            BucketRegistry bucketRegistry,
+            S3ClientFactory s3ClientFactory,
+            String kind,
+            Class<T> type) {
+        return switch (properties.type()) {
+            case MEMORY -> new MemoryJobStore<>();
+            case FILE -> new FileJobStore<>(Path.of(properties.directory(), kind), objectMapper, type);
+            case S3 -> {
+                S3Properties.BucketConfig bucket = requireDedicatedBucket(properties, bucketRegistry);
+                yield new S3JobStore<>(
+                        s3ClientFactory.clientFor(bucket),
+                        bucket.bucketName(),
+                        properties.prefix() + kind + "/",
+                        objectMapper,
+                        type);
+            }
+        };
+    }
+
+    // Job records must never show up in a bucket users browse, size or sync
+    static S3Properties.BucketConfig requireDedicatedBucket(
+            JobStoreProperties properties, BucketRegistry bucketRegistry) {
+        S3Properties.BucketConfig bucket = properties.bucket();
+        if (bucket == null || bucket.bucketName() == null || bucket.bucketName().isBlank()) {
+            throw new IllegalArgumentException("app.job-store.bucket is required for the s3 job store");
+        }
+        for (S3Properties.BucketConfig browsable : bucketRegistry.list()) {
+            if (browsable.id().equals(bucket.id())
+                    || (browsable.bucketName().equals(bucket.bucketName())
+                            && Objects.equals(browsable.endpointUrl(), bucket.endpointUrl()))) {
+                throw new IllegalArgumentException("app.job-store.bucket must be a dedicated bucket, not s3.buckets entry "
+                        + browsable.id());
+            }
+        }
+        return bucket;
+    }
+}
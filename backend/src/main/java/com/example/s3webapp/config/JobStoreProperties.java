@@ -0,0 +1,56 @@
+package com.example.s3webapp.config;
+
+import java.time.Duration;
+import java.util.UUID;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.job-store")
+public record JobStoreProperties(
+        Type type,
+        String directory,
+        S3Properties.BucketConfig bucket,
+        String prefix,
+        Duration leaseTtl,
+        Duration heartbeatInterval,
+        String nodeId) {
+
+    public JobStoreProperties {
+        type = type == null ? Type.MEMORY : type;
+        directory = directory == null || directory.isBlank() ? "data/job-store" : directory;
+        prefix = prefix == null ? "" : prefix;
+        // The store's bucket is not one of s3.buckets, so it only needs an id for its client and metrics
+        if (bucket != null && (bucket.id() == null || bucket.id().isBlank())) {
+            bucket = new S3Properties.BucketConfig(
+                    "job-store",
+                    bucket.name(),
+                    bucket.bucketName(),
+                    bucket.endpointUrl(),
+                    bucket.accessKey(),
+                    bucket.secretKey(),
+                    bucket.region(),
+                    bucket.pathStyleAccess(),
+                    bucket.transport());
+        }
+        heartbeatInterval = heartbeatInterval == null || heartbeatInterval.isZero() || heartbeatInterval.isNegative()
+                ? Duration.ofSeconds(5)
+                : heartbeatInterval;
+        leaseTtl = leaseTtl == null || leaseTtl.compareTo(heartbeatInterval.multipliedBy(2)) < 0
+                ? heartbeatInterval.multipliedBy(6)
+                : leaseTtl;
+        // A fresh id per process, so jobs left behind by a previous run look orphaned rather than owned
+        nodeId = nodeId == null || nodeId.isBlank()
+                ? hostname() + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : nodeId;
+    }
+
+    private static String hostname() {
+        String host = System.getenv("HOSTNAME");
+        return host == null || host.isBlank() ? "node" : host;
+    }
+
+    public enum Type {
+        MEMORY,
+        FILE,
+        S3
+    }
+}
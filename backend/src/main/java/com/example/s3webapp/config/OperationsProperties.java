@@ -0,0 +1,16 @@
+package com.example.s3webapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.operations")
+public record OperationsProperties(int deleteBatchSize, int deleteConcurrency, long planMaxObjects, int syncConcurrency) {
+
+    public static final int MAX_DELETE_BATCH_SIZE = 1000;
+
+    public OperationsProperties {
+        deleteBatchSize = deleteBatchSize > 0 ? Math.min(deleteBatchSize, MAX_DELETE_BATCH_SIZE) : MAX_DELETE_BATCH_SIZE;
+        deleteConcurrency = deleteConcurrency > 0 ? deleteConcurrency : 4;
+        planMaxObjects = planMaxObjects > 0 ? planMaxObjects : 1_000_000;
+        syncConcurrency = syncConcurrency > 0 ? syncConcurrency : 8;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.s3webapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.s3-accounting")
+public record S3AccountingProperties(
+        Boolean enabled,
+        Boolean responseHeaders,
+        Boolean accessLog,
+        int worstRequests) {
+
+    public S3AccountingProperties {
+        enabled = enabled == null || enabled;
+        responseHeaders = responseHeaders == null || responseHeaders;
+        accessLog = accessLog == null || accessLog;
+        worstRequests = worstRequests > 0 ? worstRequests : 20;
+    }
+}
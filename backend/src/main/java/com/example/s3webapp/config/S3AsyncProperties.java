@@ -0,0 +1,16 @@
+package com.example.s3webapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.s3-async")
+public record S3AsyncProperties(
+        int eventLoopThreads,
+        int callbackThreads,
+        int maxPendingAcquires) {
+
+    public S3AsyncProperties {
+        eventLoopThreads = eventLoopThreads > 0 ? eventLoopThreads : 4;
+        callbackThreads = callbackThreads > 0 ? callbackThreads : 4;
+        maxPendingAcquires = maxPendingAcquires > 0 ? maxPendingAcquires : 10_000;
+    }
+}
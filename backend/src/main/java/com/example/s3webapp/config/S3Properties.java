@@ -2,8 +2,11 @@ package com.example.s3webapp.config;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 
 @ConfigurationProperties(prefix = "s3")
 public record S3Properties(List<BucketConfig> buckets) {
@@ -20,5 +23,64 @@ public record S3Properties(List<BucketConfig> buckets) {
             @NotBlank String accessKey,
             @NotBlank String secretKey,
             @NotBlank String region,
-            @NotNull Boolean pathStyleAccess) {}
+            @NotNull Boolean pathStyleAccess,
+            TransportProfile transport) {
+
+        @ConstructorBinding
+        public BucketConfig {
+            transport = transport == null ? TransportProfile.defaults() : transport;
+        }
+
+        public BucketConfig(
+                String id,
+                String name,
+                String bucketName,
+                String endpointUrl,
+                String accessKey,
+                String secretKey,
+                String region,
+                Boolean pathStyleAccess) {
+            this(id, name, bucketName, endpointUrl, accessKey, secretKey, region, pathStyleAccess, null);
+        }
+
+        public boolean sharesEndpointWith(BucketConfig other) {
+            return Objects.equals(endpointUrl, other.endpointUrl)
+                    && Objects.equals(region, other.region)
+                    && Objects.equals(accessKey, other.accessKey)
+                    && Objects.equals(secretKey, other.secretKey);
+        }
+    }
+
+    // HTTP settings for the bucket's clients; buckets with the same endpoint, credentials and profile share one pool
+    public record TransportProfile(
+            int maxConnections,
+            Duration connectionTtl,
+            Duration connectionMaxIdle,
+            Boolean reapIdleConnections,
+            Duration connectTimeout,
+            Duration socketTimeout,
+            Duration acquireTimeout,
+            Boolean tcpKeepAlive,
+            Boolean expectContinue) {
+
+        public TransportProfile {
+            maxConnections = maxConnections > 0 ? maxConnections : 200;
+            connectionTtl = positiveOr(connectionTtl, Duration.ofMinutes(5));
+            connectionMaxIdle = positiveOr(connectionMaxIdle, Duration.ofSeconds(60));
+            reapIdleConnections = reapIdleConnections == null || reapIdleConnections;
+            connectTimeout = positiveOr(connectTimeout, Duration.ofSeconds(2));
+            socketTimeout = positiveOr(socketTimeout, Duration.ofSeconds(30));
+            acquireTimeout = positiveOr(acquireTimeout, Duration.ofSeconds(30));
+            tcpKeepAlive = tcpKeepAlive == null || tcpKeepAlive;
+            expectContinue = expectContinue == null || expectContinue;
+        }
+
+        public static TransportProfile defaults() {
+            return new TransportProfile(0, null, null, null, null, null, null, null, null);
+        }
+
+        private static Duration positiveOr(Duration value, Duration fallback) {
+            return value == null || value.isZero() || value.isNegative() ? fallback : value;
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.s3webapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.sdk-metrics")
+public record SdkMetricsProperties(Boolean enabled, Boolean percentileHistograms) {
+
+    public SdkMetricsProperties {
+        enabled = enabled == null || enabled;
+        percentileHistograms = percentileHistograms == null || percentileHistograms;
+    }
+}
@@ -44,6 +44,7 @@ public class SecurityConfig {
         http.authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").authenticated()
                 .requestMatchers("/api/auth/login").permitAll()
                 .requestMatchers("/api/ws/**").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/buckets/*/folders/size").authenticated()
@@ -51,6 +52,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/buckets/**").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/buckets/*/objects/**").hasRole("READ_WRITE")
                 .requestMatchers(HttpMethod.POST, "/api/buckets/*/folders/**").hasRole("READ_WRITE")
+                .requestMatchers(HttpMethod.POST, "/api/buckets/*/jobs/**").hasRole("READ_WRITE")
                 .requestMatchers(HttpMethod.DELETE, "/api/buckets/**").hasRole("READ_WRITE")
                 .requestMatchers("/api/**").authenticated()
                 .anyRequest().permitAll());
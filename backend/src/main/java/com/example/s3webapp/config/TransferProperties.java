@@ -0,0 +1,24 @@
+package com.example.s3webapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "app.transfer")
+public record TransferProperties(DataSize partSize, int maxPartsInFlight, int uploadConcurrency) {
+
+    public static final int MAX_PARTS = 10_000;
+
+    private static final DataSize MIN_PART_SIZE = DataSize.ofMegabytes(5);
+
+    public TransferProperties {
+        partSize = partSize == null ? DataSize.ofMegabytes(16) : partSize;
+        partSize = partSize.compareTo(MIN_PART_SIZE) < 0 ? MIN_PART_SIZE : partSize;
+        maxPartsInFlight = maxPartsInFlight > 0 ? maxPartsInFlight : 4;
+        uploadConcurrency = uploadConcurrency > 0 ? uploadConcurrency : 8;
+    }
+
+    // S3 allows at most 10,000 parts per upload, so larger objects get proportionally larger parts
+    public long partSizeFor(long objectSize) {
+        return Math.max(partSize.toBytes(), (objectSize + MAX_PARTS - 1) / MAX_PARTS);
+    }
+}
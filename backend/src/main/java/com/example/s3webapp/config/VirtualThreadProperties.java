@@ -0,0 +1,7 @@
+package com.example.s3webapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Same switch Spring Boot uses for Tomcat and @Scheduled, so one property moves the app's own workers too
+@ConfigurationProperties(prefix = "spring.threads.virtual")
+public record VirtualThreadProperties(boolean enabled) {}
@@ -18,6 +18,7 @@ public class WebConfig {
                         .allowedOrigins(appProperties.cors().allowedOrigins().toArray(String[]::new))
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("X-S3-Calls", "X-S3-Bytes")
                         .allowCredentials(true);
             }
 
@@ -1,6 +1,7 @@
 package com.example.s3webapp.config;
 
 import com.example.s3webapp.foldersize.FolderSizeWebSocketHandler;
+import com.example.s3webapp.jobs.JobWebSocketHandler;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
@@ -11,10 +12,15 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 public class WebSocketConfig implements WebSocketConfigurer {
 
     private final FolderSizeWebSocketHandler folderSizeWebSocketHandler;
+    private final JobWebSocketHandler jobWebSocketHandler;
     private final AppProperties appProperties;
 
-    public WebSocketConfig(FolderSizeWebSocketHandler folderSizeWebSocketHandler, AppProperties appProperties) {
+    public WebSocketConfig(
+            FolderSizeWebSocketHandler folderSizeWebSocketHandler,
+            JobWebSocketHandler jobWebSocketHandler,
+            AppProperties appProperties) {
         this.folderSizeWebSocketHandler = folderSizeWebSocketHandler;
+        this.jobWebSocketHandler = jobWebSocketHandler;
         this.appProperties = appProperties;
     }
 
@@ -22,5 +28,7 @@ public class WebSocketConfig implements WebSocketConfigurer {
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(folderSizeWebSocketHandler, "/api/ws/folder-size/{jobId}")
                 .setAllowedOrigins(appProperties.cors().allowedOrigins().toArray(String[]::new));
+        registry.addHandler(jobWebSocketHandler, "/api/ws/jobs/{jobId}")
+                .setAllowedOrigins(appProperties.cors().allowedOrigins().toArray(String[]::new));
     }
 }
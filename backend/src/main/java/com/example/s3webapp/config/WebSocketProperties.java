@@ -0,0 +1,16 @@
+package com.example.s3webapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.websocket")
+public record WebSocketProperties(Duration sendInterval, Duration sendTimeLimit, int senderThreads) {
+
+    public WebSocketProperties {
+        sendInterval = sendInterval == null || sendInterval.isNegative() ? Duration.ofMillis(250) : sendInterval;
+        sendTimeLimit = sendTimeLimit == null || sendTimeLimit.isZero() || sendTimeLimit.isNegative()
+                ? Duration.ofSeconds(10)
+                : sendTimeLimit;
+        senderThreads = senderThreads > 0 ? senderThreads : 4;
+    }
+}
@@ -26,7 +26,7 @@ public class FolderSizeController {
     @PostMapping
     public FolderSizeJobLaunchResponse start(
             @PathVariable("bucketId") String bucketId, @Valid @RequestBody FolderSizeRequest request) {
-        return jobService.start(bucketId, request.prefix());
+        return jobService.start(bucketId, request);
     }
 
     @GetMapping("/{jobId}")
@@ -0,0 +1,36 @@
+package com.example.s3webapp.controller;
+
+import com.example.s3webapp.model.InventoryFolderSize;
+import com.example.s3webapp.model.InventorySearchResponse;
+import com.example.s3webapp.s3.InventoryService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/buckets/{bucketId}/inventory")
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    public InventoryController(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    @GetMapping("/size")
+    public InventoryFolderSize size(
+            @PathVariable("bucketId") String bucketId,
+            @RequestParam(value = "prefix", required = false) String prefix) {
+        return inventoryService.folderSize(bucketId, prefix);
+    }
+
+    @GetMapping("/search")
+    public InventorySearchResponse search(
+            @PathVariable("bucketId") String bucketId,
+            @RequestParam(value = "prefix", required = false) String prefix,
+            @RequestParam(value = "query", required = false) String query) {
+        return inventoryService.search(bucketId, prefix, query);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.s3webapp.controller;
+
+import com.example.s3webapp.jobs.JobLaunchResponse;
+import com.example.s3webapp.jobs.JobService;
+import com.example.s3webapp.jobs.JobView;
+import com.example.s3webapp.jobs.OperationJobService;
+import com.example.s3webapp.model.BulkCopyMoveRequest;
+import com.example.s3webapp.model.DeleteFolderRequest;
+import com.example.s3webapp.model.DeleteObjectsRequest;
+import com.example.s3webapp.model.FolderCopyRequest;
+import com.example.s3webapp.model.PurgeVersionsRequest;
+import com.example.s3webapp.model.SyncRequest;
+import com.example.s3webapp.model.TransferFolderRequest;
+import com.example.s3webapp.model.TransferItemsRequest;
+import jakarta.validation.Valid;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/buckets/{bucketId}/jobs")
+public class JobController {
+
+    private final JobService jobService;
+    private final OperationJobService operationJobService;
+
+    public JobController(JobService jobService, OperationJobService operationJobService) {
+        this.jobService = jobService;
+        this.operationJobService = operationJobService;
+    }
+
+    @GetMapping
+    public List<JobView> list(@PathVariable("bucketId") String bucketId) {
+        return jobService.list(bucketId);
+    }
+
+    @GetMapping("/{jobId}")
+    public JobView status(@PathVariable("bucketId") String bucketId, @PathVariable("jobId") String jobId) {
+        return jobService.get(bucketId, jobId);
+    }
+
+    @DeleteMapping("/{jobId}")
+    public JobView cancel(@PathVariable("bucketId") String bucketId, @PathVariable("jobId") String jobId) {
+        return jobService.cancel(bucketId, jobId);
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public JobLaunchResponse resume(@PathVariable("bucketId") String bucketId, @PathVariable("jobId") String jobId) {
+        return operationJobService.resume(bucketId, jobId);
+    }
+
+    @PostMapping("/bulk-copy")
+    public JobLaunchResponse bulkCopy(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody BulkCopyMoveRequest request) {
+        return operationJobService.bulkCopy(bucketId, request);
+    }
+
+    @PostMapping("/bulk-move")
+    public JobLaunchResponse bulkMove(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody BulkCopyMoveRequest request) {
+        return operationJobService.bulkMove(bucketId, request);
+    }
+
+    @PostMapping("/folder-copy")
+    public JobLaunchResponse copyFolder(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody FolderCopyRequest request) {
+        return operationJobService.copyFolder(bucketId, request);
+    }
+
+    @PostMapping("/folder-move")
+    public JobLaunchResponse moveFolder(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody FolderCopyRequest request) {
+        return operationJobService.moveFolder(bucketId, request);
+    }
+
+    @PostMapping("/folder-delete")
+    public JobLaunchResponse deleteFolder(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody DeleteFolderRequest request) {
+        return operationJobService.deleteFolder(bucketId, request);
+    }
+
+    @PostMapping("/delete-objects")
+    public JobLaunchResponse deleteObjects(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody DeleteObjectsRequest request) {
+        if (request.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No keys or prefixes provided");
+        }
+        return operationJobService.deleteObjects(bucketId, request);
+    }
+
+    @PostMapping("/transfer-copy")
+    public JobLaunchResponse transferCopy(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody TransferItemsRequest request) {
+        return operationJobService.transferObjects(bucketId, request, false);
+    }
+
+    @PostMapping("/transfer-move")
+    public JobLaunchResponse transferMove(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody TransferItemsRequest request) {
+        return operationJobService.transferObjects(bucketId, request, true);
+    }
+
+    @PostMapping("/folder-transfer-copy")
+    public JobLaunchResponse transferFolderCopy(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody TransferFolderRequest request) {
+        return operationJobService.transferFolder(bucketId, request, false);
+    }
+
+    @PostMapping("/purge-versions")
+    public JobLaunchResponse purgeVersions(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody PurgeVersionsRequest request) {
+        return operationJobService.purgeVersions(bucketId, request);
+    }
+
+    @PostMapping("/folder-sync")
+    public JobLaunchResponse syncFolder(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody SyncRequest request) {
+        return operationJobService.sync(bucketId, request);
+    }
+
+    @PostMapping("/folder-transfer-move")
+    public JobLaunchResponse transferFolderMove(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody TransferFolderRequest request) {
+        return operationJobService.transferFolder(bucketId, request, true);
+    }
+}
@@ -1,14 +1,27 @@
 package com.example.s3webapp.controller;
 
+import com.example.s3webapp.accounting.S3CallAccountingFilter;
 import com.example.s3webapp.model.BulkCopyMoveRequest;
 import com.example.s3webapp.model.CopyMoveRequest;
 import com.example.s3webapp.model.DeleteFolderRequest;
+import com.example.s3webapp.model.DeleteFolderResult;
 import com.example.s3webapp.model.DeleteObjectsRequest;
 import com.example.s3webapp.model.FolderCopyRequest;
 import com.example.s3webapp.model.FolderOperationResult;
 import com.example.s3webapp.model.ObjectItem;
 import com.example.s3webapp.model.ObjectListResponse;
+import com.example.s3webapp.model.SyncRequest;
+import com.example.s3webapp.model.SyncResult;
+import com.example.s3webapp.model.TransferFolderRequest;
+import com.example.s3webapp.model.TransferItemsRequest;
+import com.example.s3webapp.s3.OperationProgress;
 import com.example.s3webapp.s3.StorageService;
+import com.example.s3webapp.s3.SyncService;
+import com.example.s3webapp.s3.TransferService;
+import com.example.s3webapp.util.KeyUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import java.io.IOException;
 import java.net.URLEncoder;
@@ -32,9 +45,19 @@ import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 public class ObjectController {
 
     private final StorageService storageService;
-
-    public ObjectController(StorageService storageService) {
+    private final TransferService transferService;
+    private final SyncService syncService;
+    private final ObjectMapper objectMapper;
+
+    public ObjectController(
+            StorageService storageService,
+            TransferService transferService,
+            SyncService syncService,
+            ObjectMapper objectMapper) {
         this.storageService = storageService;
+        this.transferService = transferService;
+        this.syncService = syncService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/objects")
@@ -45,12 +68,18 @@ public class ObjectController {
         return storageService.listObjects(bucketId, prefix, pageToken);
     }
 
+    // Results can span every page under the prefix, so they are written out page by page instead of collected
     @GetMapping("/search")
-    public ObjectListResponse search(
+    public void search(
             @PathVariable("bucketId") String bucketId,
             @RequestParam("query") String query,
-            @RequestParam(value = "prefix", required = false) String prefix) {
-        return storageService.search(bucketId, prefix, query);
+            @RequestParam(value = "prefix", required = false) String prefix,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        S3CallAccountingFilter.omitHeaders(request);
+        ObjectListJsonWriter writer = new ObjectListJsonWriter(objectMapper, response, KeyUtils.normalizePrefix(prefix));
+        storageService.search(bucketId, prefix, query, writer);
+        writer.finish();
     }
 
     @GetMapping("/objects/download")
@@ -89,10 +118,9 @@ public class ObjectController {
     }
 
     @DeleteMapping("/folders")
-    public ResponseEntity<?> deleteFolder(
+    public DeleteFolderResult deleteFolder(
             @PathVariable("bucketId") String bucketId, @Valid @RequestBody DeleteFolderRequest request) {
-        long count = storageService.deleteFolder(bucketId, request);
-        return ResponseEntity.ok(java.util.Map.of("deletedCount", count));
+        return storageService.deleteFolder(bucketId, request);
     }
 
     @PostMapping("/objects/bulk-copy")
@@ -119,6 +147,35 @@ public class ObjectController {
         return storageService.moveFolder(bucketId, request);
     }
 
+    @PostMapping("/objects/transfer-copy")
+    public ResponseEntity<?> transferCopy(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody TransferItemsRequest request) {
+        return ResponseEntity.ok(transferService.transferObjects(bucketId, request, false, OperationProgress.NONE));
+    }
+
+    @PostMapping("/objects/transfer-move")
+    public ResponseEntity<?> transferMove(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody TransferItemsRequest request) {
+        return ResponseEntity.ok(transferService.transferObjects(bucketId, request, true, OperationProgress.NONE));
+    }
+
+    @PostMapping("/folders/transfer-copy")
+    public FolderOperationResult transferFolderCopy(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody TransferFolderRequest request) {
+        return transferService.transferFolder(bucketId, request, false, OperationProgress.NONE);
+    }
+
+    @PostMapping("/folders/transfer-move")
+    public FolderOperationResult transferFolderMove(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody TransferFolderRequest request) {
+        return transferService.transferFolder(bucketId, request, true, OperationProgress.NONE);
+    }
+
+    @PostMapping("/folders/sync")
+    public SyncResult syncFolder(@PathVariable("bucketId") String bucketId, @Valid @RequestBody SyncRequest request) {
+        return syncService.sync(bucketId, request, OperationProgress.NONE);
+    }
+
     private String extractName(String key) {
         int idx = key.lastIndexOf('/') + 1;
         return key.substring(idx);
@@ -0,0 +1,64 @@
+package com.example.s3webapp.controller;
+
+import com.example.s3webapp.model.ObjectItem;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.http.MediaType;
+
+// Writes the same JSON as an ObjectListResponse without folders, one page of objects at a time. Nothing is
+// written until the first page arrives, so a failure before any result still gets a normal error response.
+class ObjectListJsonWriter implements Consumer<List<ObjectItem>> {
+
+    private final ObjectMapper objectMapper;
+    private final HttpServletResponse response;
+    private final String currentPrefix;
+    private JsonGenerator generator;
+
+    ObjectListJsonWriter(ObjectMapper objectMapper, HttpServletResponse response, String currentPrefix) {
+        this.objectMapper = objectMapper;
+        this.response = response;
+        this.currentPrefix = currentPrefix;
+    }
+
+    @Override
+    public void accept(List<ObjectItem> page) {
+        try {
+            open();
+            for (ObjectItem item : page) {
+                generator.writeObject(item);
+            }
+            // Sends the page now; with compression on this is a gzip sync flush
+            generator.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write search results", ex);
+        }
+    }
+
+    void finish() throws IOException {
+        open();
+        generator.writeEndArray();
+        generator.writeNullField("nextPageToken");
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private void open() throws IOException {
+        if (generator != null) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        generator = objectMapper.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeStringField("currentPrefix", currentPrefix);
+        generator.writeArrayFieldStart("folders");
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("objects");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.s3webapp.controller;
+
+import com.example.s3webapp.model.OperationPlan;
+import com.example.s3webapp.model.OperationPlanRequest;
+import com.example.s3webapp.s3.OperationPlanner;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/buckets/{bucketId}/plans")
+public class PlanController {
+
+    private final OperationPlanner operationPlanner;
+
+    public PlanController(OperationPlanner operationPlanner) {
+        this.operationPlanner = operationPlanner;
+    }
+
+    @PostMapping
+    public OperationPlan plan(
+            @PathVariable("bucketId") String bucketId, @Valid @RequestBody OperationPlanRequest request) {
+        return operationPlanner.plan(bucketId, request);
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.s3webapp.foldersize;
 
+import com.example.s3webapp.jobs.JobPriority;
 import com.example.s3webapp.s3.FolderSizeComputation;
+import com.example.s3webapp.s3.FolderStatistics;
+import com.example.s3webapp.s3.SubfolderSize;
 import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -11,26 +17,71 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 class FolderSizeJob {
-    private final String id = UUID.randomUUID().toString();
+    private final String id;
     private final String bucketId;
     private final String prefix;
+    private final int breakdownDepth;
+    private final boolean statisticsRequested;
+    private final String requestedBy;
+    private final JobPriority priority;
     private final Instant createdAt = Instant.now();
     private final AtomicBoolean cancelRequested = new AtomicBoolean(false);
     private final Map<String, Consumer<FolderSizeEvent>> listeners = new ConcurrentHashMap<>();
+    private final Set<String> requesters = new HashSet<>();
+    private boolean abandoned = false;
 
     private volatile FolderSizeStatus status = FolderSizeStatus.QUEUED;
     private volatile long objectsScanned = 0;
     private volatile long totalSizeBytes = 0;
     private volatile boolean partial = false;
     private volatile String partialReason = null;
+    private volatile List<SubfolderSize> subfolders = List.of();
+    private volatile boolean subfoldersTruncated = false;
+    private volatile FolderStatistics statistics = null;
     private volatile String message = null;
     private volatile Instant startedAt = null;
     private volatile Instant finishedAt = null;
     private volatile Future<?> future;
+    private volatile boolean stale = false;
 
-    FolderSizeJob(String bucketId, String prefix) {
+    FolderSizeJob(
+            String bucketId,
+            String prefix,
+            int breakdownDepth,
+            boolean statisticsRequested,
+            String requestedBy,
+            JobPriority priority) {
+        this(UUID.randomUUID().toString(), bucketId, prefix, breakdownDepth, statisticsRequested, requestedBy, priority);
+    }
+
+    FolderSizeJob(
+            String id,
+            String bucketId,
+            String prefix,
+            int breakdownDepth,
+            boolean statisticsRequested,
+            String requestedBy,
+            JobPriority priority) {
+        this.id = id;
         this.bucketId = bucketId;
         this.prefix = prefix;
+        this.breakdownDepth = breakdownDepth;
+        this.statisticsRequested = statisticsRequested;
+        this.requestedBy = requestedBy;
+        this.priority = priority;
+        this.requesters.add(requestedBy);
+    }
+
+    static FolderSizeJob from(StoredJob stored) {
+        FolderSizeJobView view = stored.view();
+        return new FolderSizeJob(
+                view.id(),
+                view.bucketId(),
+                view.prefix(),
+                view.breakdownDepth(),
+                stored.statisticsRequested(),
+                stored.requestedBy(),
+                stored.priority());
     }
 
     String id() {
@@ -45,6 +96,22 @@ class FolderSizeJob {
         return prefix;
     }
 
+    int breakdownDepth() {
+        return breakdownDepth;
+    }
+
+    boolean statisticsRequested() {
+        return statisticsRequested;
+    }
+
+    String requestedBy() {
+        return requestedBy;
+    }
+
+    JobPriority priority() {
+        return priority;
+    }
+
     Instant createdAt() {
         return createdAt;
     }
@@ -53,6 +120,26 @@ class FolderSizeJob {
         return cancelRequested.get();
     }
 
+    // Coalesced requests share the job; it is abandoned once every requester has canceled, and from then on
+    // nobody may join it, so a late request starts a fresh scan instead of riding one that is being stopped
+    synchronized boolean join(String requester) {
+        if (abandoned) {
+            return false;
+        }
+        requesters.add(requester);
+        return true;
+    }
+
+    synchronized boolean leave(String requester) {
+        requesters.remove(requester);
+        abandoned = abandoned || requesters.isEmpty();
+        return abandoned;
+    }
+
+    synchronized boolean abandoned() {
+        return abandoned;
+    }
+
     void requestCancel() {
         cancelRequested.set(true);
         if (future != null) {
@@ -60,6 +147,14 @@ class FolderSizeJob {
         }
     }
 
+    boolean stale() {
+        return stale;
+    }
+
+    void markStale() {
+        this.stale = true;
+    }
+
     void setFuture(Future<?> future) {
         this.future = future;
     }
@@ -92,6 +187,24 @@ class FolderSizeJob {
         this.totalSizeBytes = computation.totalSizeBytes();
         this.partial = computation.partial();
         this.partialReason = computation.partialReason();
+        this.subfolders = computation.subfolders();
+        this.subfoldersTruncated = computation.subfoldersTruncated();
+        this.statistics = computation.statistics();
+    }
+
+    // Mirrors a job running on another node from its last stored checkpoint
+    void restore(FolderSizeJobView view) {
+        this.status = view.status();
+        this.objectsScanned = view.objectsScanned();
+        this.totalSizeBytes = view.totalSizeBytes();
+        this.partial = view.partial();
+        this.partialReason = view.partialReason();
+        this.subfolders = view.subfolders() == null ? List.of() : view.subfolders();
+        this.subfoldersTruncated = view.subfoldersTruncated();
+        this.statistics = view.statistics();
+        this.message = view.message();
+        this.startedAt = view.startedAt();
+        this.finishedAt = view.finishedAt();
     }
 
     boolean isTerminal() {
@@ -112,7 +225,11 @@ class FolderSizeJob {
                 partialReason,
                 message,
                 startedAt,
-                finishedAt);
+                finishedAt,
+                breakdownDepth,
+                subfolders,
+                subfoldersTruncated,
+                statistics);
     }
 
     void setMessage(String message) {
@@ -1,3 +1,3 @@
 package com.example.s3webapp.foldersize;
 
-public record FolderSizeJobLaunchResponse(FolderSizeJobView job, String websocketPath) {}
+public record FolderSizeJobLaunchResponse(FolderSizeJobView job, String websocketPath, boolean reused) {}
@@ -1,25 +1,40 @@
 package com.example.s3webapp.foldersize;
 
 import com.example.s3webapp.config.FolderSizeProperties;
+import com.example.s3webapp.config.JobStoreProperties;
+import com.example.s3webapp.config.VirtualThreadProperties;
+import com.example.s3webapp.jobs.JobPriority;
+import com.example.s3webapp.jobs.JobScheduler;
+import com.example.s3webapp.jobs.store.JobStore;
+import com.example.s3webapp.model.FolderSizeRequest;
+import com.example.s3webapp.s3.BucketContentChangedEvent;
 import com.example.s3webapp.s3.FolderSizeCalculator;
 import com.example.s3webapp.s3.FolderSizeCancelledException;
 import com.example.s3webapp.s3.FolderSizeComputation;
 import com.example.s3webapp.s3.FolderSizeLimits;
+import com.example.s3webapp.s3.ObjectStatistics;
+import com.example.s3webapp.s3.ScanAggregators;
+import com.example.s3webapp.s3.SubfolderBreakdown;
+import com.example.s3webapp.util.CurrentUser;
 import com.example.s3webapp.util.KeyUtils;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class FolderSizeJobService {
@@ -28,53 +43,153 @@ public class FolderSizeJobService {
 
     private final FolderSizeCalculator calculator;
     private final FolderSizeProperties properties;
-    private final ExecutorService executor;
+    private final JobScheduler scheduler;
     private final Map<String, FolderSizeJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, FolderSizeJob> active = new ConcurrentHashMap<>();
+    private final Map<String, CachedResult> results = new ConcurrentHashMap<>();
+    private final Map<String, FolderSizeJob> mirrors = new ConcurrentHashMap<>();
+    private final JobStore<StoredJob> store;
+    private final JobStoreProperties storeProperties;
+    private volatile Instant lastOrphanScan = Instant.EPOCH;
 
-    public FolderSizeJobService(FolderSizeCalculator calculator, FolderSizeProperties properties) {
+    public FolderSizeJobService(
+            FolderSizeCalculator calculator,
+            FolderSizeProperties properties,
+            MeterRegistry meterRegistry,
+            JobStore<StoredJob> store,
+            JobStoreProperties storeProperties,
+            VirtualThreadProperties virtualThreads) {
         this.calculator = calculator;
         this.properties = properties;
-        this.executor = Executors.newFixedThreadPool(
-                properties.maxParallelJobs(), new FolderSizeThreadFactory("folder-size-worker"));
+        this.store = store;
+        this.storeProperties = storeProperties;
+        this.scheduler = JobScheduler.create(
+                "folder-size",
+                properties.maxParallelJobs(),
+                properties.maxQueuedJobs(),
+                properties.maxQueuedPerUser(),
+                properties.maxRunningPerUser(),
+                virtualThreads.enabled(),
+                meterRegistry);
     }
 
     public FolderSizeJobLaunchResponse start(String bucketId, String prefix) {
-        String normalizedPrefix = KeyUtils.normalizePrefix(prefix);
-        FolderSizeJob job = new FolderSizeJob(bucketId, normalizedPrefix);
+        return start(bucketId, prefix, false);
+    }
+
+    public FolderSizeJobLaunchResponse start(String bucketId, String prefix, boolean refresh) {
+        return start(bucketId, new FolderSizeRequest(prefix, refresh, 0, false, null));
+    }
+
+    public FolderSizeJobLaunchResponse start(String bucketId, FolderSizeRequest request) {
+        String normalizedPrefix = KeyUtils.normalizePrefix(request.prefix());
+        int depth = Math.max(0, Math.min(request.breakdownDepth(), properties.breakdown().maxDepth()));
+        boolean statistics = request.statistics();
+        String key = scanKey(bucketId, normalizedPrefix, depth, statistics);
+        if (!request.refresh()) {
+            FolderSizeJob cached = cachedResult(key);
+            if (cached != null) {
+                return new FolderSizeJobLaunchResponse(cached.view(), websocketPath(cached.id()), true);
+            }
+        }
+        JobPriority priority = request.priority() == null ? JobPriority.INTERACTIVE : request.priority();
+        String requestedBy = CurrentUser.name();
+        FolderSizeJob[] created = new FolderSizeJob[1];
+        FolderSizeJob job = active.compute(key, (ignored, running) -> {
+            if (running != null && !running.isTerminal() && running.join(requestedBy)) {
+                return running;
+            }
+            created[0] = new FolderSizeJob(bucketId, normalizedPrefix, depth, statistics, requestedBy, priority);
+            return created[0];
+        });
+        if (created[0] == null) {
+            return new FolderSizeJobLaunchResponse(job.view(), websocketPath(job.id()), true);
+        }
+        results.remove(key);
         jobs.put(job.id(), job);
-        job.setFuture(executor.submit(() -> execute(job)));
-        return new FolderSizeJobLaunchResponse(job.view(), websocketPath(job.id()));
+        // Stored before it is scheduled so the worker's checkpoints always land on an existing record
+        Instant now = Instant.now();
+        store.save(new StoredJob(
+                job.view(),
+                statistics,
+                requestedBy,
+                priority,
+                storeProperties.nodeId(),
+                now.plus(storeProperties.leaseTtl()),
+                false,
+                Set.of(),
+                now));
+        try {
+            job.setFuture(scheduler.submit(requestedBy, priority, () -> execute(job)));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id());
+            active.remove(key, job);
+            store.delete(job.id());
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        }
+        return new FolderSizeJobLaunchResponse(job.view(), websocketPath(job.id()), false);
+    }
+
+    @EventListener
+    public void onBucketContentChanged(BucketContentChangedEvent event) {
+        results.values().removeIf(cached -> event.affects(cached.job().bucketId(), cached.job().prefix()));
+        for (FolderSizeJob job : active.values()) {
+            if (event.affects(job.bucketId(), job.prefix())) {
+                job.markStale();
+            }
+        }
     }
 
     public FolderSizeJobView get(String bucketId, String jobId) {
-        FolderSizeJob job = require(jobId);
-        if (!Objects.equals(job.bucketId(), bucketId)) {
+        FolderSizeJobView view = find(jobId);
+        if (!Objects.equals(view.bucketId(), bucketId)) {
             throw new IllegalArgumentException("Job does not belong to bucket " + bucketId);
         }
-        return job.view();
+        return view;
     }
 
     public FolderSizeJobView cancel(String bucketId, String jobId) {
-        FolderSizeJob job = require(jobId);
-        if (!Objects.equals(job.bucketId(), bucketId)) {
+        FolderSizeJobView view = find(jobId);
+        if (!Objects.equals(view.bucketId(), bucketId)) {
             throw new IllegalArgumentException("Job does not belong to bucket " + bucketId);
         }
-        return cancel(job);
+        return withdraw(jobId, CurrentUser.name());
     }
 
-    public FolderSizeJobView cancel(String jobId) {
-        FolderSizeJob job = require(jobId);
-        return cancel(job);
+    // Only withdraws this requester; the scan stops once everyone who asked for it has canceled
+    public FolderSizeJobView withdraw(String jobId, String requester) {
+        FolderSizeJob job = jobs.get(jobId);
+        if (job == null) {
+            return cancelRemote(jobId, requester);
+        }
+        if (job.isTerminal() || job.leave(requester)) {
+            return cancel(job);
+        }
+        log.info("{} left folder size job {}; it keeps running for its other requesters", requester, jobId);
+        return job.view();
     }
 
     public FolderSizeJobView attachListener(String jobId, String listenerId, Consumer<FolderSizeEvent> listener) {
-        FolderSizeJob job = require(jobId);
+        FolderSizeJob job = jobs.get(jobId);
+        if (job == null) {
+            job = mirrors.computeIfAbsent(jobId, id -> store.find(id).map(FolderSizeJobService::mirror).orElse(null));
+        }
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown job: " + jobId);
+        }
         job.addListener(listenerId, listener);
         listener.accept(job.event("SNAPSHOT"));
         return job.view();
     }
 
     public void detachListener(String jobId, String listenerId) {
+        FolderSizeJob mirror = mirrors.get(jobId);
+        if (mirror != null) {
+            mirror.removeListener(listenerId);
+            if (!mirror.hasListeners()) {
+                mirrors.remove(jobId, mirror);
+            }
+        }
         FolderSizeJob job = jobs.get(jobId);
         if (job == null) return;
         job.removeListener(listenerId);
@@ -86,27 +201,75 @@ public class FolderSizeJobService {
 
     @PreDestroy
     public void shutdown() {
-        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    // Renews the leases of local jobs while checkpointing their progress, streams stored progress to
+    // listeners of jobs running elsewhere, and adopts jobs whose owner stopped renewing
+    @Scheduled(fixedDelayString = "${app.job-store.heartbeat-interval:PT5S}")
+    public void heartbeat() {
+        for (FolderSizeJob job : jobs.values()) {
+            if (job.isTerminal()) {
+                continue;
+            }
+            Optional<StoredJob> stored = checkpoint(job);
+            if (stored.isPresent() && stored.get().cancelRequested()) {
+                log.info("Canceling folder size job {} on request from another node", job.id());
+                cancel(job);
+            } else if (job.abandoned()) {
+                log.info("Canceling folder size job {}: its last requester canceled through another node", job.id());
+                cancel(job);
+            }
+        }
+        refreshMirrors();
+        Instant now = Instant.now();
+        if (!lastOrphanScan.plus(storeProperties.leaseTtl()).isAfter(now)) {
+            lastOrphanScan = now;
+            adoptOrphans(now);
+        }
     }
 
     private void execute(FolderSizeJob job) {
         log.info("Starting folder size job {} for {}/{}", job.id(), job.bucketId(), job.prefix());
         job.markRunning();
+        checkpoint(job);
         broadcast(job, "STARTED");
         FolderSizeLimits limits = new FolderSizeLimits(properties.maxObjects(), properties.maxRuntime());
+        ScanAggregators aggregators = new ScanAggregators(
+                job.breakdownDepth() > 0
+                        ? new SubfolderBreakdown(
+                                job.prefix(),
+                                job.breakdownDepth(),
+                                properties.breakdown().maxNodes(),
+                                properties.breakdown().topN())
+                        : null,
+                job.statisticsRequested() ? new ObjectStatistics(Instant.now()) : null);
         try {
-            FolderSizeComputation result = calculator.compute(
-                    job.bucketId(),
-                    job.prefix(),
-                    limits,
-                    job::cancelRequested,
-                    computation -> onProgress(job, computation),
-                    properties.progressPageInterval());
+            FolderSizeComputation result = properties.parallelScan()
+                    ? calculator.computeParallel(
+                            job.bucketId(),
+                            job.prefix(),
+                            limits,
+                            job::cancelRequested,
+                            computation -> onProgress(job, computation),
+                            properties.progressPageInterval(),
+                            properties.scanConcurrency(),
+                            properties.fanOutDepth(),
+                            aggregators)
+                    : calculator.compute(
+                            job.bucketId(),
+                            job.prefix(),
+                            limits,
+                            job::cancelRequested,
+                            computation -> onProgress(job, computation),
+                            properties.progressPageInterval(),
+                            aggregators);
             job.markCompleted(result);
             if (result.partial()) {
                 job.setMessage(partialMessage(result.partialReason()));
                 broadcast(job, "PARTIAL");
             } else {
+                cacheResult(job);
                 broadcast(job, "COMPLETED");
             }
         } catch (FolderSizeCancelledException ex) {
@@ -115,7 +278,166 @@ public class FolderSizeJobService {
         } catch (Exception ex) {
             job.markFailed(ex.getMessage());
             broadcast(job, "FAILED");
+        } finally {
+            active.remove(scanKey(job), job);
+            checkpoint(job);
+        }
+    }
+
+    // Writes the job's view and extends its lease, but only while this node still holds the lease.
+    // Losing it means another node adopted the job, so the local copy stops.
+    private Optional<StoredJob> checkpoint(FolderSizeJob job) {
+        String nodeId = storeProperties.nodeId();
+        Instant now = Instant.now();
+        try {
+            Optional<StoredJob> stored = store.update(job.id(), current -> {
+                if (!current.ownedBy(nodeId) && !current.leaseExpired(now)) {
+                    return null;
+                }
+                current.releasedBy().forEach(job::leave);
+                return current.checkpoint(job.view(), nodeId, now.plus(storeProperties.leaseTtl())).withoutReleases();
+            });
+            if (stored.isEmpty() && !job.isTerminal()) {
+                log.warn("Folder size job {} lost its lease; stopping the local copy", job.id());
+                job.requestCancel();
+            }
+            return stored;
+        } catch (RuntimeException ex) {
+            log.warn("Failed to checkpoint folder size job {}: {}", job.id(), ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void refreshMirrors() {
+        for (FolderSizeJob mirror : mirrors.values()) {
+            Optional<StoredJob> stored = store.find(mirror.id());
+            if (stored.isEmpty()) {
+                mirrors.remove(mirror.id(), mirror);
+                continue;
+            }
+            FolderSizeJobView view = stored.get().view();
+            if (view.equals(mirror.view())) {
+                continue;
+            }
+            mirror.restore(view);
+            if (mirror.isTerminal()) {
+                mirrors.remove(mirror.id(), mirror);
+                broadcast(mirror, terminalEvent(view));
+            } else {
+                broadcast(mirror, "PROGRESS");
+            }
+        }
+    }
+
+    private void adoptOrphans(Instant now) {
+        String nodeId = storeProperties.nodeId();
+        for (StoredJob orphan : storedJobs()) {
+            if (orphan.terminal() || !orphan.leaseExpired(now) || jobs.containsKey(orphan.id())) {
+                continue;
+            }
+            Optional<StoredJob> claimed;
+            try {
+                claimed = store.update(orphan.id(), current -> !current.terminal() && current.leaseExpired(now)
+                        ? current.checkpoint(current.view(), nodeId, now.plus(storeProperties.leaseTtl()))
+                        : null);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to claim orphaned folder size job {}: {}", orphan.id(), ex.getMessage());
+                continue;
+            }
+            if (claimed.isEmpty()) {
+                continue;
+            }
+            FolderSizeJob job = FolderSizeJob.from(claimed.get());
+            claimed.get().releasedBy().forEach(job::leave);
+            jobs.put(job.id(), job);
+            if (claimed.get().cancelRequested() || job.abandoned()) {
+                cancel(job);
+                continue;
+            }
+            log.info("Adopting folder size job {} for {}/{} from node {}",
+                    job.id(), job.bucketId(), job.prefix(), orphan.owner());
+            active.putIfAbsent(scanKey(job), job);
+            try {
+                job.setFuture(scheduler.submit(job.requestedBy(), job.priority(), () -> execute(job)));
+            } catch (RejectedExecutionException ex) {
+                active.remove(scanKey(job), job);
+                job.markFailed("Could not be rescheduled: " + ex.getMessage());
+                checkpoint(job);
+            }
+        }
+    }
+
+    private FolderSizeJobView cancelRemote(String jobId, String requester) {
+        StoredJob current = store.find(jobId).orElseThrow(() -> new IllegalArgumentException("Unknown job: " + jobId));
+        if (current.terminal()) {
+            return current.view();
         }
+        Instant now = Instant.now();
+        // A running job records the requester for its owner's next heartbeat; an unowned one is canceled in place
+        // once its last requester has left, and otherwise keeps the release for whichever node adopts it
+        return store.update(jobId, stored -> {
+                    if (stored.terminal()) return null;
+                    FolderSizeJob job = mirror(stored);
+                    stored.releasedBy().forEach(job::leave);
+                    if (!stored.leaseExpired(now) || !job.leave(requester)) return stored.withReleasedBy(requester);
+                    job.markCanceled();
+                    return stored.checkpoint(job.view(), stored.owner(), stored.leaseExpiresAt());
+                })
+                .map(StoredJob::view)
+                .orElse(current.view());
+    }
+
+    private FolderSizeJobView find(String jobId) {
+        FolderSizeJob job = jobs.get(jobId);
+        if (job != null) {
+            return job.view();
+        }
+        return store.find(jobId)
+                .map(StoredJob::view)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown job: " + jobId));
+    }
+
+    private static FolderSizeJob mirror(StoredJob stored) {
+        FolderSizeJob job = FolderSizeJob.from(stored);
+        job.restore(stored.view());
+        return job;
+    }
+
+    private static String terminalEvent(FolderSizeJobView view) {
+        return switch (view.status()) {
+            case COMPLETED -> view.partial() ? "PARTIAL" : "COMPLETED";
+            case FAILED -> "FAILED";
+            default -> "CANCELED";
+        };
+    }
+
+    private void cacheResult(FolderSizeJob job) {
+        if (!properties.cacheResults() || job.stale()) {
+            return;
+        }
+        results.put(
+                scanKey(job),
+                new CachedResult(job, Instant.now().plus(properties.cacheTtl())));
+    }
+
+    private FolderSizeJob cachedResult(String key) {
+        CachedResult cached = results.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt().isBefore(Instant.now())) {
+            results.remove(key, cached);
+            return null;
+        }
+        return cached.job();
+    }
+
+    private static String scanKey(FolderSizeJob job) {
+        return scanKey(job.bucketId(), job.prefix(), job.breakdownDepth(), job.statisticsRequested());
+    }
+
+    private static String scanKey(String bucketId, String prefix, int breakdownDepth, boolean statistics) {
+        return bucketId + "\u0000" + prefix + "\u0000" + breakdownDepth + "\u0000" + statistics;
     }
 
     private void onProgress(FolderSizeJob job, FolderSizeComputation computation) {
@@ -137,34 +459,61 @@ public class FolderSizeJobService {
         }
     }
 
-    private FolderSizeJob require(String jobId) {
-        FolderSizeJob job = jobs.get(jobId);
-        if (job == null) {
-            throw new IllegalArgumentException("Unknown job: " + jobId);
-        }
-        return job;
-    }
-
     private FolderSizeJobView cancel(FolderSizeJob job) {
         if (job.isTerminal()) {
             return job.view();
         }
         job.requestCancel();
         job.markCanceled();
+        active.remove(scanKey(job), job);
+        checkpoint(job);
         broadcast(job, "CANCELED");
         return job.view();
     }
 
     @Scheduled(fixedDelayString = "PT1M")
     void cleanupCompleted() {
-        Instant cutoff = Instant.now().minus(properties.retention());
+        Instant now = Instant.now();
+        results.values().removeIf(cached -> cached.expiresAt().isBefore(now));
+        Instant cutoff = now.minus(properties.retention());
+        for (StoredJob stored : storedJobs()) {
+            Instant finished = stored.view().finishedAt();
+            if (stored.terminal() && finished != null && finished.isBefore(cutoff) && !jobs.containsKey(stored.id())) {
+                deleteStored(stored.id());
+            }
+        }
         jobs.entrySet().removeIf(entry -> {
             FolderSizeJob job = entry.getValue();
             Instant finished = job.view().finishedAt();
-            return job.isTerminal() && finished != null && finished.isBefore(cutoff);
+            boolean expired = job.isTerminal()
+                    && finished != null
+                    && finished.isBefore(cutoff)
+                    && results.values().stream().noneMatch(cached -> cached.job() == job);
+            if (expired) {
+                deleteStored(job.id());
+            }
+            return expired;
         });
     }
 
+    // Orphan adoption and cleanup run on a timer; a store outage should skip a round, not end it with a trace
+    private List<StoredJob> storedJobs() {
+        try {
+            return store.list();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to list stored folder size jobs: {}", ex.getMessage());
+            return List.of();
+        }
+    }
+
+    private void deleteStored(String jobId) {
+        try {
+            store.delete(jobId);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to delete stored folder size job {}: {}", jobId, ex.getMessage());
+        }
+    }
+
     public String websocketPath(String jobId) {
         return "/api/ws/folder-size/" + jobId;
     }
@@ -178,19 +527,5 @@ public class FolderSizeJobService {
         };
     }
 
-    private static class FolderSizeThreadFactory implements ThreadFactory {
-        private final String prefix;
-
-        FolderSizeThreadFactory(String prefix) {
-            this.prefix = prefix;
-        }
-
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread thread = new Thread(r);
-            thread.setName(prefix + "-" + UUID.randomUUID());
-            thread.setDaemon(true);
-            return thread;
-        }
-    }
+    private record CachedResult(FolderSizeJob job, Instant expiresAt) {}
 }
@@ -1,6 +1,9 @@
 package com.example.s3webapp.foldersize;
 
+import com.example.s3webapp.s3.FolderStatistics;
+import com.example.s3webapp.s3.SubfolderSize;
 import java.time.Instant;
+import java.util.List;
 
 public record FolderSizeJobView(
         String id,
@@ -13,4 +16,8 @@ public record FolderSizeJobView(
         String partialReason,
         String message,
         Instant startedAt,
-        Instant finishedAt) {}
+        Instant finishedAt,
+        int breakdownDepth,
+        List<SubfolderSize> subfolders,
+        boolean subfoldersTruncated,
+        FolderStatistics statistics) {}
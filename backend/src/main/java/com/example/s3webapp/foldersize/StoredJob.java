@@ -0,0 +1,62 @@
+package com.example.s3webapp.foldersize;
+
+import com.example.s3webapp.jobs.JobPriority;
+import com.example.s3webapp.jobs.store.JobStore;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+public record StoredJob(
+        FolderSizeJobView view,
+        boolean statisticsRequested,
+        String requestedBy,
+        JobPriority priority,
+        String owner,
+        Instant leaseExpiresAt,
+        boolean cancelRequested,
+        Set<String> releasedBy,
+        Instant updatedAt) implements JobStore.Record {
+
+    public StoredJob {
+        releasedBy = releasedBy == null ? Set.of() : Set.copyOf(releasedBy);
+    }
+
+    public String id() {
+        return view.id();
+    }
+
+    public boolean terminal() {
+        return view.status() == FolderSizeStatus.COMPLETED
+                || view.status() == FolderSizeStatus.FAILED
+                || view.status() == FolderSizeStatus.CANCELED;
+    }
+
+    public boolean ownedBy(String nodeId) {
+        return nodeId.equals(owner);
+    }
+
+    public boolean leaseExpired(Instant now) {
+        return leaseExpiresAt == null || !leaseExpiresAt.isAfter(now);
+    }
+
+    StoredJob checkpoint(FolderSizeJobView view, String owner, Instant leaseExpiresAt) {
+        return new StoredJob(
+                view, statisticsRequested, requestedBy, priority, owner, leaseExpiresAt, cancelRequested, releasedBy,
+                Instant.now());
+    }
+
+    // Requesters who canceled through a node that does not run the job, kept until the owner applies them
+    StoredJob withReleasedBy(String requester) {
+        Set<String> released = new HashSet<>(releasedBy);
+        released.add(requester);
+        return new StoredJob(
+                view, statisticsRequested, requestedBy, priority, owner, leaseExpiresAt, cancelRequested, released,
+                Instant.now());
+    }
+
+    StoredJob withoutReleases() {
+        return new StoredJob(
+                view, statisticsRequested, requestedBy, priority, owner, leaseExpiresAt, cancelRequested, Set.of(),
+                updatedAt);
+    }
+}
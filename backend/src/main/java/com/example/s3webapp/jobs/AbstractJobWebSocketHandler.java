@@ -0,0 +1,248 @@
+package com.example.s3webapp.jobs;
+
+import com.example.s3webapp.config.WebSocketProperties;
+import com.example.s3webapp.util.NamedThreadFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+public abstract class AbstractJobWebSocketHandler<E> extends TextWebSocketHandler {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final Pattern jobPattern;
+    private final ObjectMapper objectMapper;
+    private final long sendIntervalNanos;
+    private final long sendTimeLimitNanos;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService throttle;
+
+    protected AbstractJobWebSocketHandler(
+            String pathSegment, ObjectMapper objectMapper, WebSocketProperties properties) {
+        this.jobPattern = Pattern.compile(".*/" + Pattern.quote(pathSegment) + "/(?<id>[^/]+)$");
+        this.objectMapper = objectMapper;
+        this.sendIntervalNanos = properties.sendInterval().toNanos();
+        this.sendTimeLimitNanos = properties.sendTimeLimit().toNanos();
+        // Bounded: a client that stops reading holds its sender thread, so it must not cost one thread per stuck session
+        this.senders = Executors.newFixedThreadPool(
+                properties.senderThreads(), new NamedThreadFactory(pathSegment + "-ws-send"));
+        this.throttle = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(pathSegment + "-ws-throttle"));
+    }
+
+    protected abstract void attach(String jobId, String listenerId, Consumer<E> listener);
+
+    protected abstract void detach(String jobId, String listenerId);
+
+    protected abstract void cancel(String jobId, String requester);
+
+    protected abstract boolean isTerminal(E event);
+
+    protected boolean mayCancel(WebSocketSession session) {
+        return true;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String jobId = extractJobId(session);
+        session.getAttributes().put("jobId", jobId);
+        Outbox outbox = new Outbox(jobId, session);
+        attach(jobId, session.getId(), outbox::offer);
+    }
+
+    @Override
+    public void handleTextMessage(WebSocketSession session, TextMessage message) {
+        String payload = message.getPayload() != null ? message.getPayload().trim() : "";
+        if ("cancel".equalsIgnoreCase(payload)) {
+            String jobId = (String) session.getAttributes().get("jobId");
+            if (jobId == null) {
+                return;
+            }
+            if (!mayCancel(session)) {
+                log.warn("Ignoring cancel of job {} from {}: not permitted", jobId, principalName(session));
+                return;
+            }
+            cancel(jobId, principalName(session));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        String jobId = (String) session.getAttributes().get("jobId");
+        if (jobId != null) {
+            detach(jobId, session.getId());
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        log.warn("WebSocket transport error: {}", exception.getMessage());
+        super.handleTransportError(session, exception);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        throttle.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    private void sendEvent(WebSocketSession session, E event) {
+        try {
+            synchronized (session) {
+                if (session.isOpen()) {
+                    session.sendMessage(new TextMessage(objectMapper.writeValueAsString(event)));
+                    if (isTerminal(event)) {
+                        session.close(CloseStatus.NORMAL);
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize job event: {}", e.getMessage());
+        } catch (IOException e) {
+            log.warn("Failed to send job event: {}", e.getMessage());
+            try {
+                session.close(CloseStatus.PROTOCOL_ERROR);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static String principalName(WebSocketSession session) {
+        return session.getPrincipal() != null ? session.getPrincipal().getName() : "anonymous";
+    }
+
+    private String extractJobId(WebSocketSession session) {
+        String path = session.getUri() != null ? session.getUri().getPath() : "";
+        Matcher matcher = jobPattern.matcher(path);
+        if (matcher.matches()) {
+            return matcher.group("id");
+        }
+        Map<String, Object> attributes = session.getAttributes();
+        Object candidate = attributes.get("jobId");
+        if (candidate instanceof String str && !str.isBlank()) {
+            return str;
+        }
+        throw new IllegalArgumentException("Missing job id in websocket path");
+    }
+
+    // Listeners run on job worker threads, so they only park the event here. A sender thread delivers at most
+    // one progress event per send interval, newer progress replaces older unsent progress, and a terminal event
+    // replaces anything still pending and is sent without waiting. A session whose send has been blocked for
+    // longer than the send time limit is detached and closed when the next event arrives.
+    private final class Outbox implements Runnable {
+        private final String jobId;
+        private final WebSocketSession session;
+        private final AtomicReference<E> progress = new AtomicReference<>();
+        private final AtomicReference<E> terminal = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean dropped = new AtomicBoolean();
+        private volatile long lastSentNanos = System.nanoTime() - sendIntervalNanos;
+        private volatile long sendStartedNanos;
+
+        Outbox(String jobId, WebSocketSession session) {
+            this.jobId = jobId;
+            this.session = session;
+        }
+
+        void offer(E event) {
+            if (isTerminal(event)) {
+                terminal.set(event);
+            } else {
+                progress.set(event);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (dropped.get() || !session.isOpen()) {
+                return;
+            }
+            if (!scheduled.compareAndSet(false, true)) {
+                long started = sendStartedNanos;
+                if (started != 0 && System.nanoTime() - started > sendTimeLimitNanos) {
+                    drop();
+                }
+                return;
+            }
+            long wait = terminal.get() != null ? 0 : lastSentNanos + sendIntervalNanos - System.nanoTime();
+            try {
+                if (wait <= 0) {
+                    senders.execute(this);
+                } else {
+                    throttle.schedule(() -> senders.execute(this), wait, TimeUnit.NANOSECONDS);
+                }
+            } catch (RejectedExecutionException ex) {
+                scheduled.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                E last = terminal.getAndSet(null);
+                if (last != null) {
+                    progress.set(null);
+                    send(last);
+                    return;
+                }
+                E event = progress.getAndSet(null);
+                if (event != null) {
+                    send(event);
+                    lastSentNanos = System.nanoTime();
+                }
+            } finally {
+                scheduled.set(false);
+                if (progress.get() != null || terminal.get() != null) {
+                    schedule();
+                }
+            }
+        }
+
+        private void send(E event) {
+            sendStartedNanos = System.nanoTime();
+            try {
+                sendEvent(session, event);
+            } finally {
+                sendStartedNanos = 0;
+            }
+        }
+
+        // The blocked sender keeps its thread until the container gives up on the write; closing from the
+        // throttle thread makes that happen sooner and stops further events from queueing behind it
+        private void drop() {
+            if (!dropped.compareAndSet(false, true)) {
+                return;
+            }
+            log.warn("Dropping WebSocket session {} for job {}: a send has been blocked for over {} ms",
+                    session.getId(), jobId, TimeUnit.NANOSECONDS.toMillis(sendTimeLimitNanos));
+            progress.set(null);
+            terminal.set(null);
+            detach(jobId, session.getId());
+            try {
+                throttle.execute(() -> {
+                    try {
+                        session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                    } catch (IOException ignored) {
+                    }
+                });
+            } catch (RejectedExecutionException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.s3webapp.jobs;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+class Job {
+    private final String id;
+    private final JobType type;
+    private final String bucketId;
+    private final String description;
+    private final JobPlan plan;
+    private final Instant createdAt;
+    private final AtomicBoolean cancelRequested = new AtomicBoolean(false);
+    private final Map<String, Consumer<JobEvent>> listeners = new ConcurrentHashMap<>();
+    private final AtomicLong objectsProcessed = new AtomicLong();
+    private final AtomicLong objectsTotal = new AtomicLong(-1);
+    private final AtomicLong bytesProcessed = new AtomicLong();
+    private final AtomicLong bytesTotal = new AtomicLong(-1);
+    private final AtomicLong lastProgressNanos = new AtomicLong();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile String message = null;
+    private volatile Object result = null;
+    private volatile Instant startedAt = null;
+    private volatile Instant finishedAt = null;
+    private volatile Future<?> future;
+
+    Job(JobType type, String bucketId, String description, JobPlan plan) {
+        this(UUID.randomUUID().toString(), type, bucketId, description, plan, Instant.now());
+    }
+
+    private Job(String id, JobType type, String bucketId, String description, JobPlan plan, Instant createdAt) {
+        this.id = id;
+        this.type = type;
+        this.bucketId = bucketId;
+        this.description = description;
+        this.plan = plan;
+        this.createdAt = createdAt;
+    }
+
+    static Job interrupted(String id, JobPlan plan, long completedObjects, Instant lastCheckpoint) {
+        Job job = new Job(id, plan.type(), plan.bucketId(), plan.description(), plan, lastCheckpoint);
+        job.status = JobStatus.INTERRUPTED;
+        job.objectsProcessed.set(completedObjects);
+        job.message = "Interrupted after " + completedObjects + " objects; resume to continue";
+        return job;
+    }
+
+    String id() {
+        return id;
+    }
+
+    String bucketId() {
+        return bucketId;
+    }
+
+    JobType type() {
+        return type;
+    }
+
+    JobPlan plan() {
+        return plan;
+    }
+
+    JobStatus status() {
+        return status;
+    }
+
+    boolean cancelRequested() {
+        return cancelRequested.get();
+    }
+
+    void requestCancel() {
+        cancelRequested.set(true);
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized boolean markResumed() {
+        if (status != JobStatus.INTERRUPTED) return false;
+        this.status = JobStatus.QUEUED;
+        this.message = null;
+        this.objectsProcessed.set(0);
+        this.objectsTotal.set(-1);
+        this.bytesProcessed.set(0);
+        this.bytesTotal.set(-1);
+        return true;
+    }
+
+    void markRunning() {
+        this.status = JobStatus.RUNNING;
+        this.startedAt = Instant.now();
+    }
+
+    synchronized boolean markCompleted(Object result, String message) {
+        if (isTerminal()) return false;
+        this.result = result;
+        this.message = message;
+        this.status = JobStatus.COMPLETED;
+        this.finishedAt = Instant.now();
+        return true;
+    }
+
+    synchronized boolean markFailed(String message) {
+        if (isTerminal()) return false;
+        this.status = JobStatus.FAILED;
+        this.message = message;
+        this.finishedAt = Instant.now();
+        return true;
+    }
+
+    synchronized boolean markCanceled() {
+        if (isTerminal()) return false;
+        this.status = JobStatus.CANCELED;
+        this.message = "Canceled";
+        this.finishedAt = Instant.now();
+        return true;
+    }
+
+    boolean isTerminal() {
+        return status.isTerminal();
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    void expect(long objects, long bytes) {
+        objectsTotal.updateAndGet(current -> Math.max(current, 0) + objects);
+        bytesTotal.updateAndGet(current -> Math.max(current, 0) + bytes);
+    }
+
+    void advance(long objects, long bytes) {
+        objectsProcessed.addAndGet(objects);
+        bytesProcessed.addAndGet(bytes);
+    }
+
+    boolean progressDue(Duration interval) {
+        long now = System.nanoTime();
+        long last = lastProgressNanos.get();
+        return now - last >= interval.toNanos() && lastProgressNanos.compareAndSet(last, now);
+    }
+
+    JobView view() {
+        return new JobView(
+                id,
+                type,
+                bucketId,
+                description,
+                status,
+                progress(),
+                message,
+                result,
+                createdAt,
+                startedAt,
+                finishedAt);
+    }
+
+    JobEvent event(String eventType) {
+        return new JobEvent(eventType, view());
+    }
+
+    void addListener(String subscriberId, Consumer<JobEvent> listener) {
+        listeners.put(subscriberId, listener);
+    }
+
+    void removeListener(String subscriberId) {
+        listeners.remove(subscriberId);
+    }
+
+    List<Consumer<JobEvent>> listeners() {
+        return List.copyOf(listeners.values());
+    }
+
+    private JobProgress progress() {
+        long objects = objectsProcessed.get();
+        long bytes = bytesProcessed.get();
+        long expectedObjects = objectsTotal.get();
+        long expectedBytes = bytesTotal.get();
+        Instant started = startedAt;
+        if (started == null) {
+            return new JobProgress(objects, expectedObjects, bytes, expectedBytes, 0, 0, null);
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = Math.max(Duration.between(started, end).toMillis(), 1) / 1000.0;
+        double objectRate = objects / seconds;
+        double byteRate = bytes / seconds;
+        Long eta = null;
+        if (status == JobStatus.RUNNING) {
+            if (expectedBytes > 0 && byteRate > 0) {
+                eta = (long) Math.ceil(Math.max(expectedBytes - bytes, 0) / byteRate);
+            } else if (expectedObjects > 0 && objectRate > 0) {
+                eta = (long) Math.ceil(Math.max(expectedObjects - objects, 0) / objectRate);
+            }
+        }
+        return new JobProgress(objects, expectedObjects, bytes, expectedBytes, objectRate, byteRate, eta);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.s3webapp.jobs;
+
+import com.example.s3webapp.s3.OperationProgress;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class JobContext implements OperationProgress {
+
+    private final Job job;
+    private final Duration progressInterval;
+    private final Consumer<Job> progressListener;
+    private final JobJournal.Writer journal;
+    private final Set<String> completedKeys;
+
+    JobContext(
+            Job job,
+            Duration progressInterval,
+            Consumer<Job> progressListener,
+            JobJournal.Writer journal,
+            Set<String> completedKeys) {
+        this.job = job;
+        this.progressInterval = progressInterval;
+        this.progressListener = progressListener;
+        this.journal = journal;
+        this.completedKeys = completedKeys;
+    }
+
+    public String jobId() {
+        return job.id();
+    }
+
+    @Override
+    public boolean cancelRequested() {
+        return job.cancelRequested() || Thread.currentThread().isInterrupted();
+    }
+
+    @Override
+    public void expect(long objects, long bytes) {
+        job.expect(objects, bytes);
+    }
+
+    @Override
+    public void advance(long objects, long bytes) {
+        job.advance(objects, bytes);
+        if (job.progressDue(progressInterval)) {
+            progressListener.accept(job);
+        }
+    }
+
+    @Override
+    public boolean alreadyCompleted(String key) {
+        return completedKeys.contains(key);
+    }
+
+    @Override
+    public void completed(String key) {
+        if (journal != null) {
+            journal.completed(key);
+        }
+    }
+}
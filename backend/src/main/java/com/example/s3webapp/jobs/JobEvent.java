@@ -0,0 +1,3 @@
+package com.example.s3webapp.jobs;
+
+public record JobEvent(String event, JobView job) {}
@@ -0,0 +1,297 @@
+package com.example.s3webapp.jobs;
+
+import com.example.s3webapp.config.JobProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JobJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(JobJournal.class);
+    private static final String SUFFIX = ".journal";
+    private static final String PLAN = "P ";
+    private static final String DONE = "D ";
+
+    private final JobProperties.Journal properties;
+    private final ObjectMapper objectMapper;
+    private final Set<Writer> writers = ConcurrentHashMap.newKeySet();
+
+    public JobJournal(JobProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties.journal();
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    Writer create(String jobId, JobPlan plan) {
+        try {
+            Files.createDirectories(directory());
+            Writer writer = track(new Writer(FileChannel.open(
+                    file(jobId), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+            writer.append(PLAN + objectMapper.writeValueAsString(plan));
+            writer.sync();
+            return writer;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create journal for job " + jobId, ex);
+        }
+    }
+
+    Writer reopen(String jobId) {
+        try {
+            Path path = file(jobId);
+            // A crash mid-write leaves a torn last record; cut it off so later records cannot complete it
+            truncateTornTail(jobId, path);
+            return track(new Writer(FileChannel.open(path, StandardOpenOption.APPEND, StandardOpenOption.WRITE)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to reopen journal for job " + jobId, ex);
+        }
+    }
+
+    private Writer track(Writer writer) {
+        writers.add(writer);
+        return writer;
+    }
+
+    private static void truncateTornTail(String jobId, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long end = completeLength(channel);
+            if (end < size) {
+                log.warn("Dropping torn record of {} bytes from journal for job {}", size - end, jobId);
+                channel.truncate(end);
+                channel.force(false);
+            }
+        }
+    }
+
+    // Length up to and including the last newline; every record ends in one, so anything after it is torn
+    private static long completeLength(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long end = channel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - buffer.capacity());
+            buffer.clear().limit((int) (end - start));
+            while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {}
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    // Hands over only newline-terminated records. A torn last line can still decode cleanly ("a/b" cut from
+    // "a/bc"), so it must never be read as a completed key.
+    private static void readRecords(Path path, RecordReader reader) throws IOException {
+        boolean torn;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            torn = completeLength(channel) < channel.size();
+        }
+        try (BufferedReader lines = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line = lines.readLine();
+            while (line != null) {
+                String next = lines.readLine();
+                if (next != null || !torn) {
+                    reader.read(line);
+                }
+                line = next;
+            }
+        }
+    }
+
+    Set<String> completedKeys(String jobId) {
+        Set<String> keys = new HashSet<>();
+        try {
+            readRecords(file(jobId), line -> {
+                if (line.startsWith(DONE)) {
+                    try {
+                        keys.add(URLDecoder.decode(line.substring(DONE.length()), StandardCharsets.UTF_8));
+                    } catch (IllegalArgumentException ex) {
+                        log.warn("Skipping malformed record in journal for job {}: {}", jobId, ex.getMessage());
+                    }
+                }
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read journal for job " + jobId, ex);
+        }
+        return keys;
+    }
+
+    void discard(String jobId) {
+        try {
+            Files.deleteIfExists(file(jobId));
+        } catch (IOException ex) {
+            log.warn("Failed to delete journal for job {}: {}", jobId, ex.getMessage());
+        }
+    }
+
+    // Flushes records of jobs that stopped completing objects, so a crash loses at most syncInterval plus one
+    // tick of them. The tick is fixed because sync-interval is not in the ISO-8601 form @Scheduled needs.
+    @Scheduled(fixedDelay = 200)
+    public void syncIdle() {
+        for (Writer writer : writers) {
+            try {
+                writer.syncIfDue();
+            } catch (UncheckedIOException ex) {
+                log.warn("Failed to sync job journal: {}", ex.getMessage());
+            }
+        }
+    }
+
+    List<Recovered> recover() {
+        List<Recovered> recovered = new ArrayList<>();
+        if (!enabled() || !Files.isDirectory(directory())) {
+            return recovered;
+        }
+        try (Stream<Path> files = Files.list(directory())) {
+            for (Path path : files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                String name = path.getFileName().toString();
+                String jobId = name.substring(0, name.length() - SUFFIX.length());
+                try {
+                    recovered.add(read(jobId, path));
+                } catch (IOException | RuntimeException ex) {
+                    log.warn("Ignoring unreadable journal {}: {}", path, ex.getMessage());
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to scan job journal directory {}: {}", directory(), ex.getMessage());
+        }
+        return recovered;
+    }
+
+    private Recovered read(String jobId, Path path) throws IOException {
+        JobPlan[] plan = new JobPlan[1];
+        long[] completed = new long[1];
+        readRecords(path, line -> {
+            if (line.startsWith(PLAN)) {
+                plan[0] = objectMapper.readValue(line.substring(PLAN.length()), JobPlan.class);
+            } else if (line.startsWith(DONE)) {
+                completed[0]++;
+            }
+        });
+        if (plan[0] == null) {
+            throw new IllegalStateException("Journal has no plan");
+        }
+        return new Recovered(jobId, plan[0], completed[0], Files.getLastModifiedTime(path).toInstant());
+    }
+
+    private Path directory() {
+        return Path.of(properties.directory());
+    }
+
+    private Path file(String jobId) {
+        return directory().resolve(jobId + SUFFIX);
+    }
+
+    private interface RecordReader {
+        void read(String line) throws IOException;
+    }
+
+    record Recovered(String jobId, JobPlan plan, long completedObjects, Instant lastCheckpoint) {}
+
+    // Writes and fsyncs happen under the lock, so it is a ReentrantLock: a monitor would pin a virtual worker's
+    // carrier thread for the whole fsync
+    class Writer implements AutoCloseable {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final FileChannel channel;
+        private final StringBuilder pending = new StringBuilder();
+        private int pendingRecords = 0;
+        private long lastSyncNanos = System.nanoTime();
+
+        private Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void completed(String key) {
+            lock.lock();
+            try {
+                append(DONE + URLEncoder.encode(key, StandardCharsets.UTF_8));
+                pendingRecords++;
+                if (pendingRecords >= properties.syncEvery()) {
+                    sync();
+                } else {
+                    syncIfDue();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void syncIfDue() {
+            lock.lock();
+            try {
+                if (System.nanoTime() - lastSyncNanos >= properties.syncInterval().toNanos()) {
+                    sync();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void sync() {
+            lock.lock();
+            try {
+                if (pending.isEmpty()) return;
+                ByteBuffer buffer = ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                pending.setLength(0);
+                pendingRecords = 0;
+                lastSyncNanos = System.nanoTime();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to sync job journal", ex);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            writers.remove(this);
+            lock.lock();
+            try {
+                sync();
+            } finally {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    log.warn("Failed to close job journal: {}", ex.getMessage());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private void append(String line) {
+            pending.append(line).append('\n');
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.example.s3webapp.jobs;
+
+public record JobLaunchResponse(JobView job, String websocketPath) {}
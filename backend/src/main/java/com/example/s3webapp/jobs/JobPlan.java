@@ -0,0 +1,5 @@
+package com.example.s3webapp.jobs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public record JobPlan(JobType type, String bucketId, String description, JsonNode request) {}
@@ -0,0 +1,6 @@
+package com.example.s3webapp.jobs;
+
+public enum JobPriority {
+    INTERACTIVE,
+    BATCH
+}
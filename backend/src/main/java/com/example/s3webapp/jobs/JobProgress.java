@@ -0,0 +1,10 @@
+package com.example.s3webapp.jobs;
+
+public record JobProgress(
+        long objectsProcessed,
+        long objectsTotal,
+        long bytesProcessed,
+        long bytesTotal,
+        double objectsPerSecond,
+        double bytesPerSecond,
+        Long etaSeconds) {}
@@ -0,0 +1,238 @@
+package com.example.s3webapp.jobs;
+
+import com.example.s3webapp.util.Workers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Runs at most maxParallel tasks. Queued work is taken by priority class first, then round-robin across owners,
+// skipping owners already at maxRunningPerUser. Submissions beyond maxQueued (or maxQueuedPerUser) are rejected.
+public class JobScheduler {
+
+    private final String name;
+    private final int maxParallel;
+    private final int maxQueued;
+    private final int maxQueuedPerUser;
+    private final int maxRunningPerUser;
+    private final ExecutorService workers;
+    private final Map<JobPriority, LinkedHashMap<String, ArrayDeque<Entry>>> queues = new EnumMap<>(JobPriority.class);
+    private final Map<JobPriority, Integer> queuedByPriority = new EnumMap<>(JobPriority.class);
+    private final Map<String, Integer> queuedByOwner = new HashMap<>();
+    private final Map<String, Integer> runningByOwner = new HashMap<>();
+    private final Map<JobPriority, Timer> waitTimers = new EnumMap<>(JobPriority.class);
+    private final Map<JobPriority, Timer> runTimers = new EnumMap<>(JobPriority.class);
+    private final Counter rejected;
+    private int queued = 0;
+    private int running = 0;
+    private boolean shutdown = false;
+
+    private JobScheduler(
+            String name,
+            int maxParallel,
+            int maxQueued,
+            int maxQueuedPerUser,
+            int maxRunningPerUser,
+            boolean virtualThreads,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxParallel = maxParallel;
+        this.maxQueued = maxQueued;
+        this.maxQueuedPerUser = maxQueuedPerUser;
+        this.maxRunningPerUser = maxRunningPerUser;
+        this.workers = Workers.newPool(name + "-worker", maxParallel, virtualThreads);
+        for (JobPriority priority : JobPriority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+            queuedByPriority.put(priority, 0);
+            String tag = priority.name().toLowerCase();
+            waitTimers.put(priority, Timer.builder("jobs.queue.wait")
+                    .tag("scheduler", name)
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+            runTimers.put(priority, Timer.builder("jobs.run")
+                    .tag("scheduler", name)
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        }
+        this.rejected = Counter.builder("jobs.rejected").tag("scheduler", name).register(meterRegistry);
+    }
+
+    // Gauges hold on to the scheduler, so they are registered once it is fully constructed
+    public static JobScheduler create(
+            String name,
+            int maxParallel,
+            int maxQueued,
+            int maxQueuedPerUser,
+            int maxRunningPerUser,
+            boolean virtualThreads,
+            MeterRegistry meterRegistry) {
+        JobScheduler scheduler = new JobScheduler(
+                name, maxParallel, maxQueued, maxQueuedPerUser, maxRunningPerUser, virtualThreads, meterRegistry);
+        for (JobPriority priority : JobPriority.values()) {
+            Gauge.builder("jobs.queue.depth", scheduler, registered -> registered.queued(priority))
+                    .tag("scheduler", name)
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("jobs.running", scheduler, JobScheduler::running).tag("scheduler", name).register(meterRegistry);
+        return scheduler;
+    }
+
+    public Future<?> submit(String owner, JobPriority priority, Runnable task) {
+        Entry entry = new Entry(owner, priority, task);
+        synchronized (this) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Scheduler " + name + " is shut down");
+            }
+            if (queued >= maxQueued) {
+                rejected.increment();
+                throw new RejectedExecutionException("Job queue is full, try again later");
+            }
+            if (maxQueuedPerUser > 0 && queuedByOwner.getOrDefault(owner, 0) >= maxQueuedPerUser) {
+                rejected.increment();
+                throw new RejectedExecutionException("Too many queued jobs for " + owner + ", try again later");
+            }
+            queues.get(priority).computeIfAbsent(owner, ignored -> new ArrayDeque<>()).add(entry);
+            queued++;
+            queuedByPriority.merge(priority, 1, Integer::sum);
+            queuedByOwner.merge(owner, 1, Integer::sum);
+        }
+        dispatch();
+        return entry;
+    }
+
+    public synchronized int queued(JobPriority priority) {
+        return queuedByPriority.get(priority);
+    }
+
+    public synchronized int running() {
+        return running;
+    }
+
+    public void shutdownNow() {
+        List<Entry> dropped = new ArrayList<>();
+        synchronized (this) {
+            shutdown = true;
+            queues.values().forEach(byOwner -> byOwner.values().forEach(dropped::addAll));
+            queues.values().forEach(Map::clear);
+            queuedByPriority.replaceAll((priority, count) -> 0);
+            queuedByOwner.clear();
+            queued = 0;
+        }
+        dropped.forEach(entry -> entry.cancel(false));
+        workers.shutdownNow();
+    }
+
+    private void dispatch() {
+        List<Entry> ready = new ArrayList<>();
+        synchronized (this) {
+            while (!shutdown && running < maxParallel) {
+                Entry next = pollNext();
+                if (next == null) {
+                    break;
+                }
+                running++;
+                runningByOwner.merge(next.owner, 1, Integer::sum);
+                ready.add(next);
+            }
+        }
+        for (Entry entry : ready) {
+            try {
+                workers.execute(() -> run(entry));
+            } catch (RejectedExecutionException ex) {
+                entry.cancel(false);
+                finished(entry);
+            }
+        }
+    }
+
+    private Entry pollNext() {
+        for (JobPriority priority : JobPriority.values()) {
+            LinkedHashMap<String, ArrayDeque<Entry>> byOwner = queues.get(priority);
+            Iterator<Map.Entry<String, ArrayDeque<Entry>>> owners = byOwner.entrySet().iterator();
+            while (owners.hasNext()) {
+                Map.Entry<String, ArrayDeque<Entry>> candidate = owners.next();
+                String owner = candidate.getKey();
+                if (maxRunningPerUser > 0 && runningByOwner.getOrDefault(owner, 0) >= maxRunningPerUser) {
+                    continue;
+                }
+                ArrayDeque<Entry> pending = candidate.getValue();
+                Entry entry = pending.poll();
+                owners.remove();
+                if (!pending.isEmpty()) {
+                    byOwner.put(owner, pending);
+                }
+                dequeued(entry);
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void run(Entry entry) {
+        long started = System.nanoTime();
+        waitTimers.get(entry.priority).record(started - entry.enqueuedNanos, TimeUnit.NANOSECONDS);
+        try {
+            entry.run();
+        } finally {
+            runTimers.get(entry.priority).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            finished(entry);
+            dispatch();
+        }
+    }
+
+    private synchronized void finished(Entry entry) {
+        running--;
+        runningByOwner.computeIfPresent(entry.owner, (owner, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void dequeued(Entry entry) {
+        queued--;
+        queuedByPriority.merge(entry.priority, -1, Integer::sum);
+        queuedByOwner.computeIfPresent(entry.owner, (owner, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private synchronized void removeQueued(Entry entry) {
+        ArrayDeque<Entry> pending = queues.get(entry.priority).get(entry.owner);
+        if (pending != null && pending.remove(entry)) {
+            if (pending.isEmpty()) {
+                queues.get(entry.priority).remove(entry.owner);
+            }
+            dequeued(entry);
+        }
+    }
+
+    private final class Entry extends FutureTask<Void> {
+        private final String owner;
+        private final JobPriority priority;
+        private final long enqueuedNanos = System.nanoTime();
+
+        Entry(String owner, JobPriority priority, Runnable task) {
+            super(task, null);
+            this.owner = owner;
+            this.priority = priority;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                removeQueued(this);
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.example.s3webapp.jobs;
+
+import com.example.s3webapp.config.JobProperties;
+import com.example.s3webapp.config.JobStoreProperties;
+import com.example.s3webapp.config.VirtualThreadProperties;
+import com.example.s3webapp.jobs.store.JobStore;
+import com.example.s3webapp.s3.OperationCancelledException;
+import com.example.s3webapp.util.CurrentUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    private final JobProperties properties;
+    private final JobJournal journal;
+    private final JobScheduler scheduler;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Mirror> mirrors = new ConcurrentHashMap<>();
+    private final JobStore<StoredOperationJob> store;
+    private final JobStoreProperties storeProperties;
+    private volatile boolean shuttingDown = false;
+    private volatile Instant lastOrphanScan = Instant.EPOCH;
+
+    public JobService(
+            JobProperties properties,
+            JobJournal journal,
+            JobStore<StoredOperationJob> store,
+            JobStoreProperties storeProperties,
+            VirtualThreadProperties virtualThreads,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.journal = journal;
+        this.store = store;
+        this.storeProperties = storeProperties;
+        this.scheduler = JobScheduler.create(
+                "jobs",
+                properties.maxParallelJobs(),
+                properties.maxQueuedJobs(),
+                properties.maxQueuedPerUser(),
+                properties.maxRunningPerUser(),
+                virtualThreads.enabled(),
+                meterRegistry);
+    }
+
+    public <R> JobLaunchResponse submit(JobType type, String bucketId, String description, JobTask<R> task) {
+        return submit(type, bucketId, description, task, result -> null);
+    }
+
+    public <R> JobLaunchResponse submit(
+            JobType type, String bucketId, String description, JobTask<R> task, Function<R, String> summary) {
+        return launch(new Job(type, bucketId, description, null), task, summary, false);
+    }
+
+    public <R> JobLaunchResponse submit(JobPlan plan, JobTask<R> task, Function<R, String> summary) {
+        return launch(new Job(plan.type(), plan.bucketId(), plan.description(), plan), task, summary, false);
+    }
+
+    public JobPlan interruptedPlan(String bucketId, String jobId) {
+        Job job = requireForBucket(bucketId, jobId);
+        if (job.status() != JobStatus.INTERRUPTED || job.plan() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Job " + jobId + " is not resumable");
+        }
+        return job.plan();
+    }
+
+    public <R> JobLaunchResponse resume(String bucketId, String jobId, JobTask<R> task, Function<R, String> summary) {
+        Job job = requireForBucket(bucketId, jobId);
+        if (!job.markResumed()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Job " + jobId + " is not resumable");
+        }
+        log.info("Resuming {} job {} from its journal", job.type(), job.id());
+        return launch(job, task, summary, true);
+    }
+
+    @PostConstruct
+    public void recoverInterrupted() {
+        for (JobJournal.Recovered recovered : journal.recover()) {
+            Job job = Job.interrupted(
+                    recovered.jobId(), recovered.plan(), recovered.completedObjects(), recovered.lastCheckpoint());
+            if (jobs.putIfAbsent(job.id(), job) == null) {
+                checkpoint(job);
+            }
+            log.info("Found interrupted {} job {} with {} completed objects",
+                    job.type(), job.id(), recovered.completedObjects());
+        }
+    }
+
+    private <R> JobLaunchResponse launch(Job job, JobTask<R> task, Function<R, String> summary, boolean resumed) {
+        jobs.put(job.id(), job);
+        // Stored before it is scheduled so other nodes can answer for it as soon as the id is returned
+        checkpoint(job);
+        try {
+            job.setFuture(scheduler.submit(
+                    CurrentUser.name(), JobPriority.BATCH, () -> execute(job, task, summary, resumed)));
+        } catch (RejectedExecutionException ex) {
+            if (resumed) {
+                long completed = journal.completedKeys(job.id()).size();
+                Job interrupted = Job.interrupted(job.id(), job.plan(), completed, Instant.now());
+                jobs.put(job.id(), interrupted);
+                checkpoint(interrupted);
+            } else {
+                jobs.remove(job.id());
+                store.delete(job.id());
+            }
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        }
+        return new JobLaunchResponse(job.view(), websocketPath(job.id()));
+    }
+
+    // Local jobs plus the ones other nodes run; a local copy wins over its stored record
+    public List<JobView> list(String bucketId) {
+        List<JobView> views = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            views.add(job.view());
+        }
+        for (StoredOperationJob stored : storedJobs()) {
+            if (!jobs.containsKey(stored.id())) {
+                views.add(stored.view());
+            }
+        }
+        return views.stream()
+                .filter(view -> Objects.equals(view.bucketId(), bucketId))
+                .sorted(Comparator.comparing(JobView::createdAt).reversed())
+                .toList();
+    }
+
+    public JobView get(String bucketId, String jobId) {
+        return forBucket(bucketId, find(jobId));
+    }
+
+    public JobView cancel(String bucketId, String jobId) {
+        forBucket(bucketId, find(jobId));
+        return cancel(jobId);
+    }
+
+    public JobView cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? cancel(job) : cancelRemote(jobId);
+    }
+
+    public JobView attachListener(String jobId, String listenerId, Consumer<JobEvent> listener) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return attachMirror(jobId, listenerId, listener);
+        }
+        job.addListener(listenerId, listener);
+        listener.accept(job.event("SNAPSHOT"));
+        return job.view();
+    }
+
+    public void detachListener(String jobId, String listenerId) {
+        Mirror mirror = mirrors.get(jobId);
+        if (mirror != null) {
+            mirror.listeners().remove(listenerId);
+            if (mirror.listeners().isEmpty()) {
+                mirrors.remove(jobId, mirror);
+            }
+        }
+        Job job = jobs.get(jobId);
+        if (job != null) {
+            job.removeListener(listenerId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        scheduler.shutdownNow();
+    }
+
+    private <R> void execute(Job job, JobTask<R> task, Function<R, String> summary, boolean resumed) {
+        if (job.isTerminal()) {
+            return;
+        }
+        log.info("Starting {} job {} for bucket {}", job.type(), job.id(), job.bucketId());
+        boolean journaled = job.plan() != null && journal.enabled();
+        JobJournal.Writer writer = null;
+        try {
+            Set<String> completedKeys = journaled && resumed ? journal.completedKeys(job.id()) : Set.of();
+            writer = !journaled ? null : resumed ? journal.reopen(job.id()) : journal.create(job.id(), job.plan());
+            job.markRunning();
+            broadcast(job, "STARTED");
+            R result = task.run(new JobContext(
+                    job, properties.progressInterval(), j -> broadcast(j, "PROGRESS"), writer, completedKeys));
+            if (job.markCompleted(result, summary.apply(result))) {
+                broadcast(job, "COMPLETED");
+            }
+        } catch (OperationCancelledException ex) {
+            if (job.markCanceled()) {
+                broadcast(job, "CANCELED");
+            }
+        } catch (Exception ex) {
+            if (job.cancelRequested()) {
+                if (job.markCanceled()) {
+                    broadcast(job, "CANCELED");
+                }
+                return;
+            }
+            log.warn("{} job {} failed: {}", job.type(), job.id(), ex.getMessage());
+            if (job.markFailed(ex.getMessage())) {
+                broadcast(job, "FAILED");
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+            if (journaled && (!shuttingDown || job.status() == JobStatus.COMPLETED)) {
+                journal.discard(job.id());
+            }
+        }
+    }
+
+    // Renews the records of local jobs with their latest progress, applies cancels requested on other
+    // nodes, streams stored progress to listeners of remote jobs and fails records whose owner went away
+    @Scheduled(fixedDelayString = "${app.job-store.heartbeat-interval:PT5S}")
+    public void heartbeat() {
+        for (Job job : jobs.values()) {
+            if (job.isTerminal()) {
+                continue;
+            }
+            Optional<StoredOperationJob> stored = checkpoint(job);
+            if (stored.isPresent() && stored.get().cancelRequested()) {
+                log.info("Canceling {} job {} on request from another node", job.type(), job.id());
+                cancel(job);
+            }
+        }
+        refreshMirrors();
+        Instant now = Instant.now();
+        if (!lastOrphanScan.plus(storeProperties.leaseTtl()).isAfter(now)) {
+            lastOrphanScan = now;
+            failOrphans(now);
+        }
+    }
+
+    private void broadcast(Job job, String eventType) {
+        JobEvent event = job.event(eventType);
+        // Progress reaches the store on the heartbeat; state changes are written at once
+        if (!"PROGRESS".equals(eventType)) {
+            checkpoint(job);
+        }
+        deliver(job.id(), job.listeners(), event);
+    }
+
+    private void deliver(String jobId, Iterable<Consumer<JobEvent>> listeners, JobEvent event) {
+        for (var listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception ex) {
+                log.warn("Failed to deliver job event for job {}: {}", jobId, ex.getMessage());
+            }
+        }
+    }
+
+    private Optional<StoredOperationJob> checkpoint(Job job) {
+        String nodeId = storeProperties.nodeId();
+        Instant lease = Instant.now().plus(storeProperties.leaseTtl());
+        JobView view = job.view();
+        try {
+            Optional<StoredOperationJob> stored = store.update(job.id(), current -> current.checkpoint(view, nodeId, lease));
+            if (stored.isPresent()) {
+                return stored;
+            }
+            StoredOperationJob created = new StoredOperationJob(view, nodeId, lease, false, Instant.now());
+            store.save(created);
+            return Optional.of(created);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to checkpoint {} job {}: {}", job.type(), job.id(), ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private JobView attachMirror(String jobId, String listenerId, Consumer<JobEvent> listener) {
+        Mirror mirror = mirrors.computeIfAbsent(
+                jobId, id -> store.find(id).map(stored -> new Mirror(stored.view())).orElse(null));
+        if (mirror == null) {
+            throw new IllegalArgumentException("Unknown job: " + jobId);
+        }
+        mirror.listeners().put(listenerId, listener);
+        JobView view = mirror.view();
+        listener.accept(new JobEvent("SNAPSHOT", view));
+        return view;
+    }
+
+    private void refreshMirrors() {
+        for (Mirror mirror : mirrors.values()) {
+            String jobId = mirror.view().id();
+            Optional<StoredOperationJob> stored = store.find(jobId);
+            if (stored.isEmpty()) {
+                mirrors.remove(jobId, mirror);
+                continue;
+            }
+            JobView view = stored.get().view();
+            if (view.equals(mirror.view())) {
+                continue;
+            }
+            mirror.update(view);
+            if (view.status().isTerminal()) {
+                mirrors.remove(jobId, mirror);
+            }
+            String eventType = view.status().isTerminal() ? view.status().name() : "PROGRESS";
+            deliver(jobId, List.copyOf(mirror.listeners().values()), new JobEvent(eventType, view));
+        }
+    }
+
+    // A node that stopped renewing cannot finish its jobs, and no other node has their journals
+    private void failOrphans(Instant now) {
+        for (StoredOperationJob orphan : storedJobs()) {
+            if (orphan.terminal() || !orphan.leaseExpired(now) || jobs.containsKey(orphan.id())) {
+                continue;
+            }
+            try {
+                store.update(orphan.id(), current -> !current.terminal() && current.leaseExpired(now)
+                        ? current.finished(JobStatus.FAILED, "Node " + current.owner() + " stopped before the job finished")
+                        : null)
+                        .ifPresent(failed -> log.info("Failed {} job {} left behind by node {}",
+                                failed.view().type(), failed.id(), failed.owner()));
+            } catch (RuntimeException ex) {
+                log.warn("Failed to update orphaned job {}: {}", orphan.id(), ex.getMessage());
+            }
+        }
+    }
+
+    private JobView cancelRemote(String jobId) {
+        StoredOperationJob current = store.find(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown job: " + jobId));
+        if (current.terminal()) {
+            return current.view();
+        }
+        Instant now = Instant.now();
+        // An orphaned job is canceled in place; a live one is flagged for its owner's next heartbeat
+        return store.update(jobId, stored -> {
+                    if (stored.terminal()) return null;
+                    return stored.leaseExpired(now)
+                            ? stored.finished(JobStatus.CANCELED, null)
+                            : stored.withCancelRequested();
+                })
+                .map(StoredOperationJob::view)
+                .orElse(current.view());
+    }
+
+    private JobView find(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job != null) {
+            return job.view();
+        }
+        return store.find(jobId)
+                .map(StoredOperationJob::view)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown job: " + jobId));
+    }
+
+    private List<StoredOperationJob> storedJobs() {
+        try {
+            return store.list();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to list stored jobs: {}", ex.getMessage());
+            return List.of();
+        }
+    }
+
+    private static JobView forBucket(String bucketId, JobView view) {
+        if (!Objects.equals(view.bucketId(), bucketId)) {
+            throw new IllegalArgumentException("Job does not belong to bucket " + bucketId);
+        }
+        return view;
+    }
+
+    private Job requireForBucket(String bucketId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown job: " + jobId);
+        }
+        if (!Objects.equals(job.bucketId(), bucketId)) {
+            throw new IllegalArgumentException("Job does not belong to bucket " + bucketId);
+        }
+        return job;
+    }
+
+    private JobView cancel(Job job) {
+        if (job.isTerminal()) {
+            return job.view();
+        }
+        boolean interrupted = job.status() == JobStatus.INTERRUPTED;
+        job.requestCancel();
+        if (job.markCanceled()) {
+            broadcast(job, "CANCELED");
+        }
+        if (interrupted) {
+            journal.discard(job.id());
+        }
+        return job.view();
+    }
+
+    @Scheduled(fixedDelayString = "PT1M")
+    void cleanupCompleted() {
+        Instant cutoff = Instant.now().minus(properties.retention());
+        jobs.values().removeIf(job -> job.isTerminal() && job.finishedAt() != null && job.finishedAt().isBefore(cutoff));
+        for (StoredOperationJob stored : storedJobs()) {
+            Instant finishedAt = stored.view().finishedAt();
+            if (stored.terminal() && finishedAt != null && finishedAt.isBefore(cutoff)) {
+                try {
+                    store.delete(stored.id());
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to delete stored job {}: {}", stored.id(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    public String websocketPath(String jobId) {
+        return "/api/ws/jobs/" + jobId;
+    }
+
+    // Listeners on this node for a job another node runs, fed from the store on each heartbeat
+    private static final class Mirror {
+        private final Map<String, Consumer<JobEvent>> listeners = new ConcurrentHashMap<>();
+        private volatile JobView view;
+
+        Mirror(JobView view) {
+            this.view = view;
+        }
+
+        Map<String, Consumer<JobEvent>> listeners() {
+            return listeners;
+        }
+
+        JobView view() {
+            return view;
+        }
+
+        void update(JobView view) {
+            this.view = view;
+        }
+    }
+}
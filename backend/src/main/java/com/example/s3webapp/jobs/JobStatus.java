@@ -0,0 +1,14 @@
+package com.example.s3webapp.jobs;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    INTERRUPTED,
+    COMPLETED,
+    FAILED,
+    CANCELED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED || this == CANCELED;
+    }
+}
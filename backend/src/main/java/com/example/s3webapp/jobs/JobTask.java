@@ -0,0 +1,6 @@
+package com.example.s3webapp.jobs;
+
+@FunctionalInterface
+public interface JobTask<R> {
+    R run(JobContext context) throws Exception;
+}
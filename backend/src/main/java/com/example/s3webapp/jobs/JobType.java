@@ -0,0 +1,16 @@
+package com.example.s3webapp.jobs;
+
+public enum JobType {
+    BULK_COPY,
+    BULK_MOVE,
+    COPY_FOLDER,
+    MOVE_FOLDER,
+    DELETE_FOLDER,
+    DELETE_OBJECTS,
+    TRANSFER_COPY,
+    TRANSFER_MOVE,
+    TRANSFER_FOLDER_COPY,
+    TRANSFER_FOLDER_MOVE,
+    SYNC,
+    PURGE_VERSIONS
+}
@@ -0,0 +1,16 @@
+package com.example.s3webapp.jobs;
+
+import java.time.Instant;
+
+public record JobView(
+        String id,
+        JobType type,
+        String bucketId,
+        String description,
+        JobStatus status,
+        JobProgress progress,
+        String message,
+        Object result,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt) {}
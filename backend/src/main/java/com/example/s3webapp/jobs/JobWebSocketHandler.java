@@ -0,0 +1,47 @@
+package com.example.s3webapp.jobs;
+
+import com.example.s3webapp.config.WebSocketProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.function.Consumer;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+@Component
+public class JobWebSocketHandler extends AbstractJobWebSocketHandler<JobEvent> {
+
+    private final JobService jobService;
+
+    public JobWebSocketHandler(JobService jobService, ObjectMapper objectMapper, WebSocketProperties properties) {
+        super("jobs", objectMapper, properties);
+        this.jobService = jobService;
+    }
+
+    @Override
+    protected void attach(String jobId, String listenerId, Consumer<JobEvent> listener) {
+        jobService.attachListener(jobId, listenerId, listener);
+    }
+
+    @Override
+    protected void detach(String jobId, String listenerId) {
+        jobService.detachListener(jobId, listenerId);
+    }
+
+    @Override
+    protected void cancel(String jobId, String requester) {
+        jobService.cancel(jobId);
+    }
+
+    // Operation jobs write to buckets, so cancelling one needs the same role as the REST cancel route
+    @Override
+    protected boolean mayCancel(WebSocketSession session) {
+        return session.getPrincipal() instanceof Authentication authentication
+                && authentication.getAuthorities().stream()
+                        .anyMatch(authority -> "ROLE_READ_WRITE".equals(authority.getAuthority()));
+    }
+
+    @Override
+    protected boolean isTerminal(JobEvent event) {
+        return event.job().status().isTerminal();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.s3webapp.jobs;
+
+import com.example.s3webapp.model.BulkCopyMoveRequest;
+import com.example.s3webapp.model.BulkOperationResult;
+import com.example.s3webapp.model.DeleteFolderRequest;
+import com.example.s3webapp.model.DeleteObjectsRequest;
+import com.example.s3webapp.model.FolderCopyRequest;
+import com.example.s3webapp.model.FolderOperationResult;
+import com.example.s3webapp.model.PurgeVersionsRequest;
+import com.example.s3webapp.model.SyncRequest;
+import com.example.s3webapp.model.TransferFolderRequest;
+import com.example.s3webapp.model.TransferItemsRequest;
+import com.example.s3webapp.s3.BucketRegistry;
+import com.example.s3webapp.s3.StorageService;
+import com.example.s3webapp.s3.SyncService;
+import com.example.s3webapp.s3.TransferService;
+import com.example.s3webapp.s3.VersionPurger;
+import com.example.s3webapp.util.KeyUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+@Service
+public class OperationJobService {
+
+    private final JobService jobService;
+    private final StorageService storageService;
+    private final TransferService transferService;
+    private final SyncService syncService;
+    private final VersionPurger versionPurger;
+    private final BucketRegistry bucketRegistry;
+    private final ObjectMapper objectMapper;
+
+    public OperationJobService(
+            JobService jobService,
+            StorageService storageService,
+            TransferService transferService,
+            SyncService syncService,
+            VersionPurger versionPurger,
+            BucketRegistry bucketRegistry,
+            ObjectMapper objectMapper) {
+        this.jobService = jobService;
+        this.storageService = storageService;
+        this.transferService = transferService;
+        this.syncService = syncService;
+        this.versionPurger = versionPurger;
+        this.bucketRegistry = bucketRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    public JobLaunchResponse bulkCopy(String bucketId, BulkCopyMoveRequest request) {
+        bucketRegistry.require(bucketId);
+        return jobService.submit(
+                JobType.BULK_COPY,
+                bucketId,
+                request.items().size() + " objects",
+                ctx -> storageService.bulkCopy(bucketId, request, ctx),
+                OperationJobService::summarize);
+    }
+
+    public JobLaunchResponse bulkMove(String bucketId, BulkCopyMoveRequest request) {
+        bucketRegistry.require(bucketId);
+        return jobService.submit(
+                JobType.BULK_MOVE,
+                bucketId,
+                request.items().size() + " objects",
+                ctx -> storageService.bulkMove(bucketId, request, ctx),
+                OperationJobService::summarize);
+    }
+
+    public JobLaunchResponse copyFolder(String bucketId, FolderCopyRequest request) {
+        bucketRegistry.require(bucketId);
+        return jobService.submit(
+                plan(JobType.COPY_FOLDER, bucketId, describe(request), request),
+                folderTask(JobType.COPY_FOLDER, bucketId, request),
+                OperationJobService::summarize);
+    }
+
+    public JobLaunchResponse moveFolder(String bucketId, FolderCopyRequest request) {
+        bucketRegistry.require(bucketId);
+        return jobService.submit(
+                plan(JobType.MOVE_FOLDER, bucketId, describe(request), request),
+                folderTask(JobType.MOVE_FOLDER, bucketId, request),
+                OperationJobService::summarize);
+    }
+
+    public JobLaunchResponse deleteFolder(String bucketId, DeleteFolderRequest request) {
+        bucketRegistry.require(bucketId);
+        return jobService.submit(
+                JobType.DELETE_FOLDER,
+                bucketId,
+                KeyUtils.normalizePrefix(request.prefix()),
+                ctx -> storageService.deleteFolder(bucketId, request, ctx),
+                result -> "Deleted " + result.deletedCount() + " objects, " + result.failedCount() + " failed");
+    }
+
+    public JobLaunchResponse deleteObjects(String bucketId, DeleteObjectsRequest request) {
+        bucketRegistry.require(bucketId);
+        return jobService.submit(
+                JobType.DELETE_OBJECTS,
+                bucketId,
+                request.keys().size() + " keys, " + request.prefixes().size() + " prefixes",
+                ctx -> storageService.deleteObjects(bucketId, request, ctx),
+                result -> "Deleted " + result.deletedCount() + " objects, " + result.failedCount() + " failed");
+    }
+
+    public JobLaunchResponse transferObjects(String bucketId, TransferItemsRequest request, boolean deleteSource) {
+        bucketRegistry.require(bucketId);
+        bucketRegistry.require(request.targetBucketId());
+        return jobService.submit(
+                deleteSource ? JobType.TRANSFER_MOVE : JobType.TRANSFER_COPY,
+                bucketId,
+                request.items().size() + " objects -> " + request.targetBucketId(),
+                ctx -> transferService.transferObjects(bucketId, request, deleteSource, ctx),
+                OperationJobService::summarize);
+    }
+
+    public JobLaunchResponse transferFolder(String bucketId, TransferFolderRequest request, boolean deleteSource) {
+        bucketRegistry.require(bucketId);
+        bucketRegistry.require(request.targetBucketId());
+        JobType type = deleteSource ? JobType.TRANSFER_FOLDER_MOVE : JobType.TRANSFER_FOLDER_COPY;
+        String description = KeyUtils.normalizePrefix(request.sourcePrefix()) + " -> " + request.targetBucketId()
+                + ":" + KeyUtils.normalizePrefix(request.targetPrefix());
+        return jobService.submit(
+                plan(type, bucketId, description, request),
+                transferFolderTask(type, bucketId, request),
+                OperationJobService::summarize);
+    }
+
+    public JobLaunchResponse sync(String bucketId, SyncRequest request) {
+        bucketRegistry.require(bucketId);
+        String target = request.targetBucketId() == null || request.targetBucketId().isBlank()
+                ? ""
+                : bucketRegistry.require(request.targetBucketId()).id() + ":";
+        return jobService.submit(
+                JobType.SYNC,
+                bucketId,
+                KeyUtils.normalizePrefix(request.sourcePrefix()) + " => " + target
+                        + KeyUtils.normalizePrefix(request.targetPrefix()),
+                ctx -> syncService.sync(bucketId, request, ctx),
+                result -> result.copied() + " copied, " + result.unchanged() + " unchanged, " + result.deleted()
+                        + " deleted, " + result.failed() + " failed");
+    }
+
+    public JobLaunchResponse purgeVersions(String bucketId, PurgeVersionsRequest request) {
+        bucketRegistry.require(bucketId);
+        String rules = "keep latest " + request.keepLatest()
+                + (request.olderThan() != null ? ", older than " + request.olderThan() : "");
+        return jobService.submit(
+                JobType.PURGE_VERSIONS,
+                bucketId,
+                KeyUtils.normalizePrefix(request.prefix()) + " (" + rules + ")",
+                ctx -> versionPurger.purge(bucketId, request, ctx),
+                result -> "Deleted " + result.deleted() + " versions, retained " + result.retained() + ", "
+                        + result.failed() + " failed");
+    }
+
+    public JobLaunchResponse resume(String bucketId, String jobId) {
+        JobPlan plan = jobService.interruptedPlan(bucketId, jobId);
+        try {
+            return switch (plan.type()) {
+                case COPY_FOLDER, MOVE_FOLDER -> jobService.resume(
+                        bucketId,
+                        jobId,
+                        folderTask(plan.type(), bucketId, objectMapper.treeToValue(plan.request(), FolderCopyRequest.class)),
+                        OperationJobService::summarize);
+                case TRANSFER_FOLDER_COPY, TRANSFER_FOLDER_MOVE -> jobService.resume(
+                        bucketId,
+                        jobId,
+                        transferFolderTask(
+                                plan.type(),
+                                bucketId,
+                                objectMapper.treeToValue(plan.request(), TransferFolderRequest.class)),
+                        OperationJobService::summarize);
+                default -> throw new ResponseStatusException(
+                        HttpStatus.CONFLICT, plan.type() + " jobs cannot be resumed");
+            };
+        } catch (JsonProcessingException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Journal plan for job " + jobId + " is unreadable");
+        }
+    }
+
+    private JobTask<FolderOperationResult> folderTask(JobType type, String bucketId, FolderCopyRequest request) {
+        return type == JobType.MOVE_FOLDER
+                ? ctx -> storageService.moveFolder(bucketId, request, ctx)
+                : ctx -> storageService.copyFolder(bucketId, request, ctx);
+    }
+
+    private JobTask<FolderOperationResult> transferFolderTask(
+            JobType type, String bucketId, TransferFolderRequest request) {
+        boolean deleteSource = type == JobType.TRANSFER_FOLDER_MOVE;
+        return ctx -> transferService.transferFolder(bucketId, request, deleteSource, ctx);
+    }
+
+    private JobPlan plan(JobType type, String bucketId, String description, Object request) {
+        return new JobPlan(type, bucketId, description, objectMapper.valueToTree(request));
+    }
+
+    private static String describe(FolderCopyRequest request) {
+        return KeyUtils.normalizePrefix(request.sourcePrefix()) + " -> " + KeyUtils.normalizePrefix(request.targetPrefix());
+    }
+
+    private static String summarize(List<BulkOperationResult> results) {
+        long failed = results.stream().filter(r -> !r.success()).count();
+        return (results.size() - failed) + " succeeded, " + failed + " failed";
+    }
+
+    private static String summarize(FolderOperationResult result) {
+        return result.copied() + " copied, " + result.skipped() + " skipped, " + result.failed() + " failed";
+    }
+}
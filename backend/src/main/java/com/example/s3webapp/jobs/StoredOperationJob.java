@@ -0,0 +1,48 @@
+package com.example.s3webapp.jobs;
+
+import com.example.s3webapp.jobs.store.JobStore;
+import java.time.Instant;
+
+// An operation job as other replicas see it. Unlike folder-size jobs these are never adopted, because
+// their journal lives on the owner's disk; a record whose owner stopped renewing is failed in place.
+public record StoredOperationJob(
+        JobView view, String owner, Instant leaseExpiresAt, boolean cancelRequested, Instant updatedAt)
+        implements JobStore.Record {
+
+    public String id() {
+        return view.id();
+    }
+
+    public boolean terminal() {
+        return view.status().isTerminal();
+    }
+
+    public boolean leaseExpired(Instant now) {
+        return leaseExpiresAt == null || !leaseExpiresAt.isAfter(now);
+    }
+
+    StoredOperationJob checkpoint(JobView view, String owner, Instant leaseExpiresAt) {
+        return new StoredOperationJob(view, owner, leaseExpiresAt, cancelRequested, Instant.now());
+    }
+
+    StoredOperationJob withCancelRequested() {
+        return new StoredOperationJob(view, owner, leaseExpiresAt, true, Instant.now());
+    }
+
+    StoredOperationJob finished(JobStatus status, String message) {
+        Instant now = Instant.now();
+        JobView finished = new JobView(
+                view.id(),
+                view.type(),
+                view.bucketId(),
+                view.description(),
+                status,
+                view.progress(),
+                message,
+                view.result(),
+                view.createdAt(),
+                view.startedAt(),
+                now);
+        return new StoredOperationJob(finished, owner, leaseExpiresAt, cancelRequested, now);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.s3webapp.jobs.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// One JSON file per job. Updates hold an OS file lock on the directory, so several processes
+// sharing the directory (same host or a shared volume) see consistent leases.
+public class FileJobStore<T extends JobStore.Record> implements JobStore<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(FileJobStore.class);
+    private static final String SUFFIX = ".json";
+    private static final String LOCK_FILE = ".lock";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    // Serializes updates within this process (FileLock is per JVM) without pinning a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileJobStore(Path directory, ObjectMapper objectMapper, Class<T> type) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.type = type;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create job store directory " + directory, ex);
+        }
+    }
+
+    @Override
+    public void save(T job) {
+        update(job.id(), job, ignored -> job);
+    }
+
+    @Override
+    public Optional<T> find(String jobId) {
+        return read(file(jobId));
+    }
+
+    @Override
+    public List<T> list() {
+        List<T> jobs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                read(path).ifPresent(jobs::add);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to list job store directory " + directory, ex);
+        }
+        return jobs;
+    }
+
+    @Override
+    public void delete(String jobId) {
+        try {
+            Files.deleteIfExists(file(jobId));
+        } catch (IOException ex) {
+            log.warn("Failed to delete stored job {}: {}", jobId, ex.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<T> update(String jobId, UnaryOperator<T> change) {
+        return update(jobId, null, change);
+    }
+
+    private Optional<T> update(String jobId, T initial, UnaryOperator<T> change) {
+        lock.lock();
+        try (FileChannel channel = FileChannel.open(
+                directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock fileLock = channel.lock();
+            try {
+                T current = read(file(jobId)).orElse(initial);
+                if (current == null) {
+                    return Optional.empty();
+                }
+                T next = change.apply(current);
+                if (next == null) {
+                    return Optional.empty();
+                }
+                write(next);
+                return Optional.of(next);
+            } finally {
+                fileLock.release();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to update stored job " + jobId, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(T job) throws IOException {
+        Path target = file(job.id());
+        Path temp = directory.resolve(job.id() + SUFFIX + ".tmp");
+        Files.write(temp, objectMapper.writeValueAsBytes(job));
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Optional<T> read(Path path) {
+        try {
+            return Optional.of(objectMapper.readValue(Files.readAllBytes(path), type));
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable stored job {}: {}", path, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Path file(String jobId) {
+        return directory.resolve(jobId + SUFFIX);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.s3webapp.jobs.store;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+public interface JobStore<T extends JobStore.Record> {
+
+    void save(T job);
+
+    Optional<T> find(String jobId);
+
+    List<T> list();
+
+    void delete(String jobId);
+
+    // Read-modify-write of one record; the change may return null to leave it untouched.
+    // Returns the record as written, or empty when nothing was written.
+    Optional<T> update(String jobId, UnaryOperator<T> change);
+
+    interface Record {
+        String id();
+    }
+}
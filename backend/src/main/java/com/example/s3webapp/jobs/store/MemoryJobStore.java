@@ -0,0 +1,43 @@
+package com.example.s3webapp.jobs.store;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+public class MemoryJobStore<T extends JobStore.Record> implements JobStore<T> {
+
+    private final Map<String, T> jobs = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(T job) {
+        jobs.put(job.id(), job);
+    }
+
+    @Override
+    public Optional<T> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    @Override
+    public List<T> list() {
+        return List.copyOf(jobs.values());
+    }
+
+    @Override
+    public void delete(String jobId) {
+        jobs.remove(jobId);
+    }
+
+    @Override
+    public Optional<T> update(String jobId, UnaryOperator<T> change) {
+        AtomicReference<T> written = new AtomicReference<>();
+        jobs.computeIfPresent(jobId, (id, current) -> {
+            written.set(change.apply(current));
+            return written.get() == null ? current : written.get();
+        });
+        return Optional.ofNullable(written.get());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.s3webapp.jobs.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+// Shared store for several replicas: one JSON object per job in the job store's own bucket.
+// S3 has no compare-and-set here, so update() is read-then-write and the last writer wins;
+// a node that loses a contested lease notices on its next heartbeat and stops its copy.
+public class S3JobStore<T extends JobStore.Record> implements JobStore<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(S3JobStore.class);
+    private static final String SUFFIX = ".json";
+
+    private final S3Client client;
+    private final String bucket;
+    private final String prefix;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    // Not a monitor: the read-modify-write does S3 calls, which would pin a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public S3JobStore(S3Client client, String bucket, String prefix, ObjectMapper objectMapper, Class<T> type) {
+        this.client = client;
+        this.bucket = bucket;
+        this.prefix = prefix;
+        this.objectMapper = objectMapper;
+        this.type = type;
+    }
+
+    @Override
+    public void save(T job) {
+        try {
+            client.putObject(
+                    PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(key(job.id()))
+                            .contentType("application/json")
+                            .build(),
+                    RequestBody.fromBytes(objectMapper.writeValueAsBytes(job)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to serialize job " + job.id(), ex);
+        }
+    }
+
+    @Override
+    public Optional<T> find(String jobId) {
+        return read(key(jobId));
+    }
+
+    @Override
+    public List<T> list() {
+        List<T> jobs = new ArrayList<>();
+        ListObjectsV2Request request =
+                ListObjectsV2Request.builder().bucket(bucket).prefix(prefix).build();
+        for (S3Object object : client.listObjectsV2Paginator(request).contents()) {
+            if (object.key().endsWith(SUFFIX)) {
+                read(object.key()).ifPresent(jobs::add);
+            }
+        }
+        return jobs;
+    }
+
+    @Override
+    public void delete(String jobId) {
+        client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key(jobId)).build());
+    }
+
+    @Override
+    public Optional<T> update(String jobId, UnaryOperator<T> change) {
+        lock.lock();
+        try {
+            Optional<T> current = find(jobId);
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+            T next = change.apply(current.get());
+            if (next == null) {
+                return Optional.empty();
+            }
+            save(next);
+            return Optional.of(next);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<T> read(String key) {
+        try {
+            byte[] bytes = client.getObjectAsBytes(
+                            GetObjectRequest.builder().bucket(bucket).key(key).build())
+                    .asByteArray();
+            return Optional.of(objectMapper.readValue(bytes, type));
+        } catch (NoSuchKeyException ex) {
+            return Optional.empty();
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable stored job {}/{}: {}", bucket, key, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private String key(String jobId) {
+        return prefix + jobId + SUFFIX;
+    }
+}
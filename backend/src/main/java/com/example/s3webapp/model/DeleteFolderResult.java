@@ -0,0 +1,5 @@
+package com.example.s3webapp.model;
+
+import java.util.List;
+
+public record DeleteFolderResult(String prefix, long deletedCount, long failedCount, List<BulkOperationResult> errors) {}
@@ -0,0 +1,6 @@
+package com.example.s3webapp.model;
+
+import java.util.List;
+
+public record DeleteObjectsResult(
+        List<String> deleted, long deletedCount, long failedCount, List<BulkOperationResult> errors, boolean truncated) {}
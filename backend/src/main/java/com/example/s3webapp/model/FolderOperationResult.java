@@ -8,4 +8,5 @@ public record FolderOperationResult(
         int totalObjects,
         int copied,
         int skipped,
+        long failed,
         List<BulkOperationResult> errors) {}
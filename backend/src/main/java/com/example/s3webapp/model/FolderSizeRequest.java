@@ -1,5 +1,6 @@
 package com.example.s3webapp.model;
 
+import com.example.s3webapp.jobs.JobPriority;
 import jakarta.validation.constraints.NotNull;
 
-public record FolderSizeRequest(@NotNull String prefix) {}
+public record FolderSizeRequest(@NotNull String prefix, boolean refresh, int breakdownDepth, boolean statistics, JobPriority priority) {}
@@ -0,0 +1,6 @@
+package com.example.s3webapp.model;
+
+import java.time.Instant;
+
+public record InventoryFolderSize(
+        String prefix, long totalSizeBytes, long objectCount, Instant inventoryDate, String manifestKey) {}
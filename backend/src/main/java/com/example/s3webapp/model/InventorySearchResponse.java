@@ -0,0 +1,7 @@
+package com.example.s3webapp.model;
+
+import java.time.Instant;
+import java.util.List;
+
+public record InventorySearchResponse(
+        String prefix, List<ObjectItem> objects, boolean truncated, Instant inventoryDate, String manifestKey) {}
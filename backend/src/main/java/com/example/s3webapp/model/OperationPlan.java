@@ -0,0 +1,30 @@
+package com.example.s3webapp.model;
+
+import java.util.List;
+
+public record OperationPlan(
+        OperationPlanRequest.Operation operation,
+        String bucketId,
+        String sourcePrefix,
+        String targetBucketId,
+        String targetPrefix,
+        boolean serverSide,
+        long objects,
+        long bytes,
+        long conflicts,
+        List<String> conflictSamples,
+        boolean truncated,
+        List<RequestEstimate> requests,
+        long totalRequests,
+        double estimatedSeconds,
+        long scanMillis) {
+
+    public record RequestEstimate(
+            String operation,
+            String bucketId,
+            long count,
+            int parallelism,
+            double latencyMillis,
+            boolean measured,
+            double seconds) {}
+}
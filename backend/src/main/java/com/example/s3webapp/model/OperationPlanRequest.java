@@ -0,0 +1,19 @@
+package com.example.s3webapp.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record OperationPlanRequest(
+        @NotNull Operation operation,
+        @NotBlank String sourcePrefix,
+        String targetPrefix,
+        String targetBucketId,
+        boolean overwrite,
+        Long maxObjects) {
+
+    public enum Operation {
+        DELETE,
+        COPY,
+        MOVE
+    }
+}
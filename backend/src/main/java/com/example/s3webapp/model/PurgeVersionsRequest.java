@@ -0,0 +1,7 @@
+package com.example.s3webapp.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+
+public record PurgeVersionsRequest(@NotBlank String prefix, @PositiveOrZero int keepLatest, Duration olderThan) {}
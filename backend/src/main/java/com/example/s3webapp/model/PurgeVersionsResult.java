@@ -0,0 +1,12 @@
+package com.example.s3webapp.model;
+
+import java.util.List;
+
+public record PurgeVersionsResult(
+        String prefix,
+        long versionsScanned,
+        long deleteMarkersScanned,
+        long retained,
+        long deleted,
+        long failed,
+        List<BulkOperationResult> errors) {}
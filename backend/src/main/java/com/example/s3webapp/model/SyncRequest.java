@@ -0,0 +1,6 @@
+package com.example.s3webapp.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record SyncRequest(
+        String targetBucketId, @NotBlank String sourcePrefix, @NotBlank String targetPrefix, boolean deleteExtraneous) {}
@@ -0,0 +1,14 @@
+package com.example.s3webapp.model;
+
+import java.util.List;
+
+public record SyncResult(
+        String sourcePrefix,
+        String targetBucketId,
+        String targetPrefix,
+        long compared,
+        long copied,
+        long unchanged,
+        long deleted,
+        long failed,
+        List<BulkOperationResult> errors) {}
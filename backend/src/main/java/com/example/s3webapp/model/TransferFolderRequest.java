@@ -0,0 +1,6 @@
+package com.example.s3webapp.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record TransferFolderRequest(
+        @NotBlank String targetBucketId, @NotBlank String sourcePrefix, @NotBlank String targetPrefix, boolean overwrite) {}
@@ -0,0 +1,9 @@
+package com.example.s3webapp.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public record TransferItemsRequest(
+        @NotBlank String targetBucketId, @NotEmpty @Valid List<BulkCopyMoveItem> items, boolean overwrite) {}
@@ -0,0 +1,169 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.config.ConcurrencyLimitProperties;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class AdaptiveConcurrencyLimiter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+    private final long latencyThresholdNanos;
+    private double limit;
+    private int inFlight = 0;
+    private long lastDecreaseNanos = System.nanoTime();
+    private long throttled = 0;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.limit = properties.initialLimit();
+        this.latencyThresholdNanos = properties.latencyThreshold().toNanos();
+    }
+
+    public Permit acquire() throws InterruptedException {
+        long remaining = properties.acquireTimeout().toNanos();
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                remaining = available.awaitNanos(remaining);
+            }
+            inFlight++;
+            return new Permit(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Non-blocking variant for the async client: a waiter is completed by whichever release frees a slot,
+    // and fails with a TimeoutException after acquire-timeout
+    public CompletableFuture<Permit> acquireAsync() {
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit(System.nanoTime()));
+            }
+            CompletableFuture<Permit> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter.orTimeout(properties.acquireTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long throttledCount() {
+        lock.lock();
+        try {
+            return throttled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess(Permit permit, long now) {
+        if (now - permit.startNanos > latencyThresholdNanos) {
+            decrease(permit);
+            return;
+        }
+        // Only grow while the current limit is actually being used, one step per limit's worth of successes
+        if (inFlight + 1 >= (int) limit / 2) {
+            limit = Math.min(properties.maxLimit(), limit + 1.0 / limit);
+        }
+    }
+
+    private void decrease(Permit permit) {
+        // Requests that started before the last cut saw the old limit, so they must not cut again
+        if (permit.startNanos < lastDecreaseNanos) {
+            return;
+        }
+        throttled++;
+        limit = Math.max(properties.minLimit(), Math.floor(limit * properties.backoffRatio()));
+        lastDecreaseNanos = System.nanoTime();
+    }
+
+    public final class Permit {
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        public void throttled() {
+            lock.lock();
+            try {
+                decrease(this);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public void release(Outcome outcome) {
+            if (!released.compareAndSet(false, true)) return;
+            long now = System.nanoTime();
+            List<CompletableFuture<Permit>> granted = new ArrayList<>();
+            List<Permit> permits = new ArrayList<>();
+            lock.lock();
+            try {
+                inFlight--;
+                switch (outcome) {
+                    case SUCCESS -> onSuccess(this, now);
+                    case OVERLOADED -> decrease(this);
+                    case IGNORED -> {}
+                }
+                while (inFlight < (int) limit && !waiters.isEmpty()) {
+                    CompletableFuture<Permit> waiter = waiters.poll();
+                    if (waiter.isDone()) continue;
+                    inFlight++;
+                    granted.add(waiter);
+                    permits.add(new Permit(now));
+                }
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            // Completed outside the lock because completion runs the waiter's request on this thread
+            for (int i = 0; i < granted.size(); i++) {
+                if (!granted.get(i).complete(permits.get(i))) {
+                    permits.get(i).release(Outcome.IGNORED);
+                }
+            }
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        OVERLOADED,
+        IGNORED
+    }
+}
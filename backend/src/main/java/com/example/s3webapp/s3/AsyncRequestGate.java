@@ -0,0 +1,84 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.accounting.S3CallContext;
+import com.example.s3webapp.accounting.S3CallTally;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import software.amazon.awssdk.core.exception.SdkClientException;
+
+// The blocking ConcurrencyLimitInterceptor would park the caller, so async requests wait for a
+// permit as a future instead and report their outcome to the same per-endpoint limiter.
+public class AsyncRequestGate {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String endpoint;
+    private final RequestHedger hedger;
+
+    AsyncRequestGate(AdaptiveConcurrencyLimiter limiter, String endpoint, RequestHedger hedger) {
+        this.limiter = limiter;
+        this.endpoint = endpoint;
+        this.hedger = hedger;
+    }
+
+    // Only for idempotent reads: a hedge shares the original's permit, and the budget bounds the extra load
+    public <T> CompletableFuture<T> submitHedged(String operation, Supplier<CompletableFuture<T>> request) {
+        if (hedger == null) {
+            return submit(request);
+        }
+        S3CallTally tally = S3CallContext.current();
+        Supplier<CompletableFuture<T>> call = () -> S3CallContext.callWith(tally, request);
+        return continueWith(tally, limited(() -> hedger.call(operation, call)));
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+        S3CallTally tally = S3CallContext.current();
+        return continueWith(tally, limited(() -> S3CallContext.callWith(tally, request)));
+    }
+
+    // Requests start and continuations (the next page, the next HEAD) run on SDK and limiter threads, so both
+    // are run inside the caller's tally to keep counting S3 calls for the HTTP request that caused them
+    private static <T> CompletableFuture<T> continueWith(S3CallTally tally, CompletableFuture<T> call) {
+        if (tally == null) {
+            return call;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        call.whenComplete((value, error) -> S3CallContext.callWith(tally, () -> error == null
+                ? result.complete(value)
+                : result.completeExceptionally(unwrap(error))));
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <T> CompletableFuture<T> limited(Supplier<CompletableFuture<T>> request) {
+        if (limiter == null) {
+            return request.get();
+        }
+        return limiter.acquireAsync()
+                .exceptionallyCompose(error -> CompletableFuture.failedFuture(unwrap(error) instanceof TimeoutException
+                        ? SdkClientException.create("Timed out waiting for an S3 request slot on " + endpoint
+                                + " (limit " + limiter.limit() + ")")
+                        : unwrap(error)))
+                .thenCompose(permit -> {
+                    CompletableFuture<T> call;
+                    try {
+                        call = request.get();
+                    } catch (RuntimeException ex) {
+                        permit.release(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+                        throw ex;
+                    }
+                    return call.whenComplete((result, error) -> permit.release(error == null
+                            ? AdaptiveConcurrencyLimiter.Outcome.SUCCESS
+                            : ConcurrencyLimitInterceptor.classify(unwrap(error))));
+                });
+    }
+
+    static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
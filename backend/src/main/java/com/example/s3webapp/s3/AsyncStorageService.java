@@ -0,0 +1,240 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.config.S3Properties.BucketConfig;
+import com.example.s3webapp.model.BulkCopyMoveItem;
+import com.example.s3webapp.model.BulkCopyMoveRequest;
+import com.example.s3webapp.model.BulkOperationResult;
+import com.example.s3webapp.model.FolderItem;
+import com.example.s3webapp.model.ObjectItem;
+import com.example.s3webapp.model.ObjectListResponse;
+import com.example.s3webapp.util.KeyUtils;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+// CompletableFuture variants of the StorageService reads and fan-outs. Requests run on the shared
+// Netty event loop and wait for permits as futures, so a wide fan-out holds no threads while in flight.
+@Service
+public class AsyncStorageService {
+
+    private final BucketRegistry bucketRegistry;
+    private final S3ClientFactory s3ClientFactory;
+    private final FolderSizeCalculator folderSizeCalculator;
+
+    public AsyncStorageService(
+            BucketRegistry bucketRegistry, S3ClientFactory s3ClientFactory, FolderSizeCalculator folderSizeCalculator) {
+        this.bucketRegistry = bucketRegistry;
+        this.s3ClientFactory = s3ClientFactory;
+        this.folderSizeCalculator = folderSizeCalculator;
+    }
+
+    public CompletableFuture<ObjectListResponse> listObjects(String bucketId, String prefix, String continuationToken) {
+        BucketConfig config = bucketRegistry.require(bucketId);
+        String normalizedPrefix = KeyUtils.normalizePrefix(prefix);
+        ListObjectsV2Request.Builder request = ListObjectsV2Request.builder()
+                .bucket(config.bucketName())
+                .prefix(normalizedPrefix)
+                .delimiter("/")
+                .maxKeys(500);
+        if (continuationToken != null && !continuationToken.isBlank()) {
+            request.continuationToken(continuationToken);
+        }
+        return list(config, request.build()).thenCompose(response -> {
+            List<FolderItem> folders = response.commonPrefixes().stream()
+                    .map(cp -> new FolderItem(KeyUtils.folderNameFromPrefix(normalizedPrefix, cp.prefix()), cp.prefix()))
+                    .toList();
+            return describe(config, response.contents())
+                    .thenApply(objects -> new ObjectListResponse(
+                            normalizedPrefix, folders, objects, response.nextContinuationToken()));
+        });
+    }
+
+    // One listing page of a search with its matches described, so a caller can send them on before listing further
+    public CompletableFuture<SearchPage> searchPage(String bucketId, String prefix, String query, String pageToken) {
+        BucketConfig config = bucketRegistry.require(bucketId);
+        String normalizedPrefix = KeyUtils.normalizePrefix(prefix);
+        Pattern pattern = Pattern.compile(
+                KeyUtils.wildcardToRegex(query == null ? "*" : query), Pattern.CASE_INSENSITIVE);
+        ListObjectsV2Request.Builder request = ListObjectsV2Request.builder()
+                .bucket(config.bucketName())
+                .prefix(normalizedPrefix)
+                .maxKeys(500);
+        if (pageToken != null) {
+            request.continuationToken(pageToken);
+        }
+        return list(config, request.build()).thenCompose(response -> describe(config, response.contents().stream()
+                        .filter(obj -> KeyUtils.matchesQuery(pattern, normalizedPrefix, obj.key()))
+                        .toList())
+                .thenApply(objects -> new SearchPage(objects, response.nextContinuationToken())));
+    }
+
+    public CompletableFuture<Boolean> exists(String bucketId, String key) {
+        BucketConfig config = bucketRegistry.require(bucketId);
+        return exists(config, key);
+    }
+
+    // Existence checks and copies for all items are issued at once, except that items sharing a target key run
+    // in request order so the first one wins as it did sequentially. Results keep the request order and items
+    // skipped because the operation was cancelled are left null.
+    public CompletableFuture<List<BulkOperationResult>> copyObjects(
+            String bucketId, BulkCopyMoveRequest request, String verb, OperationProgress progress) {
+        BucketConfig config = bucketRegistry.require(bucketId);
+        S3AsyncClient client = s3ClientFactory.asyncClientFor(config);
+        AsyncRequestGate gate = s3ClientFactory.gateFor(config);
+        BulkOperationResult[] results = new BulkOperationResult[request.items().size()];
+        List<CompletableFuture<Void>> copies = new ArrayList<>();
+        Map<String, CompletableFuture<Void>> previousForTarget = new HashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            int index = i;
+            BulkCopyMoveItem item = request.items().get(i);
+            CompletableFuture<Void> previous = previousForTarget.getOrDefault(
+                    item.targetKey(), CompletableFuture.completedFuture(null));
+            CompletableFuture<Boolean> blocked = previous
+                    .handle((ignored, error) -> null)
+                    .thenCompose(ignored -> request.overwrite()
+                            ? CompletableFuture.completedFuture(false)
+                            : exists(config, item.targetKey()));
+            CompletableFuture<Void> copy = blocked
+                    .thenCompose(targetExists -> {
+                        if (progress.cancelRequested()) {
+                            return CompletableFuture.completedFuture(null);
+                        }
+                        if (targetExists) {
+                            return CompletableFuture.completedFuture(new BulkOperationResult(
+                                    item.sourceKey(), item.targetKey(), false, "Target exists"));
+                        }
+                        return gate.submit(() -> client.copyObject(CopyObjectRequest.builder()
+                                        .copySource(config.bucketName() + "/" + item.sourceKey())
+                                        .destinationBucket(config.bucketName())
+                                        .destinationKey(item.targetKey())
+                                        .build()))
+                                .thenApply(copied -> new BulkOperationResult(
+                                        item.sourceKey(), item.targetKey(), true, verb));
+                    })
+                    .exceptionally(error -> {
+                        if (AsyncRequestGate.unwrap(error) instanceof S3Exception s3) {
+                            return new BulkOperationResult(item.sourceKey(), item.targetKey(), false,
+                                    failurePrefix(verb) + s3.awsErrorDetails().errorMessage());
+                        }
+                        throw new CompletionException(AsyncRequestGate.unwrap(error));
+                    })
+                    .thenAccept(result -> {
+                        results[index] = result;
+                        if (result != null) {
+                            progress.advance(1, 0);
+                        }
+                    });
+            previousForTarget.put(item.targetKey(), copy);
+            copies.add(copy);
+        }
+        return CompletableFuture.allOf(copies.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> Arrays.asList(results));
+    }
+
+    public CompletableFuture<FolderSizeComputation> folderSize(
+            String bucketId,
+            String prefix,
+            FolderSizeLimits limits,
+            BooleanSupplier cancelRequested,
+            Consumer<FolderSizeComputation> progressConsumer,
+            int progressPageInterval,
+            int maxInFlight,
+            int fanOutDepth,
+            ScanAggregators aggregators) {
+        return folderSizeCalculator.computeAsync(
+                bucketId,
+                prefix,
+                limits,
+                cancelRequested,
+                progressConsumer,
+                progressPageInterval,
+                maxInFlight,
+                fanOutDepth,
+                aggregators);
+    }
+
+    // Waits for a result on behalf of blocking callers, rethrowing the original S3 or service exception
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new OperationCancelledException("Interrupted while waiting for S3");
+        } catch (ExecutionException ex) {
+            Throwable cause = AsyncRequestGate.unwrap(ex.getCause());
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+
+    private CompletableFuture<ListObjectsV2Response> list(BucketConfig config, ListObjectsV2Request request) {
+        S3AsyncClient client = s3ClientFactory.asyncClientFor(config);
+        return s3ClientFactory.gateFor(config).submitHedged("ListObjectsV2", () -> client.listObjectsV2(request));
+    }
+
+    // Listings carry no content type, so every object is HEADed; all HEADs of a page are in flight together
+    private CompletableFuture<List<ObjectItem>> describe(BucketConfig config, List<S3Object> objects) {
+        S3AsyncClient client = s3ClientFactory.asyncClientFor(config);
+        AsyncRequestGate gate = s3ClientFactory.gateFor(config);
+        List<CompletableFuture<ObjectItem>> items = objects.stream()
+                .filter(o -> !o.key().endsWith("/"))
+                .map(o -> gate.submitHedged("HeadObject", () -> client.headObject(HeadObjectRequest.builder()
+                                .bucket(config.bucketName())
+                                .key(o.key())
+                                .build()))
+                        .thenApply(head -> new ObjectItem(
+                                o.key(),
+                                KeyUtils.extractName(o.key()),
+                                o.size(),
+                                o.lastModified().atZone(ZoneOffset.UTC).toInstant(),
+                                Optional.ofNullable(head.contentType()).orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE))))
+                .toList();
+        return CompletableFuture.allOf(items.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> items.stream().map(CompletableFuture::join).toList());
+    }
+
+    private CompletableFuture<Boolean> exists(BucketConfig config, String key) {
+        S3AsyncClient client = s3ClientFactory.asyncClientFor(config);
+        return s3ClientFactory.gateFor(config)
+                .submitHedged("HeadObject", () -> client.headObject(
+                        HeadObjectRequest.builder().bucket(config.bucketName()).key(key).build()))
+                .handle((head, error) -> {
+                    if (error == null) {
+                        return true;
+                    }
+                    Throwable cause = AsyncRequestGate.unwrap(error);
+                    if (cause instanceof S3Exception s3 && s3.statusCode() == 404) {
+                        return false;
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    private static String failurePrefix(String verb) {
+        return "moved".equals(verb) ? "Move failed: " : "Copy failed: ";
+    }
+
+    public record SearchPage(List<ObjectItem> objects, String nextPageToken) {}
+}
@@ -0,0 +1,63 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.accounting.S3CallContext;
+import com.example.s3webapp.config.OperationsProperties;
+import com.example.s3webapp.config.VirtualThreadProperties;
+import com.example.s3webapp.util.Workers;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongConsumer;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+
+@Component
+public class BatchDeleter {
+
+    static final int MAX_REPORTED_FAILURES = 100;
+
+    private final OperationsProperties properties;
+    private final ExecutorService executor;
+
+    public BatchDeleter(OperationsProperties properties, VirtualThreadProperties virtualThreads) {
+        this.properties = properties;
+        this.executor = Workers.newPool("s3-delete-batch", properties.deleteConcurrency(), virtualThreads.enabled());
+    }
+
+    public BatchDeletion open(S3Client client, String bucketName) {
+        return open(client, bucketName, deleted -> {});
+    }
+
+    public BatchDeletion open(S3Client client, String bucketName, LongConsumer onDeleted) {
+        return new BatchDeletion(
+                client,
+                bucketName,
+                properties.deleteBatchSize(),
+                properties.deleteConcurrency(),
+                S3CallContext.propagating(executor),
+                Integer.MAX_VALUE,
+                Integer.MAX_VALUE,
+                onDeleted);
+    }
+
+    public BatchDeletion stream(S3Client client, String bucketName, LongConsumer onDeleted) {
+        return stream(client, bucketName, 0, onDeleted);
+    }
+
+    // Keeps only counts, the first maxKeys deleted keys and the first failures, for deletes of unbounded size
+    public BatchDeletion stream(S3Client client, String bucketName, int maxKeys, LongConsumer onDeleted) {
+        return new BatchDeletion(
+                client,
+                bucketName,
+                properties.deleteBatchSize(),
+                properties.deleteConcurrency(),
+                S3CallContext.propagating(executor),
+                maxKeys,
+                MAX_REPORTED_FAILURES,
+                onDeleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.s3webapp.s3;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.LongConsumer;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+public class BatchDeletion {
+
+    private final S3Client client;
+    private final String bucketName;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final Executor executor;
+    private final Semaphore slots;
+    private final int maxKeys;
+    private final int maxFailures;
+    private final LongConsumer onDeleted;
+    private final List<String> deleted = new ArrayList<>();
+    private final Map<String, String> failures = new LinkedHashMap<>();
+    private long deletedCount = 0;
+    private long failedCount = 0;
+    private List<ObjectIdentifier> pending = new ArrayList<>();
+
+    BatchDeletion(
+            S3Client client,
+            String bucketName,
+            int batchSize,
+            int maxInFlight,
+            Executor executor,
+            int maxKeys,
+            int maxFailures,
+            LongConsumer onDeleted) {
+        this.client = client;
+        this.bucketName = bucketName;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.executor = executor;
+        this.slots = new Semaphore(maxInFlight);
+        this.maxKeys = maxKeys;
+        this.maxFailures = maxFailures;
+        this.onDeleted = onDeleted;
+    }
+
+    public void add(String key) {
+        add(key, null);
+    }
+
+    public void add(String key, String versionId) {
+        pending.add(ObjectIdentifier.builder().key(key).versionId(versionId).build());
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    public void addAll(Collection<String> keys) {
+        keys.forEach(this::add);
+    }
+
+    public Result finish() {
+        flush();
+        slots.acquireUninterruptibly(maxInFlight);
+        slots.release(maxInFlight);
+        synchronized (this) {
+            return new Result(List.copyOf(deleted), new LinkedHashMap<>(failures));
+        }
+    }
+
+    public synchronized long deletedCount() {
+        return deletedCount;
+    }
+
+    public synchronized long failedCount() {
+        return failedCount;
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) return;
+        List<ObjectIdentifier> batch = pending;
+        pending = new ArrayList<>();
+        slots.acquireUninterruptibly();
+        try {
+            CompletableFuture.supplyAsync(() -> deleteBatch(batch), executor).whenComplete((result, error) -> {
+                try {
+                    record(result);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            slots.release();
+            record(failAll(batch, "Delete executor is shut down"));
+        }
+    }
+
+    private void record(Result result) {
+        if (result == null) return;
+        synchronized (this) {
+            deletedCount += result.deleted().size();
+            failedCount += result.failures().size();
+            for (String key : result.deleted()) {
+                if (deleted.size() >= maxKeys) break;
+                deleted.add(key);
+            }
+            for (Map.Entry<String, String> failure : result.failures().entrySet()) {
+                if (failures.size() >= maxFailures) break;
+                failures.put(failure.getKey(), failure.getValue());
+            }
+        }
+        onDeleted.accept(result.deleted().size() + result.failures().size());
+    }
+
+    private Result deleteBatch(List<ObjectIdentifier> ids) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        try {
+            DeleteObjectsResponse response = client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder().quiet(true).objects(ids).build())
+                    .build());
+            for (S3Error error : response.errors()) {
+                failures.put(label(error.key(), error.versionId()), error.code() + ": " + error.message());
+            }
+        } catch (SdkException ex) {
+            String message = ex instanceof S3Exception s3 && s3.awsErrorDetails() != null
+                    ? s3.awsErrorDetails().errorMessage()
+                    : ex.getMessage();
+            return failAll(ids, message);
+        } catch (RuntimeException ex) {
+            return failAll(ids, ex.getMessage());
+        }
+        Set<String> failed = new HashSet<>(failures.keySet());
+        List<String> deleted = ids.stream()
+                .map(id -> label(id.key(), id.versionId()))
+                .filter(label -> !failed.contains(label))
+                .toList();
+        return new Result(deleted, failures);
+    }
+
+    private static Result failAll(List<ObjectIdentifier> ids, String message) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        ids.forEach(id -> failures.put(label(id.key(), id.versionId()), message));
+        return new Result(List.of(), failures);
+    }
+
+    private static String label(String key, String versionId) {
+        return versionId == null || versionId.isEmpty() ? key : key + "?versionId=" + versionId;
+    }
+
+    public record Result(List<String> deleted, Map<String, String> failures) {}
+}
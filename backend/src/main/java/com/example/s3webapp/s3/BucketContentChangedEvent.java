@@ -0,0 +1,25 @@
+package com.example.s3webapp.s3;
+
+import java.util.Collection;
+import java.util.List;
+
+public record BucketContentChangedEvent(String bucketId, List<String> paths) {
+
+    public BucketContentChangedEvent {
+        paths = paths == null ? List.of() : List.copyOf(paths);
+    }
+
+    public static BucketContentChangedEvent of(String bucketId, Collection<String> paths) {
+        return new BucketContentChangedEvent(bucketId, List.copyOf(paths));
+    }
+
+    public boolean affects(String bucketId, String prefix) {
+        if (!this.bucketId.equals(bucketId)) return false;
+        for (String path : paths) {
+            if (path.startsWith(prefix) || prefix.startsWith(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,3 @@
+package com.example.s3webapp.s3;
+
+public record CategoryCount(String name, long objectCount, long totalSizeBytes) {}
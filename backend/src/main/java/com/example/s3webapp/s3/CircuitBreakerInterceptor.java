@@ -0,0 +1,37 @@
+package com.example.s3webapp.s3;
+
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+class CircuitBreakerInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Boolean> ADMITTED = new ExecutionAttribute<>("S3WebappCircuitAdmitted");
+
+    private final EndpointCircuitBreaker breaker;
+
+    CircuitBreakerInterceptor(EndpointCircuitBreaker breaker) {
+        this.breaker = breaker;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        breaker.acquire();
+        executionAttributes.putAttribute(ADMITTED, true);
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        if (Boolean.TRUE.equals(executionAttributes.getAttribute(ADMITTED))) {
+            breaker.record(EndpointCircuitBreaker.Outcome.SUCCESS);
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        if (Boolean.TRUE.equals(executionAttributes.getAttribute(ADMITTED))) {
+            breaker.record(EndpointCircuitBreaker.classify(context.exception()));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.s3webapp.s3;
+
+import java.net.SocketTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+class ConcurrencyLimitInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<AdaptiveConcurrencyLimiter.Permit> PERMIT =
+            new ExecutionAttribute<>("S3WebappConcurrencyPermit");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String endpoint;
+
+    ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter limiter, String endpoint) {
+        this.limiter = limiter;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        AdaptiveConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw SdkClientException.create("Interrupted while waiting for an S3 request slot on " + endpoint, ex);
+        }
+        if (permit == null) {
+            throw SdkClientException.create("Timed out waiting for an S3 request slot on " + endpoint
+                    + " (limit " + limiter.limit() + ")");
+        }
+        executionAttributes.putAttribute(PERMIT, permit);
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes executionAttributes) {
+        int status = context.httpResponse().statusCode();
+        AdaptiveConcurrencyLimiter.Permit permit = executionAttributes.getAttribute(PERMIT);
+        if (permit != null && (status == 503 || status == 429)) {
+            permit.throttled();
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        AdaptiveConcurrencyLimiter.Permit permit = executionAttributes.getAttribute(PERMIT);
+        if (permit != null) {
+            permit.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        AdaptiveConcurrencyLimiter.Permit permit = executionAttributes.getAttribute(PERMIT);
+        if (permit != null) {
+            permit.release(classify(context.exception()));
+        }
+    }
+
+    static AdaptiveConcurrencyLimiter.Outcome classify(Throwable error) {
+        if (error instanceof SdkServiceException service) {
+            if (service.isThrottlingException() || service.statusCode() == 503) {
+                return AdaptiveConcurrencyLimiter.Outcome.OVERLOADED;
+            }
+            return service.statusCode() >= 500
+                    ? AdaptiveConcurrencyLimiter.Outcome.IGNORED
+                    : AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+        }
+        if (error instanceof ApiCallTimeoutException || error instanceof ApiCallAttemptTimeoutException) {
+            return AdaptiveConcurrencyLimiter.Outcome.OVERLOADED;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException) {
+                return AdaptiveConcurrencyLimiter.Outcome.OVERLOADED;
+            }
+        }
+        return AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+    }
+}
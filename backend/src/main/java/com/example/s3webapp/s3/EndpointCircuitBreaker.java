@@ -0,0 +1,166 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.config.CircuitBreakerProperties;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.ReentrantLock;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+// Tracks the outcome of the last `window` calls to one endpoint. Too many failures open the circuit, so calls
+// fail at once instead of waiting out connect timeouts and retries; after open-duration a few probes decide
+// whether to close it again.
+public class EndpointCircuitBreaker {
+
+    private final CircuitBreakerProperties properties;
+    private final String endpoint;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] failures;
+    private int next;
+    private int recorded;
+    private int failed;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int probesInFlight;
+    private int probesSucceeded;
+    private long opened;
+
+    public EndpointCircuitBreaker(CircuitBreakerProperties properties, String endpoint) {
+        this.properties = properties;
+        this.endpoint = endpoint;
+        this.failures = new boolean[properties.window()];
+    }
+
+    public void acquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                long remaining = properties.openDuration().toNanos() - (System.nanoTime() - openedAtNanos);
+                if (remaining > 0) {
+                    throw new EndpointUnavailableException("S3 endpoint " + endpoint
+                            + " is unavailable; retry in " + (Duration.ofNanos(remaining).toSeconds() + 1) + "s");
+                }
+                state = State.HALF_OPEN;
+                probesInFlight = 0;
+                probesSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight >= properties.halfOpenProbes()) {
+                    throw new EndpointUnavailableException(
+                            "S3 endpoint " + endpoint + " is recovering; retry shortly");
+                }
+                probesInFlight++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void record(Outcome outcome) {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                probesInFlight = Math.max(0, probesInFlight - 1);
+                if (outcome == Outcome.FAILURE) {
+                    open();
+                } else if (outcome == Outcome.SUCCESS && ++probesSucceeded >= properties.halfOpenProbes()) {
+                    close();
+                }
+                return;
+            }
+            if (state != State.CLOSED || outcome == Outcome.IGNORED) {
+                return;
+            }
+            if (recorded == failures.length && failures[next]) {
+                failed--;
+            }
+            failures[next] = outcome == Outcome.FAILURE;
+            if (failures[next]) {
+                failed++;
+            }
+            next = (next + 1) % failures.length;
+            recorded = Math.min(recorded + 1, failures.length);
+            if (recorded >= properties.minimumCalls() && failed * 100 >= properties.failureRatePercent() * recorded) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long openedCount() {
+        lock.lock();
+        try {
+            return opened;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        opened++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failed = 0;
+    }
+
+    // Client errors and 404s prove the endpoint answers; throttling is the concurrency limiter's job, and
+    // cancelled calls (e.g. a losing hedge) say nothing about the endpoint
+    static Outcome classify(Throwable error) {
+        if (error instanceof SdkServiceException service) {
+            int status = service.statusCode();
+            if (service.isThrottlingException() || status == 503 || status == 429) {
+                return Outcome.IGNORED;
+            }
+            return status >= 500 ? Outcome.FAILURE : Outcome.SUCCESS;
+        }
+        if (error instanceof ApiCallTimeoutException || error instanceof ApiCallAttemptTimeoutException) {
+            return Outcome.FAILURE;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AbortedException
+                    || cause instanceof CancellationException
+                    || cause instanceof EndpointUnavailableException) {
+                return Outcome.IGNORED;
+            }
+            if (cause instanceof IOException) {
+                return Outcome.FAILURE;
+            }
+        }
+        return Outcome.IGNORED;
+    }
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        FAILURE,
+        IGNORED
+    }
+}
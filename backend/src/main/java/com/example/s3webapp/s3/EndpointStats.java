@@ -0,0 +1,42 @@
+package com.example.s3webapp.s3;
+
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class EndpointStats {
+
+    private static final double ALPHA = 0.2;
+
+    private final Map<String, Latency> latencies = new ConcurrentHashMap<>();
+
+    void record(String operation, long nanos) {
+        latencies.computeIfAbsent(operation, op -> new Latency()).update(nanos / 1_000_000.0);
+    }
+
+    public OptionalDouble averageMillis(String operation) {
+        Latency latency = latencies.get(operation);
+        return latency == null ? OptionalDouble.empty() : OptionalDouble.of(latency.average());
+    }
+
+    public Map<String, Double> snapshot() {
+        Map<String, Double> snapshot = new TreeMap<>();
+        latencies.forEach((operation, latency) -> snapshot.put(operation, latency.average()));
+        return snapshot;
+    }
+
+    private static final class Latency {
+        private double average;
+        private boolean initialized;
+
+        synchronized void update(double millis) {
+            average = initialized ? average + ALPHA * (millis - average) : millis;
+            initialized = true;
+        }
+
+        synchronized double average() {
+            return average;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.s3webapp.s3;
+
+import java.io.Serial;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class EndpointUnavailableException extends ResponseStatusException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public EndpointUnavailableException(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
@@ -4,10 +4,19 @@ import com.example.s3webapp.config.S3Properties.BucketConfig;
 import com.example.s3webapp.util.KeyUtils;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.S3Object;
@@ -30,6 +39,17 @@ public class FolderSizeCalculator {
             BooleanSupplier cancelRequested,
             Consumer<FolderSizeComputation> progressConsumer,
             int progressPageInterval) {
+        return compute(bucketId, prefix, limits, cancelRequested, progressConsumer, progressPageInterval, null);
+    }
+
+    public FolderSizeComputation compute(
+            String bucketId,
+            String prefix,
+            FolderSizeLimits limits,
+            BooleanSupplier cancelRequested,
+            Consumer<FolderSizeComputation> progressConsumer,
+            int progressPageInterval,
+            ScanAggregators aggregators) {
         String normalizedPrefix = KeyUtils.normalizePrefix(prefix);
         BucketConfig config = bucketRegistry.require(bucketId);
         S3Client client = s3ClientFactory.clientFor(config);
@@ -64,6 +84,9 @@ public class FolderSizeCalculator {
                 if (obj.key().endsWith("/")) continue;
                 total += obj.size();
                 count++;
+                if (aggregators != null) {
+                    aggregators.add(obj);
+                }
                 if (limits.hasObjectCap() && count >= limits.maxObjects()) {
                     partial = true;
                     partialReason = "max-objects";
@@ -82,22 +105,270 @@ public class FolderSizeCalculator {
             if (progressConsumer != null
                     && progressPageInterval > 0
                     && (token == null || page % progressPageInterval == 0)) {
-                progressConsumer.accept(
-                        new FolderSizeComputation(normalizedPrefix, count, total, partial, partialReason, false));
+                progressConsumer.accept(computation(
+                        normalizedPrefix, count, total, partialReason, false, aggregators));
             }
         } while (token != null && !partial);
 
-        FolderSizeComputation result =
-                new FolderSizeComputation(normalizedPrefix, count, total, partial, partialReason, true);
+        FolderSizeComputation result = computation(normalizedPrefix, count, total, partialReason, true, aggregators);
         if (progressConsumer != null) {
             progressConsumer.accept(result);
         }
         return result;
     }
 
+    public FolderSizeComputation computeParallel(
+            String bucketId,
+            String prefix,
+            FolderSizeLimits limits,
+            BooleanSupplier cancelRequested,
+            Consumer<FolderSizeComputation> progressConsumer,
+            int progressPageInterval,
+            int maxInFlight,
+            int fanOutDepth,
+            ScanAggregators aggregators) {
+        return AsyncStorageService.await(computeAsync(
+                bucketId,
+                prefix,
+                limits,
+                cancelRequested,
+                progressConsumer,
+                progressPageInterval,
+                maxInFlight,
+                fanOutDepth,
+                aggregators));
+    }
+
+    public CompletableFuture<FolderSizeComputation> computeAsync(
+            String bucketId,
+            String prefix,
+            FolderSizeLimits limits,
+            BooleanSupplier cancelRequested,
+            Consumer<FolderSizeComputation> progressConsumer,
+            int progressPageInterval,
+            int maxInFlight,
+            int fanOutDepth,
+            ScanAggregators aggregators) {
+        String normalizedPrefix = KeyUtils.normalizePrefix(prefix);
+        BucketConfig config = bucketRegistry.require(bucketId);
+        AsyncScan scan = new AsyncScan(
+                s3ClientFactory.asyncClientFor(config),
+                s3ClientFactory.gateFor(config),
+                config.bucketName(),
+                normalizedPrefix,
+                limits,
+                cancelRequested,
+                progressConsumer,
+                progressPageInterval,
+                Math.max(1, maxInFlight),
+                fanOutDepth,
+                aggregators);
+        return scan.run().thenApply(result -> {
+            if (progressConsumer != null) {
+                progressConsumer.accept(result);
+            }
+            return result;
+        });
+    }
+
+    private static FolderSizeComputation computation(
+            String prefix, long count, long total, String partialReason, boolean finished, ScanAggregators aggregators) {
+        SubfolderBreakdown breakdown = aggregators == null ? null : aggregators.breakdown();
+        ObjectStatistics statistics = aggregators == null ? null : aggregators.statistics();
+        return new FolderSizeComputation(
+                prefix,
+                count,
+                total,
+                partialReason != null,
+                partialReason,
+                finished,
+                breakdown == null ? List.of() : finished ? breakdown.all() : breakdown.heaviest(),
+                breakdown != null && breakdown.truncated(),
+                statistics == null ? null : statistics.snapshot());
+    }
+
     private void checkCancelled(BooleanSupplier cancelRequested) {
         if (cancelRequested != null && cancelRequested.getAsBoolean()) {
             throw new FolderSizeCancelledException("Folder size calculation cancelled");
         }
     }
+
+    // Pages are queued and at most maxInFlight listings are outstanding at once; each response handler
+    // queues the folder's next page and, above fanOutDepth, its child prefixes. No thread waits on a listing.
+    private static final class AsyncScan {
+        private final S3AsyncClient client;
+        private final AsyncRequestGate gate;
+        private final String bucket;
+        private final String prefix;
+        private final FolderSizeLimits limits;
+        private final BooleanSupplier cancelRequested;
+        private final Consumer<FolderSizeComputation> progressConsumer;
+        private final int progressPageInterval;
+        private final int maxInFlight;
+        private final int fanOutDepth;
+        private final ScanAggregators aggregators;
+        private final Instant started = Instant.now();
+        private final Queue<Page> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicInteger pages = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicReference<String> partialReason = new AtomicReference<>();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final CompletableFuture<FolderSizeComputation> result = new CompletableFuture<>();
+
+        AsyncScan(
+                S3AsyncClient client,
+                AsyncRequestGate gate,
+                String bucket,
+                String prefix,
+                FolderSizeLimits limits,
+                BooleanSupplier cancelRequested,
+                Consumer<FolderSizeComputation> progressConsumer,
+                int progressPageInterval,
+                int maxInFlight,
+                int fanOutDepth,
+                ScanAggregators aggregators) {
+            this.client = client;
+            this.gate = gate;
+            this.bucket = bucket;
+            this.prefix = prefix;
+            this.limits = limits;
+            this.cancelRequested = cancelRequested;
+            this.progressConsumer = progressConsumer;
+            this.progressPageInterval = progressPageInterval;
+            this.maxInFlight = maxInFlight;
+            this.fanOutDepth = fanOutDepth;
+            this.aggregators = aggregators;
+        }
+
+        CompletableFuture<FolderSizeComputation> run() {
+            enqueue(new Page(prefix, 0, null));
+            pump();
+            return result;
+        }
+
+        private void enqueue(Page page) {
+            outstanding.incrementAndGet();
+            pending.add(page);
+        }
+
+        private void pump() {
+            while (true) {
+                int running = inFlight.get();
+                if (running >= maxInFlight) {
+                    return;
+                }
+                if (!inFlight.compareAndSet(running, running + 1)) {
+                    continue;
+                }
+                Page page = pending.poll();
+                if (page == null) {
+                    inFlight.decrementAndGet();
+                    // Another thread may have queued a page between the poll and the decrement
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                issue(page);
+            }
+        }
+
+        private void issue(Page page) {
+            if (stopped()) {
+                inFlight.decrementAndGet();
+                finishOne();
+                return;
+            }
+            boolean fanOut = page.depth() < fanOutDepth;
+            ListObjectsV2Request.Builder builder = ListObjectsV2Request.builder()
+                    .bucket(bucket)
+                    .prefix(page.prefix())
+                    .maxKeys(1000);
+            if (fanOut) builder.delimiter("/");
+            if (page.token() != null) builder.continuationToken(page.token());
+            ListObjectsV2Request request = builder.build();
+            gate.submitHedged("ListObjectsV2", () -> client.listObjectsV2(request)).whenComplete((response, error) -> {
+                try {
+                    if (error != null) {
+                        Throwable cause = AsyncRequestGate.unwrap(error);
+                        failure.compareAndSet(null, cause instanceof RuntimeException runtime
+                                ? runtime
+                                : new IllegalStateException(cause.getMessage(), cause));
+                    } else {
+                        accept(page, response);
+                    }
+                } catch (RuntimeException ex) {
+                    failure.compareAndSet(null, ex);
+                } finally {
+                    inFlight.decrementAndGet();
+                    finishOne();
+                    pump();
+                }
+            });
+        }
+
+        private void accept(Page page, ListObjectsV2Response response) {
+            long objects = 0;
+            long bytes = 0;
+            for (S3Object obj : response.contents()) {
+                if (obj.key().endsWith("/")) continue;
+                objects++;
+                bytes += obj.size();
+            }
+            if (aggregators != null) {
+                aggregators.addAll(response.contents());
+            }
+            long scanned = count.addAndGet(objects);
+            total.addAndGet(bytes);
+            if (limits.hasObjectCap() && scanned >= limits.maxObjects()) {
+                partialReason.compareAndSet(null, "max-objects");
+            }
+            if (limits.hasRuntimeCap()
+                    && Duration.between(started, Instant.now()).compareTo(limits.maxRuntime()) > 0) {
+                partialReason.compareAndSet(null, "max-runtime");
+            }
+            for (CommonPrefix child : response.commonPrefixes()) {
+                enqueue(new Page(child.prefix(), page.depth() + 1, null));
+            }
+            if (response.nextContinuationToken() != null) {
+                enqueue(new Page(page.prefix(), page.depth(), response.nextContinuationToken()));
+            }
+            reportPage();
+        }
+
+        private void finishOne() {
+            if (outstanding.decrementAndGet() != 0) {
+                return;
+            }
+            RuntimeException error = failure.get();
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(computation(prefix, count.get(), total.get(), partialReason.get(), true, aggregators));
+            }
+        }
+
+        private boolean stopped() {
+            if (cancelRequested != null && cancelRequested.getAsBoolean()) {
+                failure.compareAndSet(null, new FolderSizeCancelledException("Folder size calculation cancelled"));
+            }
+            return failure.get() != null || partialReason.get() != null;
+        }
+
+        private void reportPage() {
+            int page = pages.incrementAndGet();
+            if (progressConsumer == null || progressPageInterval <= 0 || page % progressPageInterval != 0) {
+                return;
+            }
+            synchronized (this) {
+                progressConsumer.accept(
+                        computation(prefix, count.get(), total.get(), partialReason.get(), false, aggregators));
+            }
+        }
+
+        private record Page(String prefix, int depth, String token) {}
+    }
 }
@@ -1,4 +1,19 @@
 package com.example.s3webapp.s3;
 
+import java.util.List;
+
 public record FolderSizeComputation(
-        String prefix, long objectsScanned, long totalSizeBytes, boolean partial, String partialReason, boolean finished) {}
+        String prefix,
+        long objectsScanned,
+        long totalSizeBytes,
+        boolean partial,
+        String partialReason,
+        boolean finished,
+        List<SubfolderSize> subfolders,
+        boolean subfoldersTruncated,
+        FolderStatistics statistics) {
+
+    public FolderSizeComputation {
+        subfolders = subfolders == null ? List.of() : subfolders;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.s3webapp.s3;
+
+import java.util.List;
+
+public record FolderStatistics(
+        List<HistogramBucket> sizeBytes,
+        List<HistogramBucket> ageDays,
+        List<CategoryCount> storageClasses,
+        List<CategoryCount> extensions,
+        boolean extensionsTruncated) {}
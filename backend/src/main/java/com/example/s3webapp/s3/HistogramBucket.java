@@ -0,0 +1,3 @@
+package com.example.s3webapp.s3;
+
+public record HistogramBucket(long lowerBound, long upperBound, long objectCount, long totalSizeBytes) {}
@@ -0,0 +1,29 @@
+package com.example.s3webapp.s3;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record InventoryManifest(
+        String sourceBucket,
+        String fileFormat,
+        String fileSchema,
+        String creationTimestamp,
+        List<DataFile> files) {
+
+    public InventoryManifest {
+        files = files == null ? List.of() : files;
+    }
+
+    public Instant createdAt() {
+        if (creationTimestamp == null || creationTimestamp.isBlank()) {
+            return null;
+        }
+        return Instant.ofEpochMilli(Long.parseLong(creationTimestamp.trim()));
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record DataFile(String key, long size, @JsonProperty("MD5checksum") String md5Checksum) {}
+}
@@ -0,0 +1,364 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.config.InventoryProperties;
+import com.example.s3webapp.config.InventoryProperties.Source;
+import com.example.s3webapp.config.S3Properties.BucketConfig;
+import com.example.s3webapp.model.InventoryFolderSize;
+import com.example.s3webapp.model.InventorySearchResponse;
+import com.example.s3webapp.model.ObjectItem;
+import com.example.s3webapp.util.KeyUtils;
+import com.example.s3webapp.util.NamedThreadFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+@Service
+public class InventoryService {
+
+    private static final String MANIFEST_NAME = "manifest.json";
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    private final BucketRegistry bucketRegistry;
+    private final S3ClientFactory s3ClientFactory;
+    private final InventoryProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService readers;
+    private final Map<ResultKey, CompletableFuture<Object>> results;
+
+    public InventoryService(
+            BucketRegistry bucketRegistry,
+            S3ClientFactory s3ClientFactory,
+            InventoryProperties properties,
+            ObjectMapper objectMapper) {
+        this.bucketRegistry = bucketRegistry;
+        this.s3ClientFactory = s3ClientFactory;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.readers = Executors.newFixedThreadPool(
+                properties.readConcurrency(), new NamedThreadFactory("inventory-reader"));
+        int cacheSize = properties.resultCacheSize();
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ResultKey, CompletableFuture<Object>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public InventoryFolderSize folderSize(String bucketId, String prefix) {
+        String normalizedPrefix = KeyUtils.normalizePrefix(prefix);
+        Snapshot snapshot = latest(bucketId);
+        return cached(new ResultKey(snapshot.manifestKey(), normalizedPrefix, null), () -> {
+            LongAdder bytes = new LongAdder();
+            LongAdder objects = new LongAdder();
+            scan(snapshot, row -> {
+                if (row.key().startsWith(normalizedPrefix) && !row.key().endsWith("/")) {
+                    objects.increment();
+                    bytes.add(row.size());
+                }
+                return true;
+            });
+            return new InventoryFolderSize(
+                    normalizedPrefix, bytes.sum(), objects.sum(), snapshot.createdAt(), snapshot.manifestKey());
+        });
+    }
+
+    public InventorySearchResponse search(String bucketId, String prefix, String query) {
+        String normalizedPrefix = KeyUtils.normalizePrefix(prefix);
+        Pattern pattern = Pattern.compile(
+                KeyUtils.wildcardToRegex(query == null ? "*" : query), Pattern.CASE_INSENSITIVE);
+        int limit = properties.maxSearchResults();
+        Snapshot snapshot = latest(bucketId);
+        return cached(new ResultKey(snapshot.manifestKey(), normalizedPrefix, pattern.pattern()), () -> {
+            Queue<ObjectItem> matches = new ConcurrentLinkedQueue<>();
+            AtomicInteger found = new AtomicInteger();
+            AtomicBoolean truncated = new AtomicBoolean();
+            scan(snapshot, row -> {
+                if (!row.key().startsWith(normalizedPrefix)
+                        || row.key().endsWith("/")
+                        || !KeyUtils.matchesQuery(pattern, normalizedPrefix, row.key())) {
+                    return true;
+                }
+                if (found.incrementAndGet() > limit) {
+                    truncated.set(true);
+                    return false;
+                }
+                matches.add(new ObjectItem(
+                        row.key(), KeyUtils.extractName(row.key()), row.size(), row.lastModified(), null));
+                return true;
+            });
+            List<ObjectItem> objects = new ArrayList<>(matches);
+            objects.sort(Comparator.comparing(ObjectItem::key));
+            return new InventorySearchResponse(
+                    normalizedPrefix, objects, truncated.get(), snapshot.createdAt(), snapshot.manifestKey());
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readers.shutdownNow();
+    }
+
+    // A delivered report never changes, so answers are kept per manifest key and a newer delivery starts afresh.
+    // Concurrent requests for the same answer wait for one scan instead of each reading the whole report.
+    @SuppressWarnings("unchecked")
+    private <T> T cached(ResultKey key, Supplier<T> compute) {
+        CompletableFuture<Object> result;
+        boolean scan = false;
+        synchronized (results) {
+            result = results.get(key);
+            if (result == null) {
+                result = new CompletableFuture<>();
+                results.put(key, result);
+                scan = true;
+            }
+        }
+        if (scan) {
+            try {
+                result.complete(compute.get());
+            } catch (RuntimeException ex) {
+                synchronized (results) {
+                    results.remove(key, result);
+                }
+                result.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        try {
+            return (T) result.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException runtime ? runtime : ex;
+        }
+    }
+
+    private Snapshot latest(String bucketId) {
+        Source source = properties.sourceFor(bucketId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "No inventory configured for bucket " + bucketId));
+        BucketConfig inventoryBucket = bucketRegistry.require(source.inventoryBucketId());
+        S3Client client = s3ClientFactory.clientFor(inventoryBucket);
+        String manifestKey = latestManifestKey(client, inventoryBucket.bucketName(), source.manifestPrefix());
+        InventoryManifest manifest = readManifest(client, inventoryBucket.bucketName(), manifestKey);
+        if (manifest.fileFormat() != null && !"CSV".equalsIgnoreCase(manifest.fileFormat())) {
+            throw new ResponseStatusException(
+                    HttpStatus.UNPROCESSABLE_ENTITY, "Unsupported inventory format: " + manifest.fileFormat());
+        }
+        return new Snapshot(client, inventoryBucket.bucketName(), manifestKey, manifest);
+    }
+
+    // Data files are independent, so each one is streamed and decompressed on its own reader thread.
+    // The visitor is called concurrently; returning false stops every reader.
+    private void scan(Snapshot snapshot, Predicate<Row> visitor) {
+        Columns columns = Columns.parse(snapshot.manifest().fileSchema());
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<Future<?>> reads = new ArrayList<>();
+        for (InventoryManifest.DataFile file : snapshot.manifest().files()) {
+            reads.add(readers.submit(() -> readDataFile(
+                    snapshot.client(), snapshot.bucket(), file.key(), columns, visitor, stopped)));
+        }
+        try {
+            for (Future<?> read : reads) {
+                read.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OperationCancelledException("Inventory scan interrupted");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Failed to read inventory: " + ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            stopped.set(true);
+            reads.forEach(read -> read.cancel(true));
+        }
+    }
+
+    // Inventory deliveries land in dated folders, so the greatest manifest key is the newest one
+    private String latestManifestKey(S3Client client, String bucket, String manifestPrefix) {
+        ObjectListing listing = new ObjectListing(client, bucket, manifestPrefix, LIST_PAGE_SIZE);
+        String latest = null;
+        while (listing.hasNext()) {
+            S3Object object = listing.next();
+            String key = object.key();
+            if (key.endsWith("/" + MANIFEST_NAME) || key.equals(MANIFEST_NAME)) {
+                if (latest == null || KeyUtils.compareKeys(key, latest) > 0) {
+                    latest = key;
+                }
+            }
+        }
+        if (latest == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND, "No inventory manifest found under " + bucket + "/" + manifestPrefix);
+        }
+        return latest;
+    }
+
+    private InventoryManifest readManifest(S3Client client, String bucket, String key) {
+        try (InputStream in = client.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build())) {
+            return objectMapper.readValue(in, InventoryManifest.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read inventory manifest " + key, ex);
+        }
+    }
+
+    private void readDataFile(
+            S3Client client, String bucket, String key, Columns columns, Predicate<Row> visitor, AtomicBoolean stopped) {
+        try (ResponseInputStream<GetObjectResponse> raw =
+                        client.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+                BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        key.endsWith(".gz") ? new GZIPInputStream(raw, 64 * 1024) : raw, StandardCharsets.UTF_8))) {
+            boolean finished = false;
+            try {
+                while (!stopped.get()) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        finished = true;
+                        break;
+                    }
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    Row row = columns.row(parseCsvLine(line));
+                    if (row != null && !visitor.test(row)) {
+                        stopped.set(true);
+                    }
+                }
+            } finally {
+                // Closing a partly read Apache-backed stream downloads the rest of the file; abort drops it instead
+                if (!finished) {
+                    raw.abort();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read inventory file " + key, ex);
+        }
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Snapshot(S3Client client, String bucket, String manifestKey, InventoryManifest manifest) {
+        Instant createdAt() {
+            return manifest.createdAt();
+        }
+    }
+
+    // query is the compiled search pattern, null for folder size
+    private record ResultKey(String manifestKey, String prefix, String query) {}
+
+    private record Row(String key, long size, Instant lastModified) {}
+
+    private record Columns(int key, int size, int lastModified, int isLatest, int isDeleteMarker) {
+
+        static Columns parse(String fileSchema) {
+            if (fileSchema == null || fileSchema.isBlank()) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Inventory manifest has no fileSchema");
+            }
+            List<String> names = new ArrayList<>();
+            for (String name : fileSchema.split(",")) {
+                names.add(name.trim());
+            }
+            Columns columns = new Columns(
+                    names.indexOf("Key"),
+                    names.indexOf("Size"),
+                    names.indexOf("LastModifiedDate"),
+                    names.indexOf("IsLatest"),
+                    names.indexOf("IsDeleteMarker"));
+            if (columns.key < 0 || columns.size < 0) {
+                throw new ResponseStatusException(
+                        HttpStatus.UNPROCESSABLE_ENTITY, "Inventory schema must include Key and Size: " + fileSchema);
+            }
+            return columns;
+        }
+
+        // Versioned inventories list every version; only the current, non-deleted one counts
+        Row row(List<String> fields) {
+            if (fields.size() <= Math.max(key, size)) {
+                return null;
+            }
+            if (isLatest >= 0 && isLatest < fields.size() && "false".equalsIgnoreCase(fields.get(isLatest))) {
+                return null;
+            }
+            if (isDeleteMarker >= 0
+                    && isDeleteMarker < fields.size()
+                    && "true".equalsIgnoreCase(fields.get(isDeleteMarker))) {
+                return null;
+            }
+            String sizeField = fields.get(size);
+            return new Row(
+                    URLDecoder.decode(fields.get(key), StandardCharsets.UTF_8),
+                    sizeField.isEmpty() ? 0 : Long.parseLong(sizeField),
+                    lastModified >= 0 && lastModified < fields.size() ? parseInstant(fields.get(lastModified)) : null);
+        }
+
+        private static Instant parseInstant(String value) {
+            try {
+                return value.isEmpty() ? null : Instant.parse(value);
+            } catch (DateTimeParseException ex) {
+                return null;
+            }
+        }
+    }
+}
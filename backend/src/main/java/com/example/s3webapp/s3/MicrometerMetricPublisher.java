@@ -0,0 +1,125 @@
+package com.example.s3webapp.s3;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+// Bridges the SDK's per-call metric tree (ApiCall -> ApiCallAttempt -> HttpClient) into Micrometer, so
+// backend latency, retries and pool pressure can be told apart from time spent in the app.
+class MicrometerMetricPublisher implements MetricPublisher {
+
+    private final MeterRegistry meterRegistry;
+    private final Tags tags;
+    private final boolean histograms;
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicInteger max = new AtomicInteger();
+
+    MicrometerMetricPublisher(MeterRegistry meterRegistry, String bucketId, String client, boolean histograms) {
+        this.meterRegistry = meterRegistry;
+        this.tags = Tags.of("bucket", bucketId, "client", client);
+        this.histograms = histograms;
+        // Pool numbers are snapshots taken when a call leases a connection; the gauges show the latest one
+        Gauge.builder("s3.sdk.pool.leased", leased, AtomicInteger::get)
+                .tags(tags)
+                .description("Connections in use in the bucket's HTTP pool")
+                .register(meterRegistry);
+        Gauge.builder("s3.sdk.pool.pending", pending, AtomicInteger::get)
+                .tags(tags)
+                .description("Requests waiting for a connection from the bucket's HTTP pool")
+                .register(meterRegistry);
+        Gauge.builder("s3.sdk.pool.available", available, AtomicInteger::get).tags(tags).register(meterRegistry);
+        Gauge.builder("s3.sdk.pool.max", max, AtomicInteger::get).tags(tags).register(meterRegistry);
+    }
+
+    @Override
+    public void publish(MetricCollection apiCall) {
+        String operation = first(apiCall, CoreMetric.OPERATION_NAME, "unknown");
+        Tags operationTags = tags.and("operation", operation);
+        Duration duration = first(apiCall, CoreMetric.API_CALL_DURATION, null);
+        if (duration != null) {
+            boolean successful = first(apiCall, CoreMetric.API_CALL_SUCCESSFUL, false);
+            timer("s3.sdk.api.call", operationTags.and("outcome", successful ? "success" : "failure"))
+                    .record(duration);
+        }
+        int retries = first(apiCall, CoreMetric.RETRY_COUNT, 0);
+        if (retries > 0) {
+            Counter.builder("s3.sdk.retries")
+                    .tags(operationTags)
+                    .description("Retried attempts of S3 API calls")
+                    .register(meterRegistry)
+                    .increment(retries);
+        }
+        for (MetricCollection attempt : apiCall.childrenWithName("ApiCallAttempt").toList()) {
+            publishAttempt(attempt, operationTags);
+        }
+    }
+
+    private void publishAttempt(MetricCollection attempt, Tags operationTags) {
+        Integer status = first(attempt, HttpMetric.HTTP_STATUS_CODE, null);
+        Duration serviceCall = first(attempt, CoreMetric.SERVICE_CALL_DURATION, null);
+        if (serviceCall != null) {
+            timer("s3.sdk.attempt", operationTags.and("status", status == null ? "none" : status.toString()))
+                    .record(serviceCall);
+        }
+        String errorType = first(attempt, CoreMetric.ERROR_TYPE, null);
+        if (errorType != null) {
+            Counter.builder("s3.sdk.errors")
+                    .tags(operationTags.and("type", errorType))
+                    .description("Failed S3 call attempts by SDK error type (Throttling, ServerError, IO, ...)")
+                    .register(meterRegistry)
+                    .increment();
+        }
+        for (MetricCollection http : descendants(attempt)) {
+            update(leased, http, HttpMetric.LEASED_CONCURRENCY);
+            update(pending, http, HttpMetric.PENDING_CONCURRENCY_ACQUIRES);
+            update(available, http, HttpMetric.AVAILABLE_CONCURRENCY);
+            update(max, http, HttpMetric.MAX_CONCURRENCY);
+            Duration acquire = first(http, HttpMetric.CONCURRENCY_ACQUIRE_DURATION, null);
+            if (acquire != null) {
+                timer("s3.sdk.pool.acquire", tags).record(acquire);
+            }
+        }
+    }
+
+    @Override
+    public void close() {}
+
+    private Timer timer(String name, Tags meterTags) {
+        return Timer.builder(name).tags(meterTags).publishPercentileHistogram(histograms).register(meterRegistry);
+    }
+
+    private static void update(AtomicInteger gauge, MetricCollection collection, SdkMetric<Integer> metric) {
+        Integer value = first(collection, metric, null);
+        if (value != null) {
+            gauge.set(value);
+        }
+    }
+
+    // The attempt itself plus its HttpClient children; which level the pool numbers land on depends on the client
+    private static List<MetricCollection> descendants(MetricCollection root) {
+        List<MetricCollection> all = new ArrayList<>();
+        all.add(root);
+        for (int i = 0; i < all.size(); i++) {
+            all.addAll(all.get(i).children());
+        }
+        return all;
+    }
+
+    private static <T> T first(MetricCollection collection, SdkMetric<T> metric, T fallback) {
+        List<T> values = collection.metricValues(metric);
+        return values.isEmpty() ? fallback : values.get(0);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.s3webapp.s3;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+class ObjectListing implements Iterator<S3Object> {
+
+    private final S3Client client;
+    private final String bucket;
+    private final String prefix;
+    private final int pageSize;
+    private Iterator<S3Object> page = null;
+    private String token = null;
+    private boolean lastPage = false;
+    private long pages = 0;
+
+    ObjectListing(S3Client client, String bucket, String prefix, int pageSize) {
+        this.client = client;
+        this.bucket = bucket;
+        this.prefix = prefix;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while ((page == null || !page.hasNext()) && !lastPage) {
+            ListObjectsV2Request.Builder builder = ListObjectsV2Request.builder()
+                    .bucket(bucket)
+                    .prefix(prefix)
+                    .maxKeys(pageSize);
+            if (token != null) builder.continuationToken(token);
+            ListObjectsV2Response response = client.listObjectsV2(builder.build());
+            pages++;
+            page = response.contents().iterator();
+            token = response.nextContinuationToken();
+            lastPage = token == null;
+        }
+        return page != null && page.hasNext();
+    }
+
+    @Override
+    public S3Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.next();
+    }
+
+    long pages() {
+        return pages;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.s3webapp.s3;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import software.amazon.awssdk.services.s3.model.ObjectStorageClass;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+public class ObjectStatistics {
+
+    // Bucket 0 holds zero, bucket i holds [2^(i-1), 2^i)
+    private static final int LOG_BUCKETS = 65;
+    private static final int MAX_EXTENSIONS = 64;
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final ObjectStorageClass[] STORAGE_CLASSES = ObjectStorageClass.values();
+    private static final Comparator<CategoryCount> LARGEST_FIRST = Comparator
+            .comparingLong(CategoryCount::totalSizeBytes)
+            .reversed()
+            .thenComparing(CategoryCount::name);
+
+    private final long nowMillis;
+    private final long[] sizeCounts = new long[LOG_BUCKETS];
+    private final long[] sizeBytes = new long[LOG_BUCKETS];
+    private final long[] ageCounts = new long[LOG_BUCKETS];
+    private final long[] ageBytes = new long[LOG_BUCKETS];
+    private final long[] classCounts = new long[STORAGE_CLASSES.length + 1];
+    private final long[] classBytes = new long[STORAGE_CLASSES.length + 1];
+    private final String[] extensions = new String[MAX_EXTENSIONS];
+    private final long[] extensionCounts = new long[MAX_EXTENSIONS];
+    private final long[] extensionBytes = new long[MAX_EXTENSIONS];
+    private int extensionSlots = 0;
+    private long noExtensionCount = 0;
+    private long noExtensionBytes = 0;
+    private long otherExtensionCount = 0;
+    private long otherExtensionBytes = 0;
+
+    public ObjectStatistics(Instant now) {
+        this.nowMillis = now.toEpochMilli();
+    }
+
+    public synchronized void addAll(List<S3Object> objects) {
+        for (S3Object object : objects) {
+            if (!object.key().endsWith("/")) {
+                add(object);
+            }
+        }
+    }
+
+    public synchronized void add(S3Object object) {
+        long size = object.size() == null ? 0 : object.size();
+        int sizeBucket = logBucket(size);
+        sizeCounts[sizeBucket]++;
+        sizeBytes[sizeBucket] += size;
+
+        Instant lastModified = object.lastModified();
+        if (lastModified != null) {
+            int ageBucket = logBucket(Math.max(0, (nowMillis - lastModified.toEpochMilli()) / DAY_MILLIS));
+            ageCounts[ageBucket]++;
+            ageBytes[ageBucket] += size;
+        }
+
+        ObjectStorageClass storageClass = object.storageClass();
+        int classIndex = storageClass == null ? STORAGE_CLASSES.length : storageClass.ordinal();
+        classCounts[classIndex]++;
+        classBytes[classIndex] += size;
+
+        addExtension(object.key(), size);
+    }
+
+    public synchronized FolderStatistics snapshot() {
+        List<CategoryCount> classes = new ArrayList<>();
+        for (int i = 0; i < classCounts.length; i++) {
+            if (classCounts[i] > 0) {
+                String name = i < STORAGE_CLASSES.length ? STORAGE_CLASSES[i].toString() : "UNREPORTED";
+                classes.add(new CategoryCount(name, classCounts[i], classBytes[i]));
+            }
+        }
+        classes.sort(LARGEST_FIRST);
+        List<CategoryCount> types = new ArrayList<>(extensionSlots + 2);
+        for (int i = 0; i < extensionSlots; i++) {
+            types.add(new CategoryCount(extensions[i], extensionCounts[i], extensionBytes[i]));
+        }
+        if (noExtensionCount > 0) {
+            types.add(new CategoryCount("", noExtensionCount, noExtensionBytes));
+        }
+        types.sort(LARGEST_FIRST);
+        if (otherExtensionCount > 0) {
+            types.add(new CategoryCount("*", otherExtensionCount, otherExtensionBytes));
+        }
+        return new FolderStatistics(
+                histogram(sizeCounts, sizeBytes),
+                histogram(ageCounts, ageBytes),
+                classes,
+                types,
+                otherExtensionCount > 0);
+    }
+
+    // Matches the extension in place so that only the first occurrence of each distinct extension allocates
+    private void addExtension(String key, long size) {
+        int dot = key.lastIndexOf('.');
+        if (dot < 0 || dot < key.lastIndexOf('/') || dot == key.length() - 1) {
+            noExtensionCount++;
+            noExtensionBytes += size;
+            return;
+        }
+        int length = key.length() - dot - 1;
+        for (int i = 0; i < extensionSlots; i++) {
+            String extension = extensions[i];
+            if (extension.length() == length && key.regionMatches(true, dot + 1, extension, 0, length)) {
+                extensionCounts[i]++;
+                extensionBytes[i] += size;
+                return;
+            }
+        }
+        if (extensionSlots < MAX_EXTENSIONS) {
+            extensions[extensionSlots] = key.substring(dot + 1).toLowerCase();
+            extensionCounts[extensionSlots] = 1;
+            extensionBytes[extensionSlots] = size;
+            extensionSlots++;
+            return;
+        }
+        otherExtensionCount++;
+        otherExtensionBytes += size;
+    }
+
+    private static int logBucket(long value) {
+        return value <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    private static List<HistogramBucket> histogram(long[] counts, long[] bytes) {
+        List<HistogramBucket> buckets = new ArrayList<>();
+        for (int i = 0; i < LOG_BUCKETS; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            long lower = i == 0 ? 0 : 1L << (i - 1);
+            long upper = i == 0 ? 1 : i == 64 ? Long.MAX_VALUE : 1L << i;
+            buckets.add(new HistogramBucket(lower, upper, counts[i], bytes[i]));
+        }
+        return buckets;
+    }
+}
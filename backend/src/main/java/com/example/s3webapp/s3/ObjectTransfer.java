@@ -0,0 +1,223 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.accounting.S3CallContext;
+import com.example.s3webapp.config.S3Properties.BucketConfig;
+import com.example.s3webapp.config.TransferProperties;
+import com.example.s3webapp.util.NamedThreadFactory;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+@Component
+public class ObjectTransfer {
+
+    private static final Logger log = LoggerFactory.getLogger(ObjectTransfer.class);
+
+    private final S3ClientFactory s3ClientFactory;
+    private final TransferProperties properties;
+    private final ExecutorService partExecutor;
+
+    public ObjectTransfer(S3ClientFactory s3ClientFactory, TransferProperties properties) {
+        this.s3ClientFactory = s3ClientFactory;
+        this.properties = properties;
+        this.partExecutor = Executors.newFixedThreadPool(
+                properties.uploadConcurrency(), new NamedThreadFactory("s3-transfer-part"));
+    }
+
+    public boolean isServerSide(BucketConfig source, BucketConfig target) {
+        return source.sharesEndpointWith(target);
+    }
+
+    public boolean exists(BucketConfig config, String key) {
+        try {
+            s3ClientFactory.clientFor(config)
+                    .headObject(HeadObjectRequest.builder().bucket(config.bucketName()).key(key).build());
+            return true;
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) return false;
+            throw ex;
+        }
+    }
+
+    public void transfer(BucketConfig source, String sourceKey, BucketConfig target, String targetKey) {
+        if (isServerSide(source, target)) {
+            s3ClientFactory.clientFor(target).copyObject(CopyObjectRequest.builder()
+                    .sourceBucket(source.bucketName())
+                    .sourceKey(sourceKey)
+                    .destinationBucket(target.bucketName())
+                    .destinationKey(targetKey)
+                    .build());
+            return;
+        }
+        streamCopy(source, sourceKey, target, targetKey);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdownNow();
+    }
+
+    private void streamCopy(BucketConfig source, String sourceKey, BucketConfig target, String targetKey) {
+        S3Client sourceClient = s3ClientFactory.clientFor(source);
+        S3Client targetClient = s3ClientFactory.clientFor(target);
+        try (ResponseInputStream<GetObjectResponse> in = sourceClient.getObject(GetObjectRequest.builder()
+                .bucket(source.bucketName())
+                .key(sourceKey)
+                .build())) {
+            try {
+                GetObjectResponse response = in.response();
+                Long contentLength = response.contentLength();
+                long partSize = properties.partSizeFor(contentLength == null ? 0 : contentLength);
+                if (contentLength != null && contentLength <= partSize) {
+                    targetClient.putObject(
+                            PutObjectRequest.builder()
+                                    .bucket(target.bucketName())
+                                    .key(targetKey)
+                                    .contentType(response.contentType())
+                                    .contentEncoding(response.contentEncoding())
+                                    .contentDisposition(response.contentDisposition())
+                                    .contentLanguage(response.contentLanguage())
+                                    .cacheControl(response.cacheControl())
+                                    .metadata(response.metadata())
+                                    .build(),
+                            RequestBody.fromBytes(in.readAllBytes()));
+                    return;
+                }
+                multipartCopy(in, response, targetClient, target.bucketName(), targetKey, Math.toIntExact(partSize));
+            } catch (RuntimeException | IOException ex) {
+                // Closing the Apache-backed stream would download the rest of the object; abort drops it instead
+                in.abort();
+                throw ex;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to stream " + sourceKey, ex);
+        }
+    }
+
+    private void multipartCopy(
+            ResponseInputStream<GetObjectResponse> in,
+            GetObjectResponse response,
+            S3Client client,
+            String bucket,
+            String key,
+            int partSize)
+            throws IOException {
+        String uploadId = client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(response.contentType())
+                        .contentEncoding(response.contentEncoding())
+                        .contentDisposition(response.contentDisposition())
+                        .contentLanguage(response.contentLanguage())
+                        .cacheControl(response.cacheControl())
+                        .metadata(response.metadata())
+                        .build())
+                .uploadId();
+        Semaphore inFlight = new Semaphore(properties.maxPartsInFlight());
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            while (true) {
+                inFlight.acquire();
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    inFlight.release();
+                    break;
+                }
+                byte[] buffer = in.readNBytes(partSize);
+                if (buffer.length == 0 && partNumber > 1) {
+                    inFlight.release();
+                    break;
+                }
+                if (partNumber > TransferProperties.MAX_PARTS) {
+                    // Only when the source sent no length; the parts so far cannot be completed into an object
+                    inFlight.release();
+                    throw new IllegalStateException(key + " needs more than " + TransferProperties.MAX_PARTS + " parts");
+                }
+                int number = partNumber++;
+                parts.add(CompletableFuture.supplyAsync(
+                                () -> uploadPart(client, bucket, key, uploadId, number, buffer),
+                                S3CallContext.propagating(partExecutor))
+                        .whenComplete((part, error) -> inFlight.release()));
+                if (buffer.length < partSize) {
+                    break;
+                }
+            }
+            List<CompletedPart> completed = parts.stream()
+                    .map(CompletableFuture::join)
+                    .sorted(Comparator.comparing(CompletedPart::partNumber))
+                    .toList();
+            client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abort(client, bucket, key, uploadId, parts);
+            throw new OperationCancelledException("Transfer interrupted");
+        } catch (CompletionException ex) {
+            abort(client, bucket, key, uploadId, parts);
+            throw ex.getCause() instanceof RuntimeException runtime ? runtime : ex;
+        } catch (RuntimeException | IOException ex) {
+            abort(client, bucket, key, uploadId, parts);
+            throw ex;
+        }
+    }
+
+    private CompletedPart uploadPart(
+            S3Client client, String bucket, String key, String uploadId, int partNumber, byte[] buffer) {
+        String etag = client.uploadPart(
+                        UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) buffer.length)
+                                .build(),
+                        RequestBody.fromBytes(buffer))
+                .eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(etag).build();
+    }
+
+    private void abort(
+            S3Client client, String bucket, String key, String uploadId, List<CompletableFuture<CompletedPart>> parts) {
+        parts.forEach(part -> part.cancel(true));
+        try {
+            client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (SdkException ex) {
+            log.warn("Failed to abort multipart upload {} for {}/{}: {}", uploadId, bucket, key, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.s3webapp.s3;
+
+import java.io.Serial;
+
+public class OperationCancelledException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public OperationCancelledException(String message) {
+        super(message);
+    }
+}
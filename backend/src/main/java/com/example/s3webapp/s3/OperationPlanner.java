@@ -0,0 +1,169 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.config.OperationsProperties;
+import com.example.s3webapp.config.S3Properties.BucketConfig;
+import com.example.s3webapp.config.TransferProperties;
+import com.example.s3webapp.model.OperationPlan;
+import com.example.s3webapp.model.OperationPlan.RequestEstimate;
+import com.example.s3webapp.model.OperationPlanRequest;
+import com.example.s3webapp.model.OperationPlanRequest.Operation;
+import com.example.s3webapp.util.KeyUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+@Service
+public class OperationPlanner {
+
+    static final double DEFAULT_LATENCY_MILLIS = 100;
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final int CONFLICT_SAMPLES = 20;
+
+    private final BucketRegistry bucketRegistry;
+    private final S3ClientFactory s3ClientFactory;
+    private final OperationsProperties operations;
+    private final TransferProperties transfer;
+
+    public OperationPlanner(
+            BucketRegistry bucketRegistry,
+            S3ClientFactory s3ClientFactory,
+            OperationsProperties operations,
+            TransferProperties transfer) {
+        this.bucketRegistry = bucketRegistry;
+        this.s3ClientFactory = s3ClientFactory;
+        this.operations = operations;
+        this.transfer = transfer;
+    }
+
+    public OperationPlan plan(String bucketId, OperationPlanRequest request) {
+        BucketConfig source = bucketRegistry.require(bucketId);
+        boolean delete = request.operation() == Operation.DELETE;
+        if (!delete && (request.targetPrefix() == null || request.targetPrefix().isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "targetPrefix is required for " + request.operation());
+        }
+        BucketConfig target = delete || request.targetBucketId() == null || request.targetBucketId().isBlank()
+                ? source
+                : bucketRegistry.require(request.targetBucketId());
+        boolean serverSide = source.sharesEndpointWith(target);
+        String sourcePrefix = KeyUtils.normalizePrefix(request.sourcePrefix());
+        String targetPrefix = delete ? null : KeyUtils.normalizePrefix(request.targetPrefix());
+        long maxObjects = request.maxObjects() != null && request.maxObjects() > 0
+                ? Math.min(request.maxObjects(), operations.planMaxObjects())
+                : operations.planMaxObjects();
+        long partSize = transfer.partSize().toBytes();
+
+        long started = System.nanoTime();
+        ObjectListing sources = new ObjectListing(
+                s3ClientFactory.clientFor(source), source.bucketName(), sourcePrefix, LIST_PAGE_SIZE);
+        ObjectListing targets = delete
+                ? null
+                : new ObjectListing(s3ClientFactory.clientFor(target), target.bucketName(), targetPrefix, LIST_PAGE_SIZE);
+        String nextTarget = targets != null && targets.hasNext() ? relative(targets.next(), targetPrefix) : null;
+
+        long objects = 0;
+        long bytes = 0;
+        long candidates = 0;
+        long conflicts = 0;
+        long copies = 0;
+        long singlePuts = 0;
+        long multipartUploads = 0;
+        long parts = 0;
+        List<String> conflictSamples = new ArrayList<>();
+        boolean truncated = false;
+        while (sources.hasNext()) {
+            if (objects >= maxObjects) {
+                truncated = true;
+                break;
+            }
+            S3Object object = sources.next();
+            objects++;
+            bytes += object.size();
+            if (delete || object.key().endsWith("/")) {
+                continue;
+            }
+            candidates++;
+            String relative = relative(object, sourcePrefix);
+            while (nextTarget != null && KeyUtils.compareKeys(nextTarget, relative) < 0) {
+                nextTarget = targets.hasNext() ? relative(targets.next(), targetPrefix) : null;
+            }
+            if (relative.equals(nextTarget)) {
+                conflicts++;
+                if (conflictSamples.size() < CONFLICT_SAMPLES) {
+                    conflictSamples.add(object.key());
+                }
+                if (!request.overwrite()) {
+                    continue;
+                }
+            }
+            copies++;
+            if (object.size() <= partSize) {
+                singlePuts++;
+            } else {
+                multipartUploads++;
+                long objectPartSize = transfer.partSizeFor(object.size());
+                parts += (object.size() + objectPartSize - 1) / objectPartSize;
+            }
+        }
+        long scanMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        List<RequestEstimate> estimates = new ArrayList<>();
+        estimates.add(estimate(source, "ListObjectsV2", Math.max(1, sources.pages()), 1));
+        if (delete) {
+            estimates.add(estimate(source, "DeleteObjects", batches(objects), operations.deleteConcurrency()));
+        } else {
+            if (!request.overwrite()) {
+                estimates.add(estimate(target, "HeadObject", candidates, 1));
+            }
+            if (serverSide) {
+                estimates.add(estimate(target, "CopyObject", copies, 1));
+            } else {
+                estimates.add(estimate(source, "GetObject", copies, 1));
+                estimates.add(estimate(target, "PutObject", singlePuts, 1));
+                estimates.add(estimate(target, "CreateMultipartUpload", multipartUploads, 1));
+                estimates.add(estimate(target, "UploadPart", parts, transfer.maxPartsInFlight()));
+                estimates.add(estimate(target, "CompleteMultipartUpload", multipartUploads, 1));
+            }
+            if (request.operation() == Operation.MOVE) {
+                estimates.add(estimate(source, "DeleteObjects", batches(copies), operations.deleteConcurrency()));
+            }
+        }
+        estimates.removeIf(estimate -> estimate.count() == 0);
+
+        return new OperationPlan(
+                request.operation(),
+                source.id(),
+                sourcePrefix,
+                delete ? null : target.id(),
+                targetPrefix,
+                !delete && serverSide,
+                objects,
+                bytes,
+                conflicts,
+                conflictSamples,
+                truncated,
+                estimates,
+                estimates.stream().mapToLong(RequestEstimate::count).sum(),
+                estimates.stream().mapToDouble(RequestEstimate::seconds).sum(),
+                scanMillis);
+    }
+
+    private RequestEstimate estimate(BucketConfig config, String operation, long count, int parallelism) {
+        OptionalDouble measured = s3ClientFactory.statsFor(config).averageMillis(operation);
+        double latency = measured.orElse(DEFAULT_LATENCY_MILLIS);
+        double seconds = count * latency / 1000.0 / Math.max(1, parallelism);
+        return new RequestEstimate(operation, config.id(), count, parallelism, latency, measured.isPresent(), seconds);
+    }
+
+    private long batches(long keys) {
+        return (keys + operations.deleteBatchSize() - 1) / operations.deleteBatchSize();
+    }
+
+    private static String relative(S3Object object, String prefix) {
+        return object.key().substring(prefix.length());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.s3webapp.s3;
+
+public interface OperationProgress {
+
+    OperationProgress NONE = new OperationProgress() {};
+
+    default boolean cancelRequested() {
+        return false;
+    }
+
+    default void expect(long objects, long bytes) {}
+
+    default void advance(long objects, long bytes) {}
+
+    default boolean alreadyCompleted(String key) {
+        return false;
+    }
+
+    default void completed(String key) {}
+
+    default void checkCancelled(String message) {
+        if (cancelRequested()) {
+            throw new OperationCancelledException(message);
+        }
+    }
+}
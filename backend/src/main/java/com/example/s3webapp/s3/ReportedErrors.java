@@ -0,0 +1,23 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.model.BulkOperationResult;
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps the first MAX_REPORTED errors of an operation that may touch any number of objects
+final class ReportedErrors {
+
+    static final int MAX_REPORTED = 100;
+
+    private final List<BulkOperationResult> errors = new ArrayList<>();
+
+    void add(String sourceKey, String targetKey, String message) {
+        if (errors.size() < MAX_REPORTED) {
+            errors.add(new BulkOperationResult(sourceKey, targetKey, false, message));
+        }
+    }
+
+    List<BulkOperationResult> list() {
+        return List.copyOf(errors);
+    }
+}
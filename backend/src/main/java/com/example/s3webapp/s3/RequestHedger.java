@@ -0,0 +1,166 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.config.HedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Sends a duplicate of an idempotent read when the first attempt is slower than the learned
+// percentile for that operation; the first successful response wins and the other is cancelled.
+class RequestHedger {
+
+    // Unused budget accumulates up to this many hedges, so a quiet period allows a short burst
+    private static final double MAX_BURST = 10;
+
+    private final HedgingProperties properties;
+    private final Executor executor;
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final Counter sent;
+    private final Counter won;
+    private double budget;
+
+    RequestHedger(HedgingProperties properties, Executor executor, String endpoint, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.executor = executor;
+        this.sent = Counter.builder("s3.client.hedge.sent")
+                .tag("endpoint", endpoint)
+                .description("Duplicate read requests sent because the first attempt was slow")
+                .register(meterRegistry);
+        this.won = Counter.builder("s3.client.hedge.won")
+                .tag("endpoint", endpoint)
+                .description("Hedged requests that answered before the original attempt")
+                .register(meterRegistry);
+    }
+
+    <T> CompletableFuture<T> call(String operation, Supplier<CompletableFuture<T>> attempt) {
+        LatencyWindow window = windows.computeIfAbsent(
+                operation, op -> new LatencyWindow(properties.window(), properties.minSamples(), properties.percentile()));
+        long delayNanos = window.threshold();
+        earn();
+        long started = System.nanoTime();
+        Race<T> race = new Race<>();
+        race.start(attempt.get(), false);
+        race.result.whenComplete((value, error) -> {
+            if (error == null) {
+                window.record(System.nanoTime() - started);
+            }
+        });
+        if (delayNanos >= 0) {
+            long delay = Math.max(delayNanos, properties.minDelay().toNanos());
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, executor).execute(() -> {
+                if (race.result.isDone() || !spend()) {
+                    return;
+                }
+                sent.increment();
+                race.start(attempt.get(), true);
+            });
+        }
+        return race.result;
+    }
+
+    double latencyThresholdMillis(String operation) {
+        LatencyWindow window = windows.get(operation);
+        long threshold = window == null ? -1 : window.threshold();
+        return threshold < 0 ? -1 : threshold / 1_000_000.0;
+    }
+
+    private synchronized void earn() {
+        budget = Math.min(MAX_BURST, budget + properties.budgetPercent() / 100);
+    }
+
+    private synchronized boolean spend() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+
+    private class Race<T> {
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<CompletableFuture<T>> attempts = new ArrayList<>();
+        private int pending;
+        private boolean answered;
+
+        Race() {
+            result.whenComplete((value, error) -> cancelAll());
+        }
+
+        void start(CompletableFuture<T> attempt, boolean hedge) {
+            synchronized (this) {
+                attempts.add(attempt);
+                pending++;
+            }
+            attempt.whenComplete((value, error) -> finish(value, error, hedge));
+        }
+
+        // A failed attempt only fails the call once no other attempt can still succeed
+        private void finish(T value, Throwable error, boolean hedge) {
+            boolean last;
+            boolean first = false;
+            synchronized (this) {
+                last = --pending == 0;
+                if (error == null && !answered) {
+                    answered = first = true;
+                }
+            }
+            if (first) {
+                if (hedge) {
+                    won.increment();
+                }
+                result.complete(value);
+            } else if (error != null && last) {
+                result.completeExceptionally(AsyncRequestGate.unwrap(error));
+            }
+        }
+
+        private void cancelAll() {
+            List<CompletableFuture<T>> started;
+            synchronized (this) {
+                started = List.copyOf(attempts);
+            }
+            started.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+        private final int minSamples;
+        private final double percentile;
+        private int next;
+        private int count;
+        private long threshold = -1;
+
+        LatencyWindow(int size, int minSamples, double percentile) {
+            this.samples = new long[size];
+            this.minSamples = minSamples;
+            this.percentile = percentile;
+        }
+
+        synchronized long threshold() {
+            return threshold;
+        }
+
+        // Sorting the window on every call would cost more than the request, so the percentile is refreshed periodically
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count >= minSamples && (threshold < 0 || next % 16 == 0)) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                threshold = sorted[Math.min(count - 1, (int) Math.ceil(percentile / 100 * count) - 1)];
+            }
+        }
+    }
+}
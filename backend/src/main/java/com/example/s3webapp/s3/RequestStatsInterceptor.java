@@ -0,0 +1,32 @@
+package com.example.s3webapp.s3;
+
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+class RequestStatsInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Long> STARTED = new ExecutionAttribute<>("S3WebappRequestStarted");
+
+    private final EndpointStats stats;
+
+    RequestStatsInterceptor(EndpointStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        Long started = executionAttributes.getAttribute(STARTED);
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        if (started != null && operation != null) {
+            stats.record(operation, System.nanoTime() - started);
+        }
+    }
+}
@@ -1,13 +1,35 @@
 package com.example.s3webapp.s3;
 
+import com.example.s3webapp.accounting.S3CallAccountingInterceptor;
+import com.example.s3webapp.config.CircuitBreakerProperties;
+import com.example.s3webapp.config.ConcurrencyLimitProperties;
+import com.example.s3webapp.config.HedgingProperties;
+import com.example.s3webapp.config.S3AsyncProperties;
 import com.example.s3webapp.config.S3Properties.BucketConfig;
+import com.example.s3webapp.config.S3Properties.TransportProfile;
+import com.example.s3webapp.config.SdkMetricsProperties;
+import com.example.s3webapp.util.NamedThreadFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.net.URI;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
 
@@ -15,21 +37,208 @@ import software.amazon.awssdk.services.s3.S3Configuration;
 public class S3ClientFactory {
 
     private final Map<String, S3Client> clients = new ConcurrentHashMap<>();
+    private final Map<String, S3AsyncClient> asyncClients = new ConcurrentHashMap<>();
+    private final Map<PoolKey, SdkHttpClient> httpClients = new ConcurrentHashMap<>();
+    private final Map<PoolKey, SdkAsyncHttpClient> asyncHttpClients = new ConcurrentHashMap<>();
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, AsyncRequestGate> gates = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, EndpointCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final ConcurrencyLimitProperties limitProperties;
+    private final CircuitBreakerProperties breakerProperties;
+    private final S3AsyncProperties asyncProperties;
+    private final HedgingProperties hedgingProperties;
+    private final SdkMetricsProperties metricsProperties;
+    private final MeterRegistry meterRegistry;
+    // Every async client shares these, so the thread count stays fixed however many requests are in flight
+    private final SdkEventLoopGroup eventLoopGroup;
+    private final ExecutorService callbackExecutor;
+
+    public S3ClientFactory(
+            ConcurrencyLimitProperties limitProperties,
+            CircuitBreakerProperties breakerProperties,
+            S3AsyncProperties asyncProperties,
+            HedgingProperties hedgingProperties,
+            SdkMetricsProperties metricsProperties,
+            MeterRegistry meterRegistry) {
+        this.limitProperties = limitProperties;
+        this.breakerProperties = breakerProperties;
+        this.asyncProperties = asyncProperties;
+        this.hedgingProperties = hedgingProperties;
+        this.metricsProperties = metricsProperties;
+        this.meterRegistry = meterRegistry;
+        this.eventLoopGroup = SdkEventLoopGroup.builder()
+                .numberOfThreads(asyncProperties.eventLoopThreads())
+                .threadFactory(new NamedThreadFactory("s3-async-io"))
+                .build();
+        this.callbackExecutor = Executors.newFixedThreadPool(
+                asyncProperties.callbackThreads(), new NamedThreadFactory("s3-async-callback"));
+    }
 
     public S3Client clientFor(BucketConfig config) {
         return clients.computeIfAbsent(config.id(), id -> buildClient(config));
     }
 
+    public S3AsyncClient asyncClientFor(BucketConfig config) {
+        return asyncClients.computeIfAbsent(config.id(), id -> buildAsyncClient(config));
+    }
+
+    public AsyncRequestGate gateFor(BucketConfig config) {
+        return gates.computeIfAbsent(config.endpointUrl(), endpoint -> new AsyncRequestGate(
+                limitProperties.enabled() ? limiterFor(config) : null,
+                endpoint,
+                hedgingProperties.enabled()
+                        ? new RequestHedger(hedgingProperties, callbackExecutor, endpoint, meterRegistry)
+                        : null));
+    }
+
+    SdkHttpClient httpClientFor(BucketConfig config) {
+        return httpClients.computeIfAbsent(PoolKey.of(config), key -> buildHttpClient(key.transport()));
+    }
+
+    SdkAsyncHttpClient asyncHttpClientFor(BucketConfig config) {
+        return asyncHttpClients.computeIfAbsent(PoolKey.of(config), key -> buildAsyncHttpClient(key.transport()));
+    }
+
+    // Clients built with a caller-supplied HTTP client leave it open, so the shared pools are closed here
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(S3Client::close);
+        asyncClients.values().forEach(S3AsyncClient::close);
+        httpClients.values().forEach(SdkHttpClient::close);
+        asyncHttpClients.values().forEach(SdkAsyncHttpClient::close);
+        eventLoopGroup.eventLoopGroup().shutdownGracefully();
+        callbackExecutor.shutdownNow();
+    }
+
+    public AdaptiveConcurrencyLimiter limiterFor(BucketConfig config) {
+        return limiters.computeIfAbsent(config.endpointUrl(), this::createLimiter);
+    }
+
+    public EndpointCircuitBreaker breakerFor(BucketConfig config) {
+        return breakers.computeIfAbsent(config.endpointUrl(), this::createBreaker);
+    }
+
+    public EndpointStats statsFor(BucketConfig config) {
+        return stats.computeIfAbsent(config.endpointUrl(), endpoint -> new EndpointStats());
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String endpoint) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limitProperties);
+        Gauge.builder("s3.client.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .tag("endpoint", endpoint)
+                .description("Adaptive in-flight request limit for the S3 endpoint")
+                .register(meterRegistry);
+        Gauge.builder("s3.client.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        FunctionCounter.builder("s3.client.concurrency.throttled", limiter, l -> l.throttledCount())
+                .tag("endpoint", endpoint)
+                .description("Times the limit was cut after throttling, timeouts or slow responses")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private EndpointCircuitBreaker createBreaker(String endpoint) {
+        EndpointCircuitBreaker breaker = new EndpointCircuitBreaker(breakerProperties, endpoint);
+        Gauge.builder("s3.client.circuit.state", breaker, b -> b.state().ordinal())
+                .tag("endpoint", endpoint)
+                .description("Circuit breaker state for the S3 endpoint (0 closed, 1 half-open, 2 open)")
+                .register(meterRegistry);
+        FunctionCounter.builder("s3.client.circuit.opened", breaker, b -> b.openedCount())
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return breaker;
+    }
+
+    // The breaker runs first so a rejected call never waits in the blocking concurrency interceptor
+    private ClientOverrideConfiguration.Builder baseOverrides(BucketConfig config, String client) {
+        ClientOverrideConfiguration.Builder overrides = ClientOverrideConfiguration.builder();
+        if (breakerProperties.enabled()) {
+            overrides.addExecutionInterceptor(new CircuitBreakerInterceptor(breakerFor(config)));
+        }
+        if (metricsProperties.enabled()) {
+            overrides.addMetricPublisher(new MicrometerMetricPublisher(
+                    meterRegistry, config.id(), client, metricsProperties.percentileHistograms()));
+        }
+        return overrides
+                .addExecutionInterceptor(new RequestStatsInterceptor(statsFor(config)))
+                .addExecutionInterceptor(new S3CallAccountingInterceptor());
+    }
+
+    private S3AsyncClient buildAsyncClient(BucketConfig config) {
+        return S3AsyncClient.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(config.accessKey(), config.secretKey())))
+                .endpointOverride(URI.create(config.endpointUrl()))
+                .region(Region.of(config.region()))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(Boolean.TRUE.equals(config.pathStyleAccess()))
+                        .build())
+                .overrideConfiguration(baseOverrides(config, "async").build())
+                .httpClient(asyncHttpClientFor(config))
+                .asyncConfiguration(async -> async.advancedOption(
+                        SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR, callbackExecutor))
+                .build();
+    }
+
     private S3Client buildClient(BucketConfig config) {
         S3Configuration s3Configuration = S3Configuration.builder()
                 .pathStyleAccessEnabled(Boolean.TRUE.equals(config.pathStyleAccess()))
                 .build();
+        ClientOverrideConfiguration.Builder overrides = baseOverrides(config, "sync");
+        if (limitProperties.enabled()) {
+            overrides.addExecutionInterceptor(
+                    new ConcurrencyLimitInterceptor(limiterFor(config), config.endpointUrl()));
+        }
         return S3Client.builder()
                 .credentialsProvider(StaticCredentialsProvider.create(
                         AwsBasicCredentials.create(config.accessKey(), config.secretKey())))
                 .endpointOverride(URI.create(config.endpointUrl()))
                 .region(Region.of(config.region()))
                 .serviceConfiguration(s3Configuration)
+                .overrideConfiguration(overrides.build())
+                .httpClient(httpClientFor(config))
+                .build();
+    }
+
+    private SdkHttpClient buildHttpClient(TransportProfile transport) {
+        return ApacheHttpClient.builder()
+                .maxConnections(transport.maxConnections())
+                .connectionTimeToLive(transport.connectionTtl())
+                .connectionMaxIdleTime(transport.connectionMaxIdle())
+                .useIdleConnectionReaper(transport.reapIdleConnections())
+                .connectionTimeout(transport.connectTimeout())
+                .socketTimeout(transport.socketTimeout())
+                .connectionAcquisitionTimeout(transport.acquireTimeout())
+                .tcpKeepAlive(transport.tcpKeepAlive())
+                .expectContinueEnabled(transport.expectContinue())
+                .build();
+    }
+
+    // Netty has no expect-continue switch; everything else mirrors the blocking pool
+    private SdkAsyncHttpClient buildAsyncHttpClient(TransportProfile transport) {
+        return NettyNioAsyncHttpClient.builder()
+                .eventLoopGroup(eventLoopGroup)
+                .maxConcurrency(transport.maxConnections())
+                .maxPendingConnectionAcquires(asyncProperties.maxPendingAcquires())
+                .connectionTimeToLive(transport.connectionTtl())
+                .connectionMaxIdleTime(transport.connectionMaxIdle())
+                .useIdleConnectionReaper(transport.reapIdleConnections())
+                .connectionTimeout(transport.connectTimeout())
+                .readTimeout(transport.socketTimeout())
+                .writeTimeout(transport.socketTimeout())
+                .connectionAcquisitionTimeout(transport.acquireTimeout())
+                .tcpKeepAlive(transport.tcpKeepAlive())
                 .build();
     }
+
+    private record PoolKey(
+            String endpointUrl, String region, String accessKey, String secretKey, TransportProfile transport) {
+
+        static PoolKey of(BucketConfig config) {
+            return new PoolKey(
+                    config.endpointUrl(), config.region(), config.accessKey(), config.secretKey(), config.transport());
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.config.S3Properties.BucketConfig;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+// One unreachable store must not mark the whole app DOWN (and get it restarted), so open circuits are
+// reported as DEGRADED, which the health endpoint still serves with HTTP 200.
+@Component("s3Endpoints")
+public class S3EndpointHealthIndicator implements HealthIndicator {
+
+    static final Status DEGRADED = new Status("DEGRADED");
+
+    private final BucketRegistry bucketRegistry;
+    private final S3ClientFactory s3ClientFactory;
+
+    public S3EndpointHealthIndicator(BucketRegistry bucketRegistry, S3ClientFactory s3ClientFactory) {
+        this.bucketRegistry = bucketRegistry;
+        this.s3ClientFactory = s3ClientFactory;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, List<String>> bucketsByEndpoint = new TreeMap<>();
+        Map<String, EndpointCircuitBreaker> breakers = new TreeMap<>();
+        for (BucketConfig bucket : bucketRegistry.list()) {
+            bucketsByEndpoint.computeIfAbsent(bucket.endpointUrl(), e -> new ArrayList<>()).add(bucket.id());
+            breakers.putIfAbsent(bucket.endpointUrl(), s3ClientFactory.breakerFor(bucket));
+        }
+        boolean degraded = false;
+        Health.Builder health = Health.up();
+        for (Map.Entry<String, EndpointCircuitBreaker> entry : breakers.entrySet()) {
+            EndpointCircuitBreaker.State state = entry.getValue().state();
+            degraded |= state != EndpointCircuitBreaker.State.CLOSED;
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("circuit", state);
+            detail.put("buckets", bucketsByEndpoint.get(entry.getKey()).stream().sorted().toList());
+            detail.put("timesOpened", entry.getValue().openedCount());
+            health.withDetail(entry.getKey(), detail);
+        }
+        return degraded ? health.status(DEGRADED).build() : health.build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.s3webapp.s3;
+
+import java.util.List;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+public record ScanAggregators(SubfolderBreakdown breakdown, ObjectStatistics statistics) {
+
+    void add(S3Object object) {
+        if (breakdown != null) {
+            breakdown.add(object.key(), object.size());
+        }
+        if (statistics != null) {
+            statistics.add(object);
+        }
+    }
+
+    void addAll(List<S3Object> objects) {
+        if (breakdown != null) {
+            breakdown.addAll(objects);
+        }
+        if (statistics != null) {
+            statistics.addAll(objects);
+        }
+    }
+}
@@ -5,9 +5,10 @@ import com.example.s3webapp.model.BulkCopyMoveRequest;
 import com.example.s3webapp.model.BulkOperationResult;
 import com.example.s3webapp.model.CopyMoveRequest;
 import com.example.s3webapp.model.DeleteFolderRequest;
+import com.example.s3webapp.model.DeleteFolderResult;
 import com.example.s3webapp.model.DeleteObjectsRequest;
+import com.example.s3webapp.model.DeleteObjectsResult;
 import com.example.s3webapp.model.FolderCopyRequest;
-import com.example.s3webapp.model.FolderItem;
 import com.example.s3webapp.model.FolderOperationResult;
 import com.example.s3webapp.model.FolderSizeResponse;
 import com.example.s3webapp.model.ObjectItem;
@@ -15,41 +16,52 @@ import com.example.s3webapp.model.ObjectListResponse;
 import com.example.s3webapp.util.KeyUtils;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
-import software.amazon.awssdk.services.s3.model.Delete;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
-import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 @Service
 public class StorageService {
 
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final int MAX_RETURNED_PREFIX_KEYS = 1000;
+
     private final BucketRegistry bucketRegistry;
     private final S3ClientFactory s3ClientFactory;
     private final FolderSizeCalculator folderSizeCalculator;
+    private final BatchDeleter batchDeleter;
+    private final ApplicationEventPublisher events;
+    private final AsyncStorageService asyncStorage;
 
     public StorageService(
-            BucketRegistry bucketRegistry, S3ClientFactory s3ClientFactory, FolderSizeCalculator folderSizeCalculator) {
+            BucketRegistry bucketRegistry,
+            S3ClientFactory s3ClientFactory,
+            FolderSizeCalculator folderSizeCalculator,
+            BatchDeleter batchDeleter,
+            ApplicationEventPublisher events,
+            AsyncStorageService asyncStorage) {
         this.bucketRegistry = bucketRegistry;
         this.s3ClientFactory = s3ClientFactory;
         this.folderSizeCalculator = folderSizeCalculator;
+        this.batchDeleter = batchDeleter;
+        this.events = events;
+        this.asyncStorage = asyncStorage;
     }
 
     public List<BucketConfig> listBuckets() {
@@ -57,68 +69,18 @@ public class StorageService {
     }
 
     public ObjectListResponse listObjects(String bucketId, String prefix, String continuationToken) {
-        BucketConfig config = bucketRegistry.require(bucketId);
-        S3Client client = s3ClientFactory.clientFor(config);
-
-        String normalizedPrefix = KeyUtils.normalizePrefix(prefix);
-        ListObjectsV2Request.Builder requestBuilder = ListObjectsV2Request.builder()
-                .bucket(config.bucketName())
-                .prefix(normalizedPrefix)
-                .delimiter("/")
-                .maxKeys(500);
-        if (continuationToken != null && !continuationToken.isBlank()) {
-            requestBuilder.continuationToken(continuationToken);
-        }
-
-        ListObjectsV2Response response = client.listObjectsV2(requestBuilder.build());
-        List<FolderItem> folders = response.commonPrefixes().stream()
-                .map(cp -> new FolderItem(KeyUtils.folderNameFromPrefix(normalizedPrefix, cp.prefix()), cp.prefix()))
-                .toList();
-
-        List<ObjectItem> objects = response.contents().stream()
-                .filter(o -> !o.key().endsWith("/"))
-                .map(o -> toObjectItem(client, config.bucketName(), o))
-                .toList();
-
-        return new ObjectListResponse(normalizedPrefix, folders, objects, response.nextContinuationToken());
+        return AsyncStorageService.await(asyncStorage.listObjects(bucketId, prefix, continuationToken));
     }
 
-    public ObjectListResponse search(String bucketId, String prefix, String query) {
-        BucketConfig config = bucketRegistry.require(bucketId);
-        S3Client client = s3ClientFactory.clientFor(config);
-        String normalizedPrefix = KeyUtils.normalizePrefix(prefix);
-        String regex = KeyUtils.wildcardToRegex(query == null ? "*" : query);
-        Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-
-        List<S3Object> matches = new ArrayList<>();
-        String token = null;
+    // Hands matches over one listing page at a time, so a search across a wide prefix never holds every match
+    public void search(String bucketId, String prefix, String query, Consumer<List<ObjectItem>> pages) {
+        String pageToken = null;
         do {
-            ListObjectsV2Request.Builder builder = ListObjectsV2Request.builder()
-                    .bucket(config.bucketName())
-                    .prefix(normalizedPrefix)
-                    .maxKeys(500);
-            if (token != null) {
-                builder.continuationToken(token);
-            }
-            ListObjectsV2Response response = client.listObjectsV2(builder.build());
-            response.contents().stream()
-                    .filter(obj -> {
-                        String candidate = obj.key();
-                        if (!normalizedPrefix.isBlank() && candidate.startsWith(normalizedPrefix)) {
-                            candidate = candidate.substring(normalizedPrefix.length());
-                        }
-                        String name = KeyUtils.extractName(candidate);
-                        return pattern.matcher(candidate).matches() || pattern.matcher(name).matches();
-                    })
-                    .forEach(matches::add);
-            token = response.nextContinuationToken();
-        } while (token != null);
-
-        List<ObjectItem> items = matches.stream()
-                .filter(o -> !o.key().endsWith("/"))
-                .map(o -> toObjectItem(client, config.bucketName(), o))
-                .toList();
-        return new ObjectListResponse(normalizedPrefix, Collections.emptyList(), items, null);
+            AsyncStorageService.SearchPage page =
+                    AsyncStorageService.await(asyncStorage.searchPage(bucketId, prefix, query, pageToken));
+            pages.accept(page.objects());
+            pageToken = page.nextPageToken();
+        } while (pageToken != null);
     }
 
     public ResponseInputStream<software.amazon.awssdk.services.s3.model.GetObjectResponse> download(
@@ -149,6 +111,7 @@ public class StorageService {
                 .destinationKey(request.targetKey())
                 .build();
         client.copyObject(copyRequest);
+        changed(bucketId, List.of(request.targetKey()));
         return head(client, config.bucketName(), request.targetKey());
     }
 
@@ -156,117 +119,175 @@ public class StorageService {
         ObjectItem copied = copy(bucketId, request);
         BucketConfig config = bucketRegistry.require(bucketId);
         S3Client client = s3ClientFactory.clientFor(config);
-        client.deleteObject(DeleteObjectRequest.builder()
-                .bucket(config.bucketName())
-                .key(request.sourceKey())
-                .build());
+        BatchDeletion deletion = batchDeleter.open(client, config.bucketName());
+        deletion.add(request.sourceKey());
+        String failure = deletion.finish().failures().get(request.sourceKey());
+        changed(bucketId, List.of(request.sourceKey()));
+        if (failure != null) {
+            throw new ResponseStatusException(
+                    org.springframework.http.HttpStatus.BAD_GATEWAY, "Copied but failed to delete source: " + failure);
+        }
         return copied;
     }
 
-    public List<String> deleteObjects(String bucketId, DeleteObjectsRequest body) {
+    public DeleteObjectsResult deleteObjects(String bucketId, DeleteObjectsRequest body) {
+        return deleteObjects(bucketId, body, OperationProgress.NONE);
+    }
+
+    public DeleteObjectsResult deleteObjects(String bucketId, DeleteObjectsRequest body, OperationProgress progress) {
         BucketConfig config = bucketRegistry.require(bucketId);
         S3Client client = s3ClientFactory.clientFor(config);
-        List<String> allKeys = new ArrayList<>(body.keys());
-        for (String prefix : body.prefixes()) {
-            String normalized = KeyUtils.normalizePrefix(prefix);
-            allKeys.addAll(listKeys(client, config.bucketName(), normalized));
+        // Prefixes can expand to any number of keys, so only the requested keys and the first
+        // MAX_RETURNED_PREFIX_KEYS of the expanded ones are listed; the counts cover all of them
+        BatchDeletion deletion = batchDeleter.stream(
+                client,
+                config.bucketName(),
+                body.keys().size() + MAX_RETURNED_PREFIX_KEYS,
+                deleted -> progress.advance(deleted, 0));
+        try {
+            progress.expect(body.keys().size(), 0);
+            deletion.addAll(body.keys());
+            for (String prefix : body.prefixes()) {
+                ObjectListing listing = new ObjectListing(
+                        client, config.bucketName(), KeyUtils.normalizePrefix(prefix), LIST_PAGE_SIZE);
+                while (listing.hasNext()) {
+                    progress.checkCancelled("Operation cancelled");
+                    deletion.add(listing.next().key());
+                    progress.expect(1, 0);
+                }
+            }
+        } catch (RuntimeException ex) {
+            deletion.finish();
+            throw ex;
+        } finally {
+            List<String> paths = new ArrayList<>(body.keys());
+            body.prefixes().forEach(prefix -> paths.add(KeyUtils.normalizePrefix(prefix)));
+            changed(bucketId, paths);
         }
+        BatchDeletion.Result result = deletion.finish();
+        List<BulkOperationResult> errors = result.failures().entrySet().stream()
+                .map(failure -> new BulkOperationResult(failure.getKey(), null, false, failure.getValue()))
+                .toList();
+        return new DeleteObjectsResult(
+                result.deleted(),
+                deletion.deletedCount(),
+                deletion.failedCount(),
+                errors,
+                deletion.deletedCount() > result.deleted().size() || deletion.failedCount() > errors.size());
+    }
 
-        List<List<String>> chunks = chunk(allKeys, 900);
-        List<String> deleted = new ArrayList<>();
-        for (List<String> chunk : chunks) {
-            Delete delete = Delete.builder()
-                    .objects(chunk.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
-                    .build();
-            DeleteObjectsResponse response = client.deleteObjects(software.amazon.awssdk.services.s3.model.DeleteObjectsRequest
-                    .builder()
-                    .bucket(config.bucketName())
-                    .delete(delete)
-                    .build());
-            response.deleted().forEach(d -> deleted.add(d.key()));
-        }
-        return deleted;
+    public DeleteFolderResult deleteFolder(String bucketId, DeleteFolderRequest request) {
+        return deleteFolder(bucketId, request, OperationProgress.NONE);
     }
 
-    public long deleteFolder(String bucketId, DeleteFolderRequest request) {
+    public DeleteFolderResult deleteFolder(String bucketId, DeleteFolderRequest request, OperationProgress progress) {
         BucketConfig config = bucketRegistry.require(bucketId);
         S3Client client = s3ClientFactory.clientFor(config);
         String normalizedPrefix = KeyUtils.normalizePrefix(request.prefix());
-        List<String> keys = new ArrayList<>();
-        String token = null;
-        do {
-            ListObjectsV2Request.Builder builder = ListObjectsV2Request.builder()
-                    .bucket(config.bucketName())
-                    .prefix(normalizedPrefix)
-                    .maxKeys(500);
-            if (token != null) builder.continuationToken(token);
-            ListObjectsV2Response response = client.listObjectsV2(builder.build());
-            response.contents().forEach(obj -> keys.add(obj.key()));
-            token = response.nextContinuationToken();
-        } while (token != null);
-
-        deleteObjects(bucketId, new DeleteObjectsRequest(keys, Collections.emptyList()));
-        return keys.size();
+        BatchDeletion deletion = batchDeleter.stream(client, config.bucketName(), deleted -> progress.advance(deleted, 0));
+        ObjectListing listing = new ObjectListing(client, config.bucketName(), normalizedPrefix, LIST_PAGE_SIZE);
+        try {
+            while (listing.hasNext()) {
+                progress.checkCancelled("Operation cancelled");
+                deletion.add(listing.next().key());
+                progress.expect(1, 0);
+            }
+        } catch (RuntimeException ex) {
+            deletion.finish();
+            throw ex;
+        } finally {
+            changed(bucketId, List.of(normalizedPrefix));
+        }
+        List<BulkOperationResult> errors = deletion.finish().failures().entrySet().stream()
+                .map(failure -> new BulkOperationResult(failure.getKey(), null, false, failure.getValue()))
+                .toList();
+        return new DeleteFolderResult(normalizedPrefix, deletion.deletedCount(), deletion.failedCount(), errors);
     }
 
     public List<BulkOperationResult> bulkCopy(String bucketId, BulkCopyMoveRequest request) {
-        BucketConfig config = bucketRegistry.require(bucketId);
-        S3Client client = s3ClientFactory.clientFor(config);
-        List<BulkOperationResult> results = new ArrayList<>();
-        for (var item : request.items()) {
-            if (!request.overwrite() && exists(client, config.bucketName(), item.targetKey())) {
-                results.add(new BulkOperationResult(item.sourceKey(), item.targetKey(), false, "Target exists"));
-                continue;
-            }
-            try {
-                client.copyObject(CopyObjectRequest.builder()
-                        .copySource(config.bucketName() + "/" + item.sourceKey())
-                        .destinationBucket(config.bucketName())
-                        .destinationKey(item.targetKey())
-                        .build());
-                results.add(new BulkOperationResult(item.sourceKey(), item.targetKey(), true, "copied"));
-            } catch (S3Exception ex) {
-                results.add(new BulkOperationResult(
-                        item.sourceKey(), item.targetKey(), false, "Copy failed: " + ex.awsErrorDetails().errorMessage()));
-            }
+        return bulkCopy(bucketId, request, OperationProgress.NONE);
+    }
+
+    public List<BulkOperationResult> bulkCopy(
+            String bucketId, BulkCopyMoveRequest request, OperationProgress progress) {
+        progress.expect(request.items().size(), 0);
+        List<BulkOperationResult> results;
+        try {
+            results = AsyncStorageService.await(asyncStorage.copyObjects(bucketId, request, "copied", progress));
+        } finally {
+            changed(bucketId, request.items().stream().map(item -> item.targetKey()).toList());
         }
+        progress.checkCancelled("Operation cancelled");
         return results;
     }
 
     public List<BulkOperationResult> bulkMove(String bucketId, BulkCopyMoveRequest request) {
+        return bulkMove(bucketId, request, OperationProgress.NONE);
+    }
+
+    public List<BulkOperationResult> bulkMove(
+            String bucketId, BulkCopyMoveRequest request, OperationProgress progress) {
         BucketConfig config = bucketRegistry.require(bucketId);
         S3Client client = s3ClientFactory.clientFor(config);
         List<BulkOperationResult> results = new ArrayList<>();
-        for (var item : request.items()) {
-            if (!request.overwrite() && exists(client, config.bucketName(), item.targetKey())) {
-                results.add(new BulkOperationResult(item.sourceKey(), item.targetKey(), false, "Target exists"));
-                continue;
-            }
-            try {
-                client.copyObject(CopyObjectRequest.builder()
-                        .copySource(config.bucketName() + "/" + item.sourceKey())
-                        .destinationBucket(config.bucketName())
-                        .destinationKey(item.targetKey())
-                        .build());
-                client.deleteObject(DeleteObjectRequest.builder()
-                        .bucket(config.bucketName())
-                        .key(item.sourceKey())
-                        .build());
-                results.add(new BulkOperationResult(item.sourceKey(), item.targetKey(), true, "moved"));
-            } catch (S3Exception ex) {
-                results.add(new BulkOperationResult(
-                        item.sourceKey(), item.targetKey(), false, "Move failed: " + ex.awsErrorDetails().errorMessage()));
+        BatchDeletion deletion = batchDeleter.open(client, config.bucketName());
+        progress.expect(request.items().size(), 0);
+        List<BulkOperationResult> copied;
+        try {
+            copied = AsyncStorageService.await(asyncStorage.copyObjects(bucketId, request, "moved", progress));
+        } catch (RuntimeException ex) {
+            deletion.finish();
+            throw ex;
+        }
+        for (BulkOperationResult result : copied) {
+            if (result == null) continue;
+            if (result.success()) {
+                deletion.add(result.sourceKey());
             }
+            results.add(result);
         }
-        return results;
+        Map<String, String> failures = deletion.finish().failures();
+        changed(bucketId, movedPaths(request));
+        if (progress.cancelRequested()) {
+            throw new OperationCancelledException("Bulk move cancelled");
+        }
+        if (failures.isEmpty()) {
+            return results;
+        }
+        return results.stream()
+                .map(result -> result.success() && failures.containsKey(result.sourceKey())
+                        ? new BulkOperationResult(
+                                result.sourceKey(),
+                                result.targetKey(),
+                                false,
+                                "Copied but failed to delete source: " + failures.get(result.sourceKey()))
+                        : result)
+                .toList();
     }
 
     public FolderOperationResult copyFolder(String bucketId, FolderCopyRequest request) {
-        return handleFolderOperation(bucketId, request, false);
+        return copyFolder(bucketId, request, OperationProgress.NONE);
+    }
+
+    public FolderOperationResult copyFolder(String bucketId, FolderCopyRequest request, OperationProgress progress) {
+        try {
+            return handleFolderOperation(bucketId, request, false, progress);
+        } finally {
+            changed(bucketId, List.of(KeyUtils.normalizePrefix(request.targetPrefix())));
+        }
     }
 
     public FolderOperationResult moveFolder(String bucketId, FolderCopyRequest request) {
-        return handleFolderOperation(bucketId, request, true);
+        return moveFolder(bucketId, request, OperationProgress.NONE);
+    }
+
+    public FolderOperationResult moveFolder(String bucketId, FolderCopyRequest request, OperationProgress progress) {
+        try {
+            return handleFolderOperation(bucketId, request, true, progress);
+        } finally {
+            changed(bucketId, List.of(
+                    KeyUtils.normalizePrefix(request.sourcePrefix()), KeyUtils.normalizePrefix(request.targetPrefix())));
+        }
     }
 
     public FolderSizeResponse folderSize(String bucketId, String prefix) {
@@ -276,19 +297,6 @@ public class StorageService {
                 computation.prefix(), computation.totalSizeBytes(), computation.objectsScanned());
     }
 
-    private ObjectItem toObjectItem(S3Client client, String bucketName, S3Object object) {
-        HeadObjectResponse head = client.headObject(HeadObjectRequest.builder()
-                .bucket(bucketName)
-                .key(object.key())
-                .build());
-        return new ObjectItem(
-                object.key(),
-                KeyUtils.extractName(object.key()),
-                object.size(),
-                object.lastModified().atZone(ZoneOffset.UTC).toInstant(),
-                Optional.ofNullable(head.contentType()).orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE));
-    }
-
     private ObjectItem head(S3Client client, String bucketName, String key) {
         HeadObjectResponse head = client.headObject(HeadObjectRequest.builder()
                 .bucket(bucketName)
@@ -312,75 +320,97 @@ public class StorageService {
         }
     }
 
-    private List<List<String>> chunk(List<String> keys, int size) {
-        if (keys == null || keys.isEmpty()) return List.of();
-        List<List<String>> parts = new ArrayList<>();
-        for (int i = 0; i < keys.size(); i += size) {
-            parts.add(keys.subList(i, Math.min(i + size, keys.size())));
-        }
-        return parts;
-    }
-
-    private List<String> listKeys(S3Client client, String bucket, String prefix) {
-        List<String> keys = new ArrayList<>();
-        String token = null;
-        do {
-            ListObjectsV2Request.Builder builder = ListObjectsV2Request.builder()
-                    .bucket(bucket)
-                    .prefix(prefix)
-                    .maxKeys(500);
-            if (token != null) builder.continuationToken(token);
-            ListObjectsV2Response response = client.listObjectsV2(builder.build());
-            response.contents().forEach(obj -> keys.add(obj.key()));
-            token = response.nextContinuationToken();
-        } while (token != null);
-        return keys;
-    }
-
-    private FolderOperationResult handleFolderOperation(String bucketId, FolderCopyRequest request, boolean deleteSource) {
+    private FolderOperationResult handleFolderOperation(
+            String bucketId, FolderCopyRequest request, boolean deleteSource, OperationProgress progress) {
         BucketConfig config = bucketRegistry.require(bucketId);
         S3Client client = s3ClientFactory.clientFor(config);
         String sourcePrefix = KeyUtils.normalizePrefix(request.sourcePrefix());
         String targetPrefix = KeyUtils.normalizePrefix(request.targetPrefix());
-        List<String> keys = listKeys(client, config.bucketName(), sourcePrefix);
+        ObjectListing listing = new ObjectListing(client, config.bucketName(), sourcePrefix, LIST_PAGE_SIZE);
+        // A target nested in the source would show up in later listing pages as it is written
+        String written = targetPrefix.startsWith(sourcePrefix) ? targetPrefix : null;
+        int listed = 0;
         int copied = 0;
         int skipped = 0;
-        List<BulkOperationResult> errors = new ArrayList<>();
+        long failed = 0;
+        ReportedErrors errors = new ReportedErrors();
+        // Streamed, so a move of any size keeps only counts and the first failures of the source deletes
+        BatchDeletion deletion = deleteSource ? batchDeleter.stream(client, config.bucketName(), deleted -> {}) : null;
 
-        for (String key : keys) {
-            if (key.endsWith("/")) {
-                continue;
-            }
-            String relative = key.substring(sourcePrefix.length());
-            String targetKey = targetPrefix + relative;
-            if (!request.overwrite() && exists(client, config.bucketName(), targetKey)) {
-                skipped++;
-                errors.add(new BulkOperationResult(key, targetKey, false, "Target exists and overwrite=false"));
-                continue;
-            }
-            try {
-                client.copyObject(CopyObjectRequest.builder()
-                        .copySource(config.bucketName() + "/" + key)
-                        .destinationBucket(config.bucketName())
-                        .destinationKey(targetKey)
-                        .build());
-                if (deleteSource) {
-                    client.deleteObject(DeleteObjectRequest.builder()
-                            .bucket(config.bucketName())
-                            .key(key)
+        try {
+            while (listing.hasNext()) {
+                progress.checkCancelled("Folder operation cancelled");
+                S3Object object = listing.next();
+                String key = object.key();
+                if (written != null && key.startsWith(written)) {
+                    continue;
+                }
+                listed++;
+                progress.expect(1, object.size());
+                progress.advance(1, object.size());
+                if (key.endsWith("/")) {
+                    continue;
+                }
+                String relative = key.substring(sourcePrefix.length());
+                String targetKey = targetPrefix + relative;
+                if (progress.alreadyCompleted(key)) {
+                    if (deletion != null) {
+                        deletion.add(key);
+                    }
+                    copied++;
+                    continue;
+                }
+                if (!request.overwrite() && exists(client, config.bucketName(), targetKey)) {
+                    skipped++;
+                    errors.add(key, targetKey, "Target exists and overwrite=false");
+                    continue;
+                }
+                try {
+                    client.copyObject(CopyObjectRequest.builder()
+                            .copySource(config.bucketName() + "/" + key)
+                            .destinationBucket(config.bucketName())
+                            .destinationKey(targetKey)
                             .build());
+                    progress.completed(key);
+                    if (deletion != null) {
+                        deletion.add(key);
+                    }
+                    copied++;
+                } catch (S3Exception ex) {
+                    failed++;
+                    errors.add(
+                            key,
+                            targetKey,
+                            "Failed: " + (ex.awsErrorDetails() != null ? ex.awsErrorDetails().errorMessage() : ex.getMessage()));
                 }
-                copied++;
-            } catch (S3Exception ex) {
-                errors.add(new BulkOperationResult(
-                        key,
-                        targetKey,
-                        false,
-                        "Failed: " + (ex.awsErrorDetails() != null ? ex.awsErrorDetails().errorMessage() : ex.getMessage())));
             }
+        } catch (RuntimeException ex) {
+            if (deletion != null) {
+                deletion.finish();
+            }
+            throw ex;
         }
 
-        return new FolderOperationResult(sourcePrefix, targetPrefix, keys.size(), copied, skipped, errors);
+        if (deletion != null) {
+            // A source that could not be deleted was copied but not moved, so it counts as failed instead
+            deletion.finish().failures().forEach((key, message) -> errors.add(
+                    key, targetPrefix + key.substring(sourcePrefix.length()), "Copied but failed to delete source: " + message));
+            copied -= (int) deletion.failedCount();
+            failed += deletion.failedCount();
+        }
+        return new FolderOperationResult(sourcePrefix, targetPrefix, listed, copied, skipped, failed, errors.list());
     }
 
+
+    private static List<String> movedPaths(BulkCopyMoveRequest request) {
+        return request.items().stream()
+                .flatMap(item -> Stream.of(item.sourceKey(), item.targetKey()))
+                .toList();
+    }
+
+    private void changed(String bucketId, Collection<String> paths) {
+        if (!paths.isEmpty()) {
+            events.publishEvent(BucketContentChangedEvent.of(bucketId, paths));
+        }
+    }
 }
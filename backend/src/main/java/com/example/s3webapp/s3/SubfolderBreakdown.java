@@ -0,0 +1,127 @@
+package com.example.s3webapp.s3;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+public class SubfolderBreakdown {
+
+    private static final Comparator<SubfolderSize> HEAVIEST_FIRST = Comparator
+            .comparingLong(SubfolderSize::totalSizeBytes)
+            .reversed()
+            .thenComparing(SubfolderSize::prefix);
+
+    private final String rootPrefix;
+    private final int maxDepth;
+    private final int maxNodes;
+    private final int topN;
+    private final Node root = new Node(null, "");
+    private int nodes = 0;
+    private boolean truncated = false;
+
+    public SubfolderBreakdown(String rootPrefix, int maxDepth, int maxNodes, int topN) {
+        this.rootPrefix = rootPrefix;
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.topN = topN;
+    }
+
+    public synchronized void addAll(List<S3Object> objects) {
+        for (S3Object object : objects) {
+            if (!object.key().endsWith("/")) {
+                add(object.key(), object.size());
+            }
+        }
+    }
+
+    // Keys are split on "/" into one node per folder level below the root; a key only counts towards
+    // the folders that contain it. Once maxNodes folders exist new ones are folded into their parent.
+    public synchronized void add(String key, long size) {
+        Node node = root;
+        int start = rootPrefix.length();
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int slash = key.indexOf('/', start);
+            if (slash < 0) {
+                return;
+            }
+            String segment = key.substring(start, slash + 1);
+            Node child = node.children == null ? null : node.children.get(segment);
+            if (child == null) {
+                if (nodes >= maxNodes) {
+                    truncated = true;
+                    return;
+                }
+                child = new Node(node, segment);
+                if (node.children == null) {
+                    node.children = new HashMap<>();
+                }
+                node.children.put(segment, child);
+                nodes++;
+            }
+            child.objects++;
+            child.bytes += size;
+            node = child;
+            start = slash + 1;
+        }
+    }
+
+    public synchronized boolean truncated() {
+        return truncated;
+    }
+
+    public synchronized List<SubfolderSize> heaviest() {
+        PriorityQueue<SubfolderSize> top = new PriorityQueue<>(HEAVIEST_FIRST.reversed());
+        visit(root, 0, entry -> {
+            top.add(entry);
+            if (top.size() > topN) {
+                top.poll();
+            }
+        });
+        List<SubfolderSize> result = new ArrayList<>(top);
+        result.sort(HEAVIEST_FIRST);
+        return result;
+    }
+
+    public synchronized List<SubfolderSize> all() {
+        List<SubfolderSize> result = new ArrayList<>(nodes);
+        visit(root, 0, result::add);
+        result.sort(HEAVIEST_FIRST);
+        return result;
+    }
+
+    private void visit(Node node, int depth, Consumer<SubfolderSize> consumer) {
+        if (node.children == null) {
+            return;
+        }
+        for (Node child : node.children.values()) {
+            consumer.accept(new SubfolderSize(child.prefix(rootPrefix), depth + 1, child.objects, child.bytes));
+            visit(child, depth + 1, consumer);
+        }
+    }
+
+    private static final class Node {
+        private final Node parent;
+        private final String segment;
+        private Map<String, Node> children;
+        private long objects;
+        private long bytes;
+
+        Node(Node parent, String segment) {
+            this.parent = parent;
+            this.segment = segment;
+        }
+
+        String prefix(String rootPrefix) {
+            StringBuilder path = new StringBuilder();
+            for (Node node = this; node.parent != null; node = node.parent) {
+                path.insert(0, node.segment);
+            }
+            return rootPrefix + path;
+        }
+    }
+}
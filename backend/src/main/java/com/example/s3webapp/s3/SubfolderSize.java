@@ -0,0 +1,3 @@
+package com.example.s3webapp.s3;
+
+public record SubfolderSize(String prefix, int depth, long objectCount, long totalSizeBytes) {}
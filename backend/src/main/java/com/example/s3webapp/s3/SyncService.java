@@ -0,0 +1,211 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.accounting.S3CallContext;
+import com.example.s3webapp.config.OperationsProperties;
+import com.example.s3webapp.config.S3Properties.BucketConfig;
+import com.example.s3webapp.config.VirtualThreadProperties;
+import com.example.s3webapp.model.BulkOperationResult;
+import com.example.s3webapp.model.SyncRequest;
+import com.example.s3webapp.model.SyncResult;
+import com.example.s3webapp.util.KeyUtils;
+import com.example.s3webapp.util.Workers;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+@Service
+public class SyncService {
+
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final BucketRegistry bucketRegistry;
+    private final S3ClientFactory s3ClientFactory;
+    private final ObjectTransfer objectTransfer;
+    private final BatchDeleter batchDeleter;
+    private final ApplicationEventPublisher events;
+    private final int concurrency;
+    private final ExecutorService executor;
+
+    public SyncService(
+            BucketRegistry bucketRegistry,
+            S3ClientFactory s3ClientFactory,
+            ObjectTransfer objectTransfer,
+            BatchDeleter batchDeleter,
+            OperationsProperties properties,
+            VirtualThreadProperties virtualThreads,
+            ApplicationEventPublisher events) {
+        this.bucketRegistry = bucketRegistry;
+        this.s3ClientFactory = s3ClientFactory;
+        this.objectTransfer = objectTransfer;
+        this.batchDeleter = batchDeleter;
+        this.events = events;
+        this.concurrency = properties.syncConcurrency();
+        this.executor = Workers.newPool("s3-sync", concurrency, virtualThreads.enabled());
+    }
+
+    public SyncResult sync(String bucketId, SyncRequest request, OperationProgress progress) {
+        BucketConfig source = bucketRegistry.require(bucketId);
+        BucketConfig target = request.targetBucketId() == null || request.targetBucketId().isBlank()
+                ? source
+                : bucketRegistry.require(request.targetBucketId());
+        String sourcePrefix = KeyUtils.normalizePrefix(request.sourcePrefix());
+        String targetPrefix = KeyUtils.normalizePrefix(request.targetPrefix());
+        if (source.sharesEndpointWith(target)
+                && source.bucketName().equals(target.bucketName())
+                && (sourcePrefix.startsWith(targetPrefix) || targetPrefix.startsWith(sourcePrefix))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Source and target prefixes overlap");
+        }
+
+        ObjectListing sources = new ObjectListing(
+                s3ClientFactory.clientFor(source), source.bucketName(), sourcePrefix, LIST_PAGE_SIZE);
+        ObjectListing targets = new ObjectListing(
+                s3ClientFactory.clientFor(target), target.bucketName(), targetPrefix, LIST_PAGE_SIZE);
+        BatchDeletion deletion = request.deleteExtraneous()
+                ? batchDeleter.stream(s3ClientFactory.clientFor(target), target.bucketName(), deleted -> {})
+                : null;
+        Semaphore slots = new Semaphore(concurrency);
+        Tally tally = new Tally();
+
+        try {
+            S3Object sourceObject = nextObject(sources);
+            S3Object targetObject = nextObject(targets);
+            while (sourceObject != null || targetObject != null) {
+                if (progress.cancelRequested()) {
+                    throw new OperationCancelledException("Sync cancelled");
+                }
+                int order = sourceObject == null
+                        ? 1
+                        : targetObject == null
+                                ? -1
+                                : KeyUtils.compareKeys(
+                                        sourceObject.key().substring(sourcePrefix.length()),
+                                        targetObject.key().substring(targetPrefix.length()));
+                if (order > 0) {
+                    if (deletion != null) {
+                        deletion.add(targetObject.key());
+                    }
+                    targetObject = nextObject(targets);
+                    continue;
+                }
+                S3Object current = sourceObject;
+                tally.compared.incrementAndGet();
+                progress.expect(1, current.size());
+                if (order == 0 && unchanged(current, targetObject)) {
+                    tally.unchanged.incrementAndGet();
+                    progress.advance(1, 0);
+                } else {
+                    String targetKey = targetPrefix + current.key().substring(sourcePrefix.length());
+                    slots.acquire();
+                    executor.execute(S3CallContext.wrap(() -> {
+                        try {
+                            copy(source, current, target, targetKey, tally);
+                        } finally {
+                            progress.advance(1, current.size());
+                            slots.release();
+                        }
+                    }));
+                }
+                sourceObject = nextObject(sources);
+                if (order == 0) {
+                    targetObject = nextObject(targets);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OperationCancelledException("Sync interrupted");
+        } finally {
+            slots.acquireUninterruptibly(concurrency);
+            if (deletion != null) {
+                // Streamed, so only the counts and the first failures are kept however many keys are extraneous
+                Map<String, String> failures = deletion.finish().failures();
+                tally.deleted.addAndGet(deletion.deletedCount());
+                failures.forEach((key, message) -> tally.fail(null, key, "Failed to delete: " + message));
+                tally.failed.addAndGet(deletion.failedCount() - failures.size());
+            }
+            events.publishEvent(BucketContentChangedEvent.of(target.id(), List.of(targetPrefix)));
+        }
+
+        return new SyncResult(
+                sourcePrefix,
+                target.id(),
+                targetPrefix,
+                tally.compared.get(),
+                tally.copied.get(),
+                tally.unchanged.get(),
+                tally.deleted.get(),
+                tally.failed.get(),
+                List.copyOf(tally.errors));
+    }
+
+    private void copy(BucketConfig source, S3Object object, BucketConfig target, String targetKey, Tally tally) {
+        try {
+            objectTransfer.transfer(source, object.key(), target, targetKey);
+            tally.copied.incrementAndGet();
+        } catch (RuntimeException ex) {
+            // Runs on a pool thread, so anything not recorded here (an open breaker, a rejected part upload)
+            // would leave the object counted as neither copied nor failed
+            String message = ex instanceof S3Exception s3 && s3.awsErrorDetails() != null
+                    ? s3.awsErrorDetails().errorMessage()
+                    : ex instanceof ResponseStatusException status ? status.getReason() : ex.getMessage();
+            tally.fail(object.key(), targetKey, "Failed: " + message);
+        }
+    }
+
+    private static boolean unchanged(S3Object source, S3Object target) {
+        if (!source.size().equals(target.size())) {
+            return false;
+        }
+        String sourceTag = source.eTag();
+        String targetTag = target.eTag();
+        if (sourceTag == null || targetTag == null || sourceTag.contains("-") || targetTag.contains("-")) {
+            // Multipart ETags depend on the part size used, so fall back to size and age
+            return !target.lastModified().isBefore(source.lastModified());
+        }
+        return sourceTag.equals(targetTag);
+    }
+
+    private static S3Object nextObject(ObjectListing listing) {
+        while (listing.hasNext()) {
+            S3Object object = listing.next();
+            if (!object.key().endsWith("/")) {
+                return object;
+            }
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Tally {
+        private final AtomicLong compared = new AtomicLong();
+        private final AtomicLong copied = new AtomicLong();
+        private final AtomicLong unchanged = new AtomicLong();
+        private final AtomicLong deleted = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<BulkOperationResult> errors = Collections.synchronizedList(new ArrayList<>());
+
+        void fail(String sourceKey, String targetKey, String message) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new BulkOperationResult(sourceKey, targetKey, false, message));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.config.S3Properties.BucketConfig;
+import com.example.s3webapp.model.BulkOperationResult;
+import com.example.s3webapp.model.FolderOperationResult;
+import com.example.s3webapp.model.TransferFolderRequest;
+import com.example.s3webapp.model.TransferItemsRequest;
+import com.example.s3webapp.util.KeyUtils;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+@Service
+public class TransferService {
+
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    private final BucketRegistry bucketRegistry;
+    private final S3ClientFactory s3ClientFactory;
+    private final ObjectTransfer objectTransfer;
+    private final BatchDeleter batchDeleter;
+    private final ApplicationEventPublisher events;
+
+    public TransferService(
+            BucketRegistry bucketRegistry,
+            S3ClientFactory s3ClientFactory,
+            ObjectTransfer objectTransfer,
+            BatchDeleter batchDeleter,
+            ApplicationEventPublisher events) {
+        this.bucketRegistry = bucketRegistry;
+        this.s3ClientFactory = s3ClientFactory;
+        this.objectTransfer = objectTransfer;
+        this.batchDeleter = batchDeleter;
+        this.events = events;
+    }
+
+    public List<BulkOperationResult> transferObjects(
+            String sourceBucketId, TransferItemsRequest request, boolean deleteSource, OperationProgress progress) {
+        try {
+            return copyItems(sourceBucketId, request, deleteSource, progress);
+        } finally {
+            events.publishEvent(BucketContentChangedEvent.of(
+                    request.targetBucketId(), request.items().stream().map(item -> item.targetKey()).toList()));
+            if (deleteSource) {
+                events.publishEvent(BucketContentChangedEvent.of(
+                        sourceBucketId, request.items().stream().map(item -> item.sourceKey()).toList()));
+            }
+        }
+    }
+
+    public FolderOperationResult transferFolder(
+            String sourceBucketId, TransferFolderRequest request, boolean deleteSource, OperationProgress progress) {
+        try {
+            return copyFolder(sourceBucketId, request, deleteSource, progress);
+        } finally {
+            events.publishEvent(BucketContentChangedEvent.of(
+                    request.targetBucketId(), List.of(KeyUtils.normalizePrefix(request.targetPrefix()))));
+            if (deleteSource) {
+                events.publishEvent(BucketContentChangedEvent.of(
+                        sourceBucketId, List.of(KeyUtils.normalizePrefix(request.sourcePrefix()))));
+            }
+        }
+    }
+
+    private List<BulkOperationResult> copyItems(
+            String sourceBucketId, TransferItemsRequest request, boolean deleteSource, OperationProgress progress) {
+        BucketConfig source = bucketRegistry.require(sourceBucketId);
+        BucketConfig target = bucketRegistry.require(request.targetBucketId());
+        BatchDeletion deletion = deleteSource ? openDeletion(source) : null;
+        List<BulkOperationResult> results = new ArrayList<>();
+        progress.expect(request.items().size(), 0);
+        try {
+            for (var item : request.items()) {
+                progress.checkCancelled("Transfer cancelled");
+                progress.advance(1, 0);
+                if (isSameObject(source, item.sourceKey(), target, item.targetKey())) {
+                    results.add(new BulkOperationResult(item.sourceKey(), item.targetKey(), false, "Source and target are the same"));
+                    continue;
+                }
+                if (!request.overwrite() && objectTransfer.exists(target, item.targetKey())) {
+                    results.add(new BulkOperationResult(item.sourceKey(), item.targetKey(), false, "Target exists"));
+                    continue;
+                }
+                try {
+                    objectTransfer.transfer(source, item.sourceKey(), target, item.targetKey());
+                    if (deletion != null) {
+                        deletion.add(item.sourceKey());
+                    }
+                    results.add(new BulkOperationResult(
+                            item.sourceKey(), item.targetKey(), true, deleteSource ? "moved" : "copied"));
+                } catch (SdkException | UncheckedIOException ex) {
+                    results.add(new BulkOperationResult(
+                            item.sourceKey(), item.targetKey(), false, "Transfer failed: " + errorMessage(ex)));
+                }
+            }
+        } catch (RuntimeException ex) {
+            if (deletion != null) {
+                deletion.finish();
+            }
+            throw ex;
+        }
+        if (deletion == null) {
+            return results;
+        }
+        Map<String, String> failures = deletion.finish().failures();
+        return results.stream()
+                .map(result -> result.success() && failures.containsKey(result.sourceKey())
+                        ? new BulkOperationResult(
+                                result.sourceKey(),
+                                result.targetKey(),
+                                false,
+                                "Copied but failed to delete source: " + failures.get(result.sourceKey()))
+                        : result)
+                .toList();
+    }
+
+    private FolderOperationResult copyFolder(
+            String sourceBucketId, TransferFolderRequest request, boolean deleteSource, OperationProgress progress) {
+        BucketConfig source = bucketRegistry.require(sourceBucketId);
+        BucketConfig target = bucketRegistry.require(request.targetBucketId());
+        String sourcePrefix = KeyUtils.normalizePrefix(request.sourcePrefix());
+        String targetPrefix = KeyUtils.normalizePrefix(request.targetPrefix());
+        ObjectListing listing = new ObjectListing(
+                s3ClientFactory.clientFor(source), source.bucketName(), sourcePrefix, LIST_PAGE_SIZE);
+        // A target nested in the source would show up in later listing pages as it is written
+        String written = isSameBucket(source, target) && targetPrefix.startsWith(sourcePrefix) ? targetPrefix : null;
+        // Streamed, so a move of any size keeps only counts and the first failures of the source deletes
+        BatchDeletion deletion = deleteSource
+                ? batchDeleter.stream(s3ClientFactory.clientFor(source), source.bucketName(), deleted -> {})
+                : null;
+        int listed = 0;
+        int copied = 0;
+        int skipped = 0;
+        long failed = 0;
+        ReportedErrors errors = new ReportedErrors();
+
+        try {
+            while (listing.hasNext()) {
+                progress.checkCancelled("Transfer cancelled");
+                S3Object object = listing.next();
+                String key = object.key();
+                if (written != null && key.startsWith(written)) {
+                    continue;
+                }
+                listed++;
+                progress.expect(1, object.size());
+                progress.advance(1, object.size());
+                if (key.endsWith("/")) {
+                    continue;
+                }
+                String targetKey = targetPrefix + key.substring(sourcePrefix.length());
+                if (progress.alreadyCompleted(key)) {
+                    if (deletion != null) {
+                        deletion.add(key);
+                    }
+                    copied++;
+                    continue;
+                }
+                if (isSameObject(source, key, target, targetKey)) {
+                    skipped++;
+                    errors.add(key, targetKey, "Source and target are the same");
+                    continue;
+                }
+                if (!request.overwrite() && objectTransfer.exists(target, targetKey)) {
+                    skipped++;
+                    errors.add(key, targetKey, "Target exists and overwrite=false");
+                    continue;
+                }
+                try {
+                    objectTransfer.transfer(source, key, target, targetKey);
+                    progress.completed(key);
+                    if (deletion != null) {
+                        deletion.add(key);
+                    }
+                    copied++;
+                } catch (SdkException | UncheckedIOException ex) {
+                    failed++;
+                    errors.add(key, targetKey, "Failed: " + errorMessage(ex));
+                }
+            }
+        } catch (RuntimeException ex) {
+            if (deletion != null) {
+                deletion.finish();
+            }
+            throw ex;
+        }
+
+        if (deletion != null) {
+            // A source that could not be deleted was copied but not moved, so it counts as failed instead
+            deletion.finish().failures().forEach((key, message) -> errors.add(
+                    key, targetPrefix + key.substring(sourcePrefix.length()), "Copied but failed to delete source: " + message));
+            copied -= (int) deletion.failedCount();
+            failed += deletion.failedCount();
+        }
+        return new FolderOperationResult(sourcePrefix, targetPrefix, listed, copied, skipped, failed, errors.list());
+    }
+
+    // Item transfers are bounded by the request and report every delete failure against its item
+    private BatchDeletion openDeletion(BucketConfig source) {
+        return batchDeleter.open(s3ClientFactory.clientFor(source), source.bucketName());
+    }
+
+    private boolean isSameObject(BucketConfig source, String sourceKey, BucketConfig target, String targetKey) {
+        return isSameBucket(source, target) && sourceKey.equals(targetKey);
+    }
+
+    private boolean isSameBucket(BucketConfig source, BucketConfig target) {
+        return source.sharesEndpointWith(target) && source.bucketName().equals(target.bucketName());
+    }
+
+    private String errorMessage(Exception ex) {
+        if (ex instanceof S3Exception s3 && s3.awsErrorDetails() != null) {
+            return s3.awsErrorDetails().errorMessage();
+        }
+        return ex.getMessage();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.s3webapp.s3;
+
+import com.example.s3webapp.config.S3Properties.BucketConfig;
+import com.example.s3webapp.model.BulkOperationResult;
+import com.example.s3webapp.model.PurgeVersionsRequest;
+import com.example.s3webapp.model.PurgeVersionsResult;
+import com.example.s3webapp.util.KeyUtils;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteMarkerEntry;
+import software.amazon.awssdk.services.s3.model.ListObjectVersionsRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectVersionsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectVersion;
+
+@Service
+public class VersionPurger {
+
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final Comparator<Entry> LISTING_ORDER = Comparator
+            .<Entry, String>comparing(Entry::key, KeyUtils::compareKeys)
+            .thenComparing(Entry::lastModified, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final BucketRegistry bucketRegistry;
+    private final S3ClientFactory s3ClientFactory;
+    private final BatchDeleter batchDeleter;
+
+    public VersionPurger(BucketRegistry bucketRegistry, S3ClientFactory s3ClientFactory, BatchDeleter batchDeleter) {
+        this.bucketRegistry = bucketRegistry;
+        this.s3ClientFactory = s3ClientFactory;
+        this.batchDeleter = batchDeleter;
+    }
+
+    public PurgeVersionsResult purge(String bucketId, PurgeVersionsRequest request, OperationProgress progress) {
+        BucketConfig config = bucketRegistry.require(bucketId);
+        S3Client client = s3ClientFactory.clientFor(config);
+        String prefix = KeyUtils.normalizePrefix(request.prefix());
+        VersionRetention retention = new VersionRetention(request.keepLatest(), request.olderThan(), Instant.now());
+        BatchDeletion deletion = batchDeleter.stream(client, config.bucketName(), deleted -> progress.advance(deleted, 0));
+        long versions = 0;
+        long markers = 0;
+        long retained = 0;
+        String keyMarker = null;
+        String versionIdMarker = null;
+        try {
+            do {
+                if (progress.cancelRequested()) {
+                    throw new OperationCancelledException("Purge cancelled");
+                }
+                ListObjectVersionsRequest.Builder builder = ListObjectVersionsRequest.builder()
+                        .bucket(config.bucketName())
+                        .prefix(prefix)
+                        .maxKeys(LIST_PAGE_SIZE);
+                if (keyMarker != null) builder.keyMarker(keyMarker);
+                if (versionIdMarker != null) builder.versionIdMarker(versionIdMarker);
+                ListObjectVersionsResponse response = client.listObjectVersions(builder.build());
+
+                List<Entry> page = new ArrayList<>(response.versions().size() + response.deleteMarkers().size());
+                for (ObjectVersion version : response.versions()) {
+                    page.add(new Entry(version.key(), version.versionId(), version.lastModified()));
+                }
+                for (DeleteMarkerEntry marker : response.deleteMarkers()) {
+                    page.add(new Entry(marker.key(), marker.versionId(), marker.lastModified()));
+                }
+                page.sort(LISTING_ORDER);
+                versions += response.versions().size();
+                markers += response.deleteMarkers().size();
+                progress.expect(page.size(), 0);
+
+                for (Entry entry : page) {
+                    if (retention.shouldDelete(entry.key(), entry.lastModified())) {
+                        deletion.add(entry.key(), entry.versionId());
+                    } else {
+                        retained++;
+                        progress.advance(1, 0);
+                    }
+                }
+                boolean truncated = Boolean.TRUE.equals(response.isTruncated());
+                keyMarker = truncated ? response.nextKeyMarker() : null;
+                versionIdMarker = truncated ? response.nextVersionIdMarker() : null;
+            } while (keyMarker != null);
+        } catch (RuntimeException ex) {
+            deletion.finish();
+            throw ex;
+        }
+
+        List<BulkOperationResult> errors = deletion.finish().failures().entrySet().stream()
+                .map(failure -> new BulkOperationResult(failure.getKey(), null, false, failure.getValue()))
+                .toList();
+        return new PurgeVersionsResult(
+                prefix, versions, markers, retained, deletion.deletedCount(), deletion.failedCount(), errors);
+    }
+
+    private record Entry(String key, String versionId, Instant lastModified) {}
+}
@@ -0,0 +1,30 @@
+package com.example.s3webapp.s3;
+
+import java.time.Duration;
+import java.time.Instant;
+
+class VersionRetention {
+
+    private final int keepLatest;
+    private final Instant cutoff;
+    private String currentKey = null;
+    private int position = 0;
+
+    VersionRetention(int keepLatest, Duration olderThan, Instant now) {
+        this.keepLatest = Math.max(0, keepLatest);
+        this.cutoff = olderThan == null ? null : now.minus(olderThan);
+    }
+
+    // Entries must arrive grouped by key, newest first, as ListObjectVersions returns them
+    boolean shouldDelete(String key, Instant lastModified) {
+        if (!key.equals(currentKey)) {
+            currentKey = key;
+            position = 0;
+        }
+        int index = position++;
+        if (index < keepLatest) {
+            return false;
+        }
+        return cutoff == null || (lastModified != null && lastModified.isBefore(cutoff));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.s3webapp.util;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public final class CurrentUser {
+
+    public static final String ANONYMOUS = "anonymous";
+
+    private CurrentUser() {}
+
+    public static String name() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null || authentication.getName().isBlank()) {
+            return ANONYMOUS;
+        }
+        return authentication.getName();
+    }
+}
@@ -27,6 +27,29 @@ public final class KeyUtils {
         return key.substring(idx);
     }
 
+    public static int compareKeys(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    public static boolean matchesQuery(Pattern pattern, String prefix, String key) {
+        String candidate = key;
+        if (!prefix.isBlank() && candidate.startsWith(prefix)) {
+            candidate = candidate.substring(prefix.length());
+        }
+        return pattern.matcher(candidate).matches() || pattern.matcher(extractName(candidate)).matches();
+    }
+
     public static String wildcardToRegex(String wildcard) {
         if (wildcard == null || wildcard.isBlank()) {
             return ".*";
@@ -0,0 +1,17 @@
+package com.example.s3webapp.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class Workers {
+
+    private Workers() {}
+
+    // Virtual threads are cheap enough for one per task, so only the platform pool has a size; callers that
+    // must bound concurrency do it themselves (scheduler slots, semaphores)
+    public static ExecutorService newPool(String name, int platformThreads, boolean virtual) {
+        return virtual
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory())
+                : Executors.newFixedThreadPool(platformThreads, new NamedThreadFactory(name));
+    }
+}
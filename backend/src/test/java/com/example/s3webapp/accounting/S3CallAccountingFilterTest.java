@@ -0,0 +1,76 @@
+package com.example.s3webapp.accounting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.s3webapp.config.S3AccountingProperties;
+import com.example.s3webapp.config.TestProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class S3CallAccountingFilterTest {
+
+    private final S3AccountingProperties properties = TestProperties.s3Accounting();
+    private final S3CallStatistics statistics = new S3CallStatistics(properties);
+    private final S3CallAccountingFilter filter = new S3CallAccountingFilter(properties, statistics);
+
+    @Test
+    void reportsCallsInHeadersAndAggregatesByRoute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/buckets/logs/objects");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            S3CallTally tally = S3CallContext.current();
+            tally.record("ListObjectsV2");
+            S3CallContext.propagating(Runnable::run).execute(() -> {
+                S3CallContext.current().record("HeadObject");
+                S3CallContext.current().record("HeadObject");
+                S3CallContext.current().addBytesReceived(512);
+            });
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/buckets/{bucketId}/objects");
+            res.getWriter().write("{}");
+        });
+
+        assertThat(S3CallContext.current()).isNull();
+        assertThat(response.getHeader(S3CallAccountingFilter.CALLS_HEADER))
+                .isEqualTo("total=3; HeadObject=2; ListObjectsV2=1");
+        assertThat(response.getHeader(S3CallAccountingFilter.BYTES_HEADER)).isEqualTo("sent=0; received=512");
+        S3CallStatistics.Report report = statistics.report();
+        assertThat(report.routes()).singleElement().satisfies(route -> {
+            assertThat(route.route()).isEqualTo("GET /api/buckets/{bucketId}/objects");
+            assertThat(route.maxCalls()).isEqualTo(3);
+        });
+        assertThat(report.worstRequests()).singleElement()
+                .satisfies(worst -> assertThat(worst.path()).isEqualTo("/api/buckets/logs/objects"));
+    }
+
+    @Test
+    void omitsHeadersForStreamedResponsesButStillRecordsCalls() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/buckets/logs/search");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            S3CallAccountingFilter.omitHeaders((HttpServletRequest) req);
+            S3CallContext.current().record("ListObjectsV2");
+            res.getWriter().write("{");
+            res.flushBuffer();
+            S3CallContext.current().record("ListObjectsV2");
+            res.getWriter().write("}");
+        });
+
+        assertThat(response.getHeader(S3CallAccountingFilter.CALLS_HEADER)).isNull();
+        assertThat(statistics.report().worstRequests()).singleElement()
+                .satisfies(worst -> assertThat(worst.calls()).isEqualTo(2));
+    }
+
+    @Test
+    void skipsNonApiRequests() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/index.html"), response, (req, res) ->
+                assertThat(S3CallContext.current()).isNull());
+        assertThat(response.getHeader(S3CallAccountingFilter.CALLS_HEADER)).isNull();
+        assertThat(statistics.report().routes()).isEmpty();
+    }
+}
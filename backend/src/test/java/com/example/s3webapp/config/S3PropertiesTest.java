@@ -2,6 +2,7 @@ package com.example.s3webapp.config;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -17,6 +18,9 @@ import org.springframework.test.context.TestPropertySource;
         "s3.buckets[0].secretKey=secret",
         "s3.buckets[0].region=us-east-1",
         "s3.buckets[0].pathStyleAccess=true",
+        "s3.buckets[0].transport.maxConnections=400",
+        "s3.buckets[0].transport.socketTimeout=2m",
+        "s3.buckets[0].transport.expectContinue=false",
         "security.ldap.embedded.enabled=false",
         "security.ldap.url=ldap://localhost:0",
         "security.ldap.bindDn=cn=placeholder",
@@ -34,5 +38,9 @@ class S3PropertiesTest {
         S3Properties.BucketConfig config = properties.buckets().get(0);
         assertThat(config.id()).isEqualTo("test");
         assertThat(config.pathStyleAccess()).isTrue();
+        assertThat(config.transport().maxConnections()).isEqualTo(400);
+        assertThat(config.transport().socketTimeout()).isEqualTo(Duration.ofMinutes(2));
+        assertThat(config.transport().expectContinue()).isFalse();
+        assertThat(config.transport().connectionTtl()).isEqualTo(Duration.ofMinutes(5));
     }
 }
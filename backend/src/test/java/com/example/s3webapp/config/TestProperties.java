@@ -0,0 +1,47 @@
+package com.example.s3webapp.config;
+
+// Properties as they bind with nothing configured, so each record's compact constructor fills in its defaults
+public final class TestProperties {
+
+    private TestProperties() {}
+
+    public static CircuitBreakerProperties circuitBreaker() {
+        return new CircuitBreakerProperties(null, 0, 0, 0, null, 0);
+    }
+
+    public static ConcurrencyLimitProperties concurrencyLimit() {
+        return new ConcurrencyLimitProperties(null, 0, 0, 0, 0, null, null);
+    }
+
+    public static HedgingProperties hedging() {
+        return new HedgingProperties(null, 0, 0, 0, 0, null);
+    }
+
+    public static JobProperties jobs() {
+        return new JobProperties(0, 0, null, null, null, 0, 0);
+    }
+
+    public static JobStoreProperties jobStore() {
+        return new JobStoreProperties(null, null, null, null, null, null, null);
+    }
+
+    public static OperationsProperties operations() {
+        return new OperationsProperties(0, 0, 0, 0);
+    }
+
+    public static S3AccountingProperties s3Accounting() {
+        return new S3AccountingProperties(null, null, null, 0);
+    }
+
+    public static S3AsyncProperties s3Async() {
+        return new S3AsyncProperties(0, 0, 0);
+    }
+
+    public static SdkMetricsProperties sdkMetrics() {
+        return new SdkMetricsProperties(null, null);
+    }
+
+    public static VirtualThreadProperties virtualThreads() {
+        return new VirtualThreadProperties(false);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.s3webapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class TransferPropertiesTest {
+
+    private final TransferProperties properties = new TransferProperties(DataSize.ofMegabytes(16), 0, 0);
+
+    @Test
+    void keepsConfiguredPartSizeWhileItFitsTheLimit() {
+        assertThat(properties.partSizeFor(DataSize.ofGigabytes(100).toBytes()))
+                .isEqualTo(DataSize.ofMegabytes(16).toBytes());
+    }
+
+    @Test
+    void growsPartSizeSoLargeObjectsStayWithinTenThousandParts() {
+        long size = DataSize.ofGigabytes(200).toBytes() + 1;
+        long partSize = properties.partSizeFor(size);
+
+        assertThat((size + partSize - 1) / partSize).isLessThanOrEqualTo(TransferProperties.MAX_PARTS);
+        assertThat(partSize).isGreaterThan(DataSize.ofMegabytes(16).toBytes());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.s3webapp.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.s3webapp.model.ObjectItem;
+import com.example.s3webapp.model.ObjectListResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ObjectListJsonWriterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void writesTheSameBodyAsTheCollectedResponse() throws Exception {
+        ObjectItem first = new ObjectItem("logs/a.csv", "a.csv", 10, Instant.parse("2025-01-02T03:04:05Z"), "text/csv");
+        ObjectItem second = new ObjectItem("logs/b.csv", "b.csv", 20, Instant.parse("2025-01-03T03:04:05Z"), null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ObjectListJsonWriter writer = new ObjectListJsonWriter(objectMapper, response, "logs/");
+
+        writer.accept(List.of(first));
+        assertThat(response.isCommitted()).isTrue();
+        writer.accept(List.of());
+        writer.accept(List.of(second));
+        writer.finish();
+
+        assertThat(response.getContentType()).startsWith("application/json");
+        assertThat(response.getContentAsString()).isEqualTo(objectMapper.writeValueAsString(
+                new ObjectListResponse("logs/", List.of(), List.of(first, second), null)));
+    }
+
+    @Test
+    void writesAnEmptyListWhenNoPageArrived() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ObjectListJsonWriter writer = new ObjectListJsonWriter(objectMapper, response, "");
+
+        writer.finish();
+
+        assertThat(response.getContentAsString())
+                .isEqualTo("{\"currentPrefix\":\"\",\"folders\":[],\"objects\":[],\"nextPageToken\":null}");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.s3webapp.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.s3webapp.config.WebSocketProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+class AbstractJobWebSocketHandlerTest {
+
+    @Test
+    void slowClientDoesNotBlockPublisherAndReceivesLatestAndTerminalEvents() throws Exception {
+        CountDownLatch clientStalled = new CountDownLatch(1);
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s1");
+        when(session.isOpen()).thenReturn(true);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/api/ws/test/job-1"));
+        when(session.getAttributes()).thenReturn(new HashMap<>());
+        doAnswer(invocation -> {
+            clientStalled.await(5, TimeUnit.SECONDS);
+            delivered.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(session).sendMessage(any());
+
+        TestHandler handler = new TestHandler();
+        try {
+            handler.afterConnectionEstablished(session);
+            long started = System.nanoTime();
+            for (int i = 1; i <= 1000; i++) {
+                handler.listener.accept("progress-" + i);
+            }
+            handler.listener.accept("done");
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+
+            clientStalled.countDown();
+            verify(session, timeout(5000)).close(CloseStatus.NORMAL);
+            assertThat(delivered).hasSizeLessThanOrEqualTo(2).last().isEqualTo("\"done\"");
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    void dropsSessionWhoseSendStaysBlocked() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s2");
+        when(session.isOpen()).thenReturn(true);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/api/ws/test/job-2"));
+        when(session.getAttributes()).thenReturn(new HashMap<>());
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(session).sendMessage(any());
+
+        TestHandler handler = new TestHandler(Duration.ofMillis(100));
+        try {
+            handler.afterConnectionEstablished(session);
+            handler.listener.accept("progress-1");
+            verify(session, timeout(1000)).sendMessage(any());
+            Thread.sleep(200);
+            handler.listener.accept("progress-2");
+
+            verify(session, timeout(1000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+            assertThat(handler.detached).isTrue();
+        } finally {
+            release.countDown();
+            handler.shutdown();
+        }
+    }
+
+    private static final class TestHandler extends AbstractJobWebSocketHandler<String> {
+        private volatile Consumer<String> listener;
+        private volatile boolean detached;
+
+        TestHandler() {
+            this(null);
+        }
+
+        TestHandler(Duration sendTimeLimit) {
+            super("test", new ObjectMapper(), new WebSocketProperties(Duration.ofMillis(50), sendTimeLimit, 0));
+        }
+
+        @Override
+        protected void attach(String jobId, String listenerId, Consumer<String> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        protected void detach(String jobId, String listenerId) {
+            detached = true;
+        }
+
+        @Override
+        protected void cancel(String jobId, String requester) {}
+
+        @Override
+        protected boolean isTerminal(String event) {
+            return "done".equals(event);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.s3webapp.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.s3webapp.config.JobProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JobJournalTest {
+
+    @Test
+    void skipsTornLastRecordAndAppendsOnAFreshLine(@TempDir Path directory) throws Exception {
+        JobProperties properties = new JobProperties(
+                0, 0, null, null, new JobProperties.Journal(directory.toString(), 0, null), 0, 0);
+        JobJournal journal = new JobJournal(properties, new ObjectMapper());
+        Files.writeString(directory.resolve("torn.journal"), "P {}\nD a.txt\nD b%2");
+
+        assertThat(journal.completedKeys("torn")).containsExactly("a.txt");
+
+        try (JobJournal.Writer writer = journal.reopen("torn")) {
+            writer.completed("c.txt");
+        }
+        assertThat(journal.completedKeys("torn")).containsExactlyInAnyOrder("a.txt", "c.txt");
+    }
+
+    @Test
+    void ignoresRecordTornOnAPlainCharacterAndTruncatesIt(@TempDir Path directory) throws Exception {
+        JobProperties properties = new JobProperties(
+                0, 0, null, null, new JobProperties.Journal(directory.toString(), 0, null), 0, 0);
+        JobJournal journal = new JobJournal(properties, new ObjectMapper());
+        // "D a%2Fbc" cut short still decodes, to the wrong key "a/b"
+        Files.writeString(directory.resolve("torn.journal"), "P {}\nD a.txt\nD a%2Fb");
+
+        assertThat(journal.completedKeys("torn")).containsExactly("a.txt");
+        assertThat(journal.recover()).singleElement().satisfies(recovered -> assertThat(recovered.completedObjects())
+                .isEqualTo(1));
+
+        try (JobJournal.Writer writer = journal.reopen("torn")) {
+            writer.completed("c.txt");
+        }
+        assertThat(Files.readString(directory.resolve("torn.journal"))).isEqualTo("P {}\nD a.txt\nD c.txt\n");
+        assertThat(journal.completedKeys("torn")).containsExactlyInAnyOrder("a.txt", "c.txt");
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.s3webapp.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class JobSchedulerTest {
+
+    @Test
+    void runsInteractiveFirstThenRoundRobinAcrossUsers() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JobScheduler scheduler = JobScheduler.create("test", 1, 100, 0, 0, false, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        try {
+            scheduler.submit("blocker", JobPriority.BATCH, () -> await(release));
+            scheduler.submit("alice", JobPriority.BATCH, () -> order.add("alice-1"));
+            scheduler.submit("alice", JobPriority.BATCH, () -> order.add("alice-2"));
+            scheduler.submit("alice", JobPriority.BATCH, () -> order.add("alice-3"));
+            scheduler.submit("bob", JobPriority.BATCH, () -> order.add("bob-1"));
+            Future<?> last = scheduler.submit("carol", JobPriority.INTERACTIVE, () -> order.add("carol-1"));
+            assertThat(registry.get("jobs.queue.depth").tag("priority", "batch").gauge().value()).isEqualTo(4);
+
+            release.countDown();
+            last.get(5, TimeUnit.SECONDS);
+            awaitSize(order, 5);
+
+            assertThat(order).containsExactly("carol-1", "alice-1", "bob-1", "alice-2", "alice-3");
+            assertThat(registry.get("jobs.queue.wait").tag("priority", "batch").timer().count()).isEqualTo(5);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsWorkBeyondQueueLimitsAndFreesSlotsOnCancel() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JobScheduler scheduler = JobScheduler.create("test", 1, 2, 1, 0, true, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            scheduler.submit("alice", JobPriority.BATCH, () -> await(release));
+            Future<?> queued = scheduler.submit("alice", JobPriority.BATCH, () -> {});
+            assertThatThrownBy(() -> scheduler.submit("alice", JobPriority.BATCH, () -> {}))
+                    .isInstanceOf(RejectedExecutionException.class);
+            scheduler.submit("bob", JobPriority.BATCH, () -> {});
+            assertThatThrownBy(() -> scheduler.submit("carol", JobPriority.BATCH, () -> {}))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            queued.cancel(true);
+            scheduler.submit("carol", JobPriority.BATCH, () -> {});
+            assertThat(registry.get("jobs.rejected").counter().count()).isEqualTo(2);
+        } finally {
+            release.countDown();
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitSize(List<String> list, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (list.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
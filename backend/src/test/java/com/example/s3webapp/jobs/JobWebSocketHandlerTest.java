@@ -0,0 +1,55 @@
+package com.example.s3webapp.jobs;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.s3webapp.config.WebSocketProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+class JobWebSocketHandlerTest {
+
+    private final JobService jobService = mock(JobService.class);
+    private final JobWebSocketHandler handler = new JobWebSocketHandler(
+            jobService, new ObjectMapper(), new WebSocketProperties(Duration.ofMillis(50), null, 0));
+
+    @AfterEach
+    void shutdown() {
+        handler.shutdown();
+    }
+
+    @Test
+    void readOnlyUserCannotCancelThroughTheSocket() {
+        handler.handleTextMessage(session("alice", "ROLE_READ_ONLY"), new TextMessage("cancel"));
+
+        verify(jobService, never()).cancel("job-1");
+    }
+
+    @Test
+    void readWriteUserCancelsThroughTheSocket() {
+        handler.handleTextMessage(session("bob", "ROLE_READ_WRITE"), new TextMessage("cancel"));
+
+        verify(jobService).cancel("job-1");
+    }
+
+    private static WebSocketSession session(String user, String role) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("jobId", "job-1");
+        when(session.getAttributes()).thenReturn(attributes);
+        when(session.getPrincipal()).thenReturn(
+                new UsernamePasswordAuthenticationToken(user, null, List.of(new SimpleGrantedAuthority(role))));
+        return session;
+    }
+}
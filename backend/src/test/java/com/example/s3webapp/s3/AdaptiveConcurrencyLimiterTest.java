@@ -0,0 +1,69 @@
+package com.example.s3webapp.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.s3webapp.config.ConcurrencyLimitProperties;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final ConcurrencyLimitProperties properties =
+            new ConcurrencyLimitProperties(true, 4, 1, 8, 0.5, Duration.ofMinutes(1), Duration.ofMillis(50));
+
+    @Test
+    void growsAdditivelyWhileSaturatedAndHealthy() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        for (int round = 0; round < 40; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int i = 0; i < limiter.limit(); i++) {
+                permits.add(limiter.acquire());
+            }
+            permits.forEach(p -> p.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS));
+        }
+        assertThat(limiter.limit()).isEqualTo(8);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void cutsOncePerBurstOfThrottlingAndBlocksAtLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            permits.add(limiter.acquire());
+        }
+        assertThat(limiter.acquire()).isNull();
+
+        permits.forEach(p -> p.release(AdaptiveConcurrencyLimiter.Outcome.OVERLOADED));
+        assertThat(limiter.limit()).isEqualTo(2);
+        assertThat(limiter.throttledCount()).isEqualTo(1);
+
+        limiter.acquire().release(AdaptiveConcurrencyLimiter.Outcome.OVERLOADED);
+        assertThat(limiter.limit()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncWaitersAreGrantedOnReleaseAndTimeOut() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            permits.add(limiter.acquireAsync().join());
+        }
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting = limiter.acquireAsync();
+        assertThat(waiting).isNotDone();
+
+        permits.get(0).release(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        assertThat(waiting).isCompleted();
+        assertThat(limiter.inFlight()).isEqualTo(4);
+
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> timedOut = limiter.acquireAsync();
+        assertThatThrownBy(timedOut::join).hasCauseInstanceOf(TimeoutException.class);
+        permits.get(1).release(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        assertThat(limiter.inFlight()).isEqualTo(3);
+    }
+}
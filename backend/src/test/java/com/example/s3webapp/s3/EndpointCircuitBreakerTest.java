@@ -0,0 +1,76 @@
+package com.example.s3webapp.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.s3webapp.config.CircuitBreakerProperties;
+import com.example.s3webapp.s3.EndpointCircuitBreaker.Outcome;
+import com.example.s3webapp.s3.EndpointCircuitBreaker.State;
+import java.io.IOException;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+class EndpointCircuitBreakerTest {
+
+    private final EndpointCircuitBreaker breaker = new EndpointCircuitBreaker(
+            new CircuitBreakerProperties(true, 4, 4, 50, Duration.ofMillis(100), 2), "http://store");
+
+    @Test
+    void opensOnFailureRateAndFailsFastWith503() {
+        record(Outcome.SUCCESS, Outcome.FAILURE, Outcome.SUCCESS);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        record(Outcome.FAILURE);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThatThrownBy(breaker::acquire)
+                .isInstanceOfSatisfying(EndpointUnavailableException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                .hasMessageContaining("http://store");
+    }
+
+    @Test
+    void halfOpenProbesCloseOrReopenTheCircuit() throws Exception {
+        record(Outcome.FAILURE, Outcome.FAILURE, Outcome.FAILURE, Outcome.FAILURE);
+        Thread.sleep(150);
+
+        breaker.acquire();
+        breaker.acquire();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThatThrownBy(breaker::acquire).isInstanceOf(EndpointUnavailableException.class);
+        breaker.record(Outcome.FAILURE);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+
+        Thread.sleep(150);
+        breaker.acquire();
+        breaker.record(Outcome.SUCCESS);
+        breaker.acquire();
+        breaker.record(Outcome.SUCCESS);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.openedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void onlyOutagesCountAsFailures() {
+        assertThat(EndpointCircuitBreaker.classify(
+                        SdkClientException.create("connect", new IOException("Connection refused"))))
+                .isEqualTo(Outcome.FAILURE);
+        assertThat(EndpointCircuitBreaker.classify(S3Exception.builder().statusCode(502).build()))
+                .isEqualTo(Outcome.FAILURE);
+        assertThat(EndpointCircuitBreaker.classify(S3Exception.builder().statusCode(404).build()))
+                .isEqualTo(Outcome.SUCCESS);
+        assertThat(EndpointCircuitBreaker.classify(S3Exception.builder().statusCode(503).build()))
+                .isEqualTo(Outcome.IGNORED);
+        assertThat(EndpointCircuitBreaker.classify(SdkClientException.create("slot timeout")))
+                .isEqualTo(Outcome.IGNORED);
+    }
+
+    private void record(Outcome... outcomes) {
+        for (Outcome outcome : outcomes) {
+            breaker.acquire();
+            breaker.record(outcome);
+        }
+    }
+}
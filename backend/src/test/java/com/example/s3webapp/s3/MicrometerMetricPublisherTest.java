@@ -0,0 +1,55 @@
+package com.example.s3webapp.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+class MicrometerMetricPublisherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerMetricPublisher publisher =
+            new MicrometerMetricPublisher(meterRegistry, "logs", "sync", false);
+
+    @Test
+    void recordsCallAttemptsErrorsAndPoolStatsPerBucketAndOperation() {
+        MetricCollector call = MetricCollector.create("ApiCall");
+        call.reportMetric(CoreMetric.OPERATION_NAME, "ListObjectsV2");
+        call.reportMetric(CoreMetric.API_CALL_SUCCESSFUL, true);
+        call.reportMetric(CoreMetric.API_CALL_DURATION, Duration.ofMillis(300));
+        call.reportMetric(CoreMetric.RETRY_COUNT, 1);
+        MetricCollector throttled = call.createChild("ApiCallAttempt");
+        throttled.reportMetric(HttpMetric.HTTP_STATUS_CODE, 503);
+        throttled.reportMetric(CoreMetric.SERVICE_CALL_DURATION, Duration.ofMillis(200));
+        throttled.reportMetric(CoreMetric.ERROR_TYPE, "Throttling");
+        MetricCollector ok = call.createChild("ApiCallAttempt");
+        ok.reportMetric(HttpMetric.HTTP_STATUS_CODE, 200);
+        ok.reportMetric(CoreMetric.SERVICE_CALL_DURATION, Duration.ofMillis(20));
+        MetricCollector pool = ok.createChild("HttpClient");
+        pool.reportMetric(HttpMetric.LEASED_CONCURRENCY, 7);
+        pool.reportMetric(HttpMetric.PENDING_CONCURRENCY_ACQUIRES, 2);
+        pool.reportMetric(HttpMetric.MAX_CONCURRENCY, 200);
+        pool.reportMetric(HttpMetric.CONCURRENCY_ACQUIRE_DURATION, Duration.ofMillis(5));
+
+        publisher.publish(call.collect());
+
+        assertThat(meterRegistry.get("s3.sdk.api.call")
+                        .tags("bucket", "logs", "client", "sync", "operation", "ListObjectsV2", "outcome", "success")
+                        .timer()
+                        .totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(300);
+        assertThat(meterRegistry.get("s3.sdk.retries").tags("operation", "ListObjectsV2").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("s3.sdk.attempt").tags("status", "503").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("s3.sdk.attempt").tags("status", "200").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("s3.sdk.errors").tags("type", "Throttling").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("s3.sdk.pool.leased").tags("bucket", "logs").gauge().value()).isEqualTo(7);
+        assertThat(meterRegistry.get("s3.sdk.pool.pending").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("s3.sdk.pool.acquire").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.s3webapp.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.ObjectStorageClass;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+class ObjectStatisticsTest {
+
+    private final Instant now = Instant.parse("2025-06-01T00:00:00Z");
+
+    @Test
+    void fillsLogScaleHistogramsAndBreakdowns() {
+        ObjectStatistics statistics = new ObjectStatistics(now);
+        statistics.addAll(List.of(
+                object("logs/a.LOG", 0, Duration.ofHours(1), ObjectStorageClass.STANDARD),
+                object("logs/b.log", 3, Duration.ofDays(3), ObjectStorageClass.STANDARD),
+                object("logs/", 0, Duration.ZERO, null),
+                object("archive.d/blob", 1024, Duration.ofDays(400), ObjectStorageClass.GLACIER),
+                object("c.gz", 2, Duration.ofDays(2), null)));
+
+        FolderStatistics snapshot = statistics.snapshot();
+
+        assertThat(snapshot.sizeBytes())
+                .extracting("lowerBound", "upperBound", "objectCount")
+                .containsExactly(tuple(0L, 1L, 1L), tuple(2L, 4L, 2L), tuple(1024L, 2048L, 1L));
+        assertThat(snapshot.ageDays())
+                .extracting("lowerBound", "objectCount")
+                .containsExactly(tuple(0L, 1L), tuple(2L, 2L), tuple(256L, 1L));
+        assertThat(snapshot.storageClasses())
+                .extracting("name", "objectCount", "totalSizeBytes")
+                .containsExactly(tuple("GLACIER", 1L, 1024L), tuple("STANDARD", 2L, 3L), tuple("UNREPORTED", 1L, 2L));
+        assertThat(snapshot.extensions())
+                .extracting("name", "objectCount")
+                .containsExactly(tuple("", 1L), tuple("log", 2L), tuple("gz", 1L));
+        assertThat(snapshot.extensionsTruncated()).isFalse();
+    }
+
+    private S3Object object(String key, long size, Duration age, ObjectStorageClass storageClass) {
+        return S3Object.builder()
+                .key(key)
+                .size(size)
+                .lastModified(now.minus(age))
+                .storageClass(storageClass)
+                .build();
+    }
+}
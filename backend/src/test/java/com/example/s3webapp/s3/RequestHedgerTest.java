@@ -0,0 +1,107 @@
+package com.example.s3webapp.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.s3webapp.config.HedgingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+class RequestHedgerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestHedger hedger = new RequestHedger(
+            new HedgingProperties(true, 90, 20, 10, 25, Duration.ofMillis(20)), Runnable::run, "test", meterRegistry);
+
+    @Test
+    void slowAttemptIsRacedByAHedgeAfterWarmUp() throws Exception {
+        CompletableFuture<String> cold = hedger.call("HeadObject", CompletableFuture::new);
+        assertThatThrownBy(() -> cold.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        cold.complete("late");
+        warmUp("HeadObject");
+        assertThat(hedger.latencyThresholdMillis("HeadObject")).isGreaterThanOrEqualTo(0);
+
+        List<CompletableFuture<String>> attempts = new ArrayList<>();
+        CompletableFuture<String> result = hedger.call("HeadObject", () -> {
+            CompletableFuture<String> attempt = attempts.isEmpty()
+                    ? new CompletableFuture<>()
+                    : CompletableFuture.completedFuture("hedge");
+            attempts.add(attempt);
+            return attempt;
+        });
+
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("hedge");
+        assertThat(attempts).hasSize(2);
+        assertThat(attempts.get(0)).isCancelled();
+        assertThat(meterRegistry.get("s3.client.hedge.won").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void hedgesStopWhenTheBudgetIsSpent() throws Exception {
+        warmUp("HeadObject");
+        int answered = 0;
+        for (int i = 0; i < 8; i++) {
+            CompletableFuture<String> result = hedger.call("HeadObject", new SlowThenFast());
+            try {
+                result.get(200, TimeUnit.MILLISECONDS);
+                answered++;
+            } catch (TimeoutException ignored) {
+                result.cancel(true);
+            }
+        }
+        // 25% budget: 2.5 hedges earned while warming up plus 0.25 per call
+        assertThat(answered).isEqualTo(4);
+        assertThat(meterRegistry.get("s3.client.hedge.sent").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void failsOnlyWhenEveryAttemptFailed() throws Exception {
+        warmUp("ListObjectsV2");
+        List<CompletableFuture<String>> attempts = new CopyOnWriteArrayList<>();
+        CompletableFuture<String> result = hedger.call("ListObjectsV2", () -> {
+            CompletableFuture<String> attempt = new CompletableFuture<>();
+            attempts.add(attempt);
+            return attempt;
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (attempts.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(attempts).hasSize(2);
+        attempts.get(1).completeExceptionally(new IllegalStateException("hedge"));
+        assertThat(result).isNotDone();
+        attempts.get(0).complete("primary");
+        assertThat(result.join()).isEqualTo("primary");
+
+        CompletableFuture<String> unhedged = hedger.call("ListObjectsV2",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("only")));
+        assertThatThrownBy(unhedged::join).hasRootCauseMessage("only");
+    }
+
+    private void warmUp(String operation) {
+        for (int i = 0; i < 10; i++) {
+            hedger.call(operation, () -> CompletableFuture.completedFuture("fast")).join();
+        }
+    }
+
+    private static final class SlowThenFast implements java.util.function.Supplier<CompletableFuture<String>> {
+
+        private boolean first = true;
+
+        @Override
+        public CompletableFuture<String> get() {
+            if (first) {
+                first = false;
+                return new CompletableFuture<>();
+            }
+            return CompletableFuture.completedFuture("hedge");
+        }
+    }
+}
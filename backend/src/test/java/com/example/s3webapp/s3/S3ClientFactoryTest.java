@@ -0,0 +1,98 @@
+package com.example.s3webapp.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.s3webapp.config.CircuitBreakerProperties;
+import com.example.s3webapp.config.S3Properties;
+import com.example.s3webapp.config.S3Properties.BucketConfig;
+import com.example.s3webapp.config.S3Properties.TransportProfile;
+import com.example.s3webapp.config.TestProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.S3Client;
+
+class S3ClientFactoryTest {
+
+    private final S3ClientFactory factory = new S3ClientFactory(
+            TestProperties.concurrencyLimit(),
+            TestProperties.circuitBreaker(),
+            TestProperties.s3Async(),
+            TestProperties.hedging(),
+            TestProperties.sdkMetrics(),
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        factory.shutdown();
+    }
+
+    @Test
+    void sharesHttpPoolsBetweenBucketsOnTheSameEndpointAndProfile() {
+        BucketConfig logs = bucket("logs", "http://localhost:9070", "minio", TransportProfile.defaults());
+        BucketConfig backups = bucket("backups", "http://localhost:9070", "minio", null);
+        BucketConfig otherUser = bucket("other", "http://localhost:9070", "someone-else", null);
+        BucketConfig tuned = bucket("tuned", "http://localhost:9070", "minio", new TransportProfile(
+                500, Duration.ofMinutes(1), null, false, null, Duration.ofMinutes(2), null, null, false));
+
+        assertThat(factory.httpClientFor(backups)).isSameAs(factory.httpClientFor(logs));
+        assertThat(factory.asyncHttpClientFor(backups)).isSameAs(factory.asyncHttpClientFor(logs));
+        assertThat(factory.httpClientFor(otherUser)).isNotSameAs(factory.httpClientFor(logs));
+        assertThat(factory.httpClientFor(tuned)).isNotSameAs(factory.httpClientFor(logs));
+        assertThat(factory.clientFor(backups)).isNotSameAs(factory.clientFor(logs));
+    }
+
+    @Test
+    void transportProfileFallsBackToDefaults() {
+        TransportProfile profile = new TransportProfile(0, Duration.ZERO, null, null, null, null, null, null, null);
+
+        assertThat(profile).isEqualTo(TransportProfile.defaults());
+        assertThat(profile.maxConnections()).isEqualTo(200);
+        assertThat(profile.connectionTtl()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(profile.tcpKeepAlive()).isTrue();
+    }
+
+    @Test
+    void openCircuitFailsFastAndShowsInHealth() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        S3ClientFactory breaking = new S3ClientFactory(
+                TestProperties.concurrencyLimit(),
+                new CircuitBreakerProperties(true, 4, 2, 50, Duration.ofMinutes(1), 1),
+                TestProperties.s3Async(),
+                TestProperties.hedging(),
+                TestProperties.sdkMetrics(),
+                meterRegistry);
+        BucketConfig down = bucket("down", "http://127.0.0.1:1", "minio", null);
+        S3EndpointHealthIndicator health =
+                new S3EndpointHealthIndicator(new BucketRegistry(new S3Properties(List.of(down))), breaking);
+        try {
+            assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+            S3Client client = breaking.clientFor(down);
+            for (int i = 0; i < 2; i++) {
+                assertThatThrownBy(() -> client.headBucket(b -> b.bucket("down")))
+                        .isInstanceOf(SdkClientException.class);
+            }
+
+            assertThatThrownBy(() -> client.headBucket(b -> b.bucket("down")))
+                    .isInstanceOf(EndpointUnavailableException.class);
+            assertThat(health.health().getStatus()).isEqualTo(S3EndpointHealthIndicator.DEGRADED);
+            assertThat(health.health().getDetails()).containsKey("http://127.0.0.1:1");
+            assertThat(meterRegistry.get("s3.sdk.errors").tags("bucket", "down", "type", "IO").counter().count())
+                    .isGreaterThanOrEqualTo(2);
+            assertThat(meterRegistry.get("s3.sdk.api.call").tags("operation", "HeadBucket", "outcome", "failure")
+                            .timer().count())
+                    .isEqualTo(2);
+        } finally {
+            breaking.shutdown();
+        }
+    }
+
+    private static BucketConfig bucket(String id, String endpoint, String accessKey, TransportProfile transport) {
+        return new BucketConfig(id, id, id, endpoint, accessKey, "secret", "us-east-1", true, transport);
+    }
+}
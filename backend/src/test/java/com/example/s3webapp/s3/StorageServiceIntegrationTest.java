@@ -1,32 +1,92 @@
 package com.example.s3webapp.s3;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
+import com.example.s3webapp.accounting.S3CallContext;
+import com.example.s3webapp.accounting.S3CallTally;
 import com.example.s3webapp.config.FolderSizeProperties;
+import com.example.s3webapp.config.InventoryProperties;
+import com.example.s3webapp.config.JobProperties;
+import com.example.s3webapp.config.JobStoreProperties;
+import com.example.s3webapp.config.OperationsProperties;
 import com.example.s3webapp.config.S3Properties;
+import com.example.s3webapp.config.TestProperties;
+import com.example.s3webapp.config.TransferProperties;
+import com.example.s3webapp.config.VirtualThreadProperties;
 import com.example.s3webapp.foldersize.FolderSizeEvent;
 import com.example.s3webapp.foldersize.FolderSizeJobLaunchResponse;
 import com.example.s3webapp.foldersize.FolderSizeJobService;
+import com.example.s3webapp.foldersize.FolderSizeJobView;
 import com.example.s3webapp.foldersize.FolderSizeStatus;
+import com.example.s3webapp.foldersize.StoredJob;
+import com.example.s3webapp.jobs.JobEvent;
+import com.example.s3webapp.jobs.JobJournal;
+import com.example.s3webapp.jobs.JobLaunchResponse;
+import com.example.s3webapp.jobs.JobPlan;
+import com.example.s3webapp.jobs.JobPriority;
+import com.example.s3webapp.jobs.JobService;
+import com.example.s3webapp.jobs.JobStatus;
+import com.example.s3webapp.jobs.JobType;
+import com.example.s3webapp.jobs.JobView;
+import com.example.s3webapp.jobs.OperationJobService;
+import com.example.s3webapp.jobs.StoredOperationJob;
+import com.example.s3webapp.jobs.store.FileJobStore;
+import com.example.s3webapp.jobs.store.JobStore;
+import com.example.s3webapp.jobs.store.MemoryJobStore;
+import com.example.s3webapp.model.FolderOperationResult;
 import com.example.s3webapp.model.BulkCopyMoveItem;
 import com.example.s3webapp.model.BulkCopyMoveRequest;
 import com.example.s3webapp.model.CopyMoveRequest;
+import com.example.s3webapp.model.DeleteFolderRequest;
+import com.example.s3webapp.model.DeleteFolderResult;
 import com.example.s3webapp.model.DeleteObjectsRequest;
+import com.example.s3webapp.model.DeleteObjectsResult;
 import com.example.s3webapp.model.FolderCopyRequest;
 import com.example.s3webapp.model.FolderSizeResponse;
+import com.example.s3webapp.model.InventoryFolderSize;
+import com.example.s3webapp.model.InventorySearchResponse;
+import com.example.s3webapp.model.ObjectItem;
 import com.example.s3webapp.model.ObjectListResponse;
+import com.example.s3webapp.model.OperationPlan;
+import com.example.s3webapp.model.OperationPlanRequest;
+import com.example.s3webapp.model.SyncRequest;
+import com.example.s3webapp.model.SyncResult;
+import com.example.s3webapp.model.TransferFolderRequest;
+import com.example.s3webapp.model.TransferItemsRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.findify.s3mock.S3Mock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 class StorageServiceIntegrationTest {
@@ -36,9 +96,20 @@ class StorageServiceIntegrationTest {
     private StorageService storageService;
     private S3Client client;
     private S3Properties.BucketConfig config;
+    private S3Properties.BucketConfig archive;
+    private S3Properties.BucketConfig mirror;
+    private TransferService transferService;
+    private OperationPlanner operationPlanner;
+    private SyncService syncService;
+    private VersionPurger versionPurger;
     private FolderSizeCalculator folderSizeCalculator;
     private FolderSizeJobService folderSizeJobService;
     private FolderSizeProperties folderSizeProperties;
+    private OperationJobService operationJobService;
+    private JobService jobService;
+    private InventoryService inventoryService;
+    private S3ClientFactory factory;
+    private AsyncStorageService asyncStorageService;
 
     @BeforeAll
     static void startServer() {
@@ -61,19 +132,98 @@ class StorageServiceIntegrationTest {
                 "secret",
                 "us-east-1",
                 true);
-        S3Properties properties = new S3Properties(List.of(config));
+        archive = new S3Properties.BucketConfig(
+                "archive",
+                "Archive Bucket",
+                "archive-bucket",
+                "http://127.0.0.1:9095",
+                "access",
+                "secret",
+                "us-east-1",
+                true);
+        mirror = new S3Properties.BucketConfig(
+                "mirror",
+                "Mirror Bucket",
+                "mirror-bucket",
+                "http://localhost:9095",
+                "access",
+                "secret",
+                "us-east-1",
+                true);
+        S3Properties properties = new S3Properties(List.of(config, archive, mirror));
         BucketRegistry registry = new BucketRegistry(properties);
-        S3ClientFactory factory = new S3ClientFactory();
+        factory = new S3ClientFactory(
+                TestProperties.concurrencyLimit(),
+                TestProperties.circuitBreaker(),
+                TestProperties.s3Async(),
+                TestProperties.hedging(),
+                TestProperties.sdkMetrics(),
+                new SimpleMeterRegistry());
+        BatchDeleter batchDeleter = new BatchDeleter(TestProperties.operations(), TestProperties.virtualThreads());
         folderSizeCalculator = new FolderSizeCalculator(registry, factory);
-        folderSizeProperties = new FolderSizeProperties(2, 1, 0, Duration.ZERO, Duration.ofMinutes(5), false);
-        folderSizeJobService = new FolderSizeJobService(folderSizeCalculator, folderSizeProperties);
-        storageService = new StorageService(registry, factory, folderSizeCalculator);
+        folderSizeProperties = new FolderSizeProperties(
+                2, 1, 0, Duration.ZERO, Duration.ofMinutes(5), false, 0, 0, Duration.ofMinutes(5), null, 0, 0, 0);
+        folderSizeJobService = new FolderSizeJobService(
+                folderSizeCalculator,
+                folderSizeProperties,
+                new SimpleMeterRegistry(),
+                new MemoryJobStore<>(),
+                TestProperties.jobStore(),
+                TestProperties.virtualThreads());
+        ApplicationEventPublisher events = event -> {
+            if (event instanceof BucketContentChangedEvent changed) {
+                folderSizeJobService.onBucketContentChanged(changed);
+            }
+        };
+        asyncStorageService = new AsyncStorageService(registry, factory, folderSizeCalculator);
+        storageService = new StorageService(
+                registry, factory, folderSizeCalculator, batchDeleter, events, asyncStorageService);
+        // s3mock's in-memory multipart store is not thread-safe, so upload one part at a time here
+        transferService = new TransferService(
+                registry,
+                factory,
+                new ObjectTransfer(factory, new TransferProperties(DataSize.ofMegabytes(5), 1, 1)),
+                batchDeleter,
+                events);
+        syncService = new SyncService(
+                registry,
+                factory,
+                new ObjectTransfer(factory, new TransferProperties(DataSize.ofMegabytes(5), 1, 1)),
+                batchDeleter,
+                TestProperties.operations(),
+                TestProperties.virtualThreads(),
+                events);
+        operationPlanner = new OperationPlanner(
+                registry, factory, TestProperties.operations(), new TransferProperties(DataSize.ofMegabytes(5), 1, 1));
+        jobService = new JobService(
+                TestProperties.jobs(),
+                new JobJournal(TestProperties.jobs(), new ObjectMapper()),
+                new MemoryJobStore<>(),
+                TestProperties.jobStore(),
+                TestProperties.virtualThreads(),
+                new SimpleMeterRegistry());
+        versionPurger = new VersionPurger(registry, factory, batchDeleter);
+        operationJobService = new OperationJobService(
+                jobService, storageService, transferService, syncService, versionPurger, registry, new ObjectMapper());
+        inventoryService = new InventoryService(
+                registry,
+                factory,
+                new InventoryProperties(
+                        List.of(new InventoryProperties.Source("mirror", "test", "inventory/mirror-bucket/daily/")), 2, 2, 0),
+                new ObjectMapper());
         client = factory.clientFor(config);
         client.createBucket(CreateBucketRequest.builder().bucket(config.bucketName()).build());
+        client.createBucket(CreateBucketRequest.builder().bucket(archive.bucketName()).build());
+        client.createBucket(CreateBucketRequest.builder().bucket(mirror.bucketName()).build());
 
         seed();
     }
 
+    @AfterEach
+    void tearDown() {
+        factory.shutdown();
+    }
+
     private void seed() {
         put("logs/app/2025/01/01/a.txt", "hello");
         put("logs/app/2025/01/02/b.log", "data");
@@ -96,10 +246,48 @@ class StorageServiceIntegrationTest {
         assertThat(response.folders()).extracting("name").contains("01");
     }
 
+    @Test
+    void countsS3CallsMadeForOneListing() {
+        put("accounting/a.txt", "a");
+        put("accounting/b.txt", "bb");
+        S3CallTally tally = new S3CallTally();
+
+        ObjectListResponse response = S3CallContext.callWith(
+                tally, () -> storageService.listObjects(config.id(), "accounting/", null));
+
+        assertThat(response.objects()).hasSize(2);
+        assertThat(tally.callsByOperation()).containsEntry("ListObjectsV2", 1L).containsEntry("HeadObject", 2L);
+        assertThat(tally.totalCalls()).isEqualTo(3);
+    }
+
     @Test
     void searchesWithinPrefixWithWildcard() {
-        ObjectListResponse response = storageService.search(config.id(), "logs/app/2025/01/02/", "trade_2025_*.csv");
-        assertThat(response.objects()).extracting("name").contains("trade_2025_01.csv");
+        List<ObjectItem> response = search(config.id(), "logs/app/2025/01/02/", "trade_2025_*.csv");
+        assertThat(response).extracting("name").contains("trade_2025_01.csv");
+    }
+
+    private List<ObjectItem> search(String bucketId, String prefix, String query) {
+        List<ObjectItem> matches = new ArrayList<>();
+        storageService.search(bucketId, prefix, query, matches::addAll);
+        return matches;
+    }
+
+    @Test
+    void searchHandsOverMatchesPerListingPage() {
+        for (int i = 0; i < 12; i++) {
+            put("paged-search/item-%03d.txt".formatted(i), "x");
+        }
+        List<List<ObjectItem>> pages = new ArrayList<>();
+
+        // s3mock sends no continuation token, so this stays a single page here
+        storageService.search(config.id(), "paged-search/", "item-*0.txt", pages::add);
+
+        assertThat(pages).hasSize(1);
+        assertThat(pages.get(0)).extracting(ObjectItem::key)
+                .containsExactly("paged-search/item-000.txt", "paged-search/item-010.txt")
+                .isEqualTo(search(config.id(), "paged-search/", "item-*0.txt").stream()
+                        .map(ObjectItem::key)
+                        .toList());
     }
 
     @Test
@@ -119,32 +307,82 @@ class StorageServiceIntegrationTest {
         assertThat(moveResults).hasSize(2);
     }
 
+    @Test
+    void bulkMoveDeletesOnlyCopiedSources() {
+        put("bulk-move/one.txt", "one");
+        var request = new BulkCopyMoveRequest(
+                List.of(
+                        new BulkCopyMoveItem("bulk-move/one.txt", "bulk-moved/one.txt"),
+                        new BulkCopyMoveItem("bulk-move/missing.txt", "bulk-moved/missing.txt")),
+                true);
+        var results = storageService.bulkMove(config.id(), request);
+        assertThat(results).extracting("success").containsExactly(true, false);
+        assertThat(search(config.id(), "bulk-move/", "*")).isEmpty();
+        assertThat(search(config.id(), "bulk-moved/", "*"))
+                .extracting("key")
+                .containsExactly("bulk-moved/one.txt");
+    }
+
     @Test
     void folderCopyAndMoveWithCollisionSkip() {
         FolderCopyRequest copyRequest =
                 new FolderCopyRequest("logs/app/2025/01/01/", "root/app/2025/05/", false);
         var result = storageService.copyFolder(config.id(), copyRequest);
         assertThat(result.copied()).isGreaterThan(0);
-        ObjectListResponse copied =
-                storageService.search(config.id(), "root/app/2025/05/", "a.txt");
-        assertThat(copied.objects()).extracting("key").contains("root/app/2025/05/a.txt");
+        assertThat(result.failed()).isZero();
+        List<ObjectItem> copied = search(config.id(), "root/app/2025/05/", "a.txt");
+        assertThat(copied).extracting("key").contains("root/app/2025/05/a.txt");
 
         // Moving same source to same target should skip existing when overwrite is false
         FolderCopyRequest moveRequest =
                 new FolderCopyRequest("logs/app/2025/01/01/", "root/app/2025/05/", false);
         var moveResult = storageService.moveFolder(config.id(), moveRequest);
         assertThat(moveResult.skipped()).isGreaterThanOrEqualTo(1);
+        assertThat(moveResult.errors()).hasSize(moveResult.skipped());
 
         // Now move to a new prefix and ensure source is deleted
         FolderCopyRequest moveNewRequest =
                 new FolderCopyRequest("logs/app/2025/01/01/", "root/app/2025/06/", true);
         storageService.moveFolder(config.id(), moveNewRequest);
-        ObjectListResponse moved =
-                storageService.search(config.id(), "root/app/2025/06/", "a.txt");
-        assertThat(moved.objects()).extracting("key").contains("root/app/2025/06/a.txt");
-        ObjectListResponse sourceGone =
-                storageService.search(config.id(), "logs/app/2025/01/01/", "a.txt");
-        assertThat(sourceGone.objects()).isEmpty();
+        List<ObjectItem> moved = search(config.id(), "root/app/2025/06/", "a.txt");
+        assertThat(moved).extracting("key").contains("root/app/2025/06/a.txt");
+        List<ObjectItem> sourceGone = search(config.id(), "logs/app/2025/01/01/", "a.txt");
+        assertThat(sourceGone).isEmpty();
+    }
+
+    @Test
+    void folderCopyIntoItsOwnSubfolderCopiesOnlyTheOriginals() {
+        put("nested-copy/a.txt", "a");
+        put("nested-copy/b.txt", "b");
+        var result = storageService.copyFolder(
+                config.id(), new FolderCopyRequest("nested-copy/", "nested-copy/backup/", false));
+        assertThat(result.totalObjects()).isEqualTo(2);
+        assertThat(search(config.id(), "nested-copy/", "*"))
+                .extracting("key")
+                .containsExactlyInAnyOrder(
+                        "nested-copy/a.txt", "nested-copy/b.txt", "nested-copy/backup/a.txt", "nested-copy/backup/b.txt");
+    }
+
+    @Test
+    void folderSizeHeartbeatSurvivesAStoreOutage() {
+        MemoryJobStore<StoredJob> unavailable = new MemoryJobStore<>() {
+            @Override
+            public List<StoredJob> list() {
+                throw new IllegalStateException("store unavailable");
+            }
+        };
+        FolderSizeJobService service = new FolderSizeJobService(
+                folderSizeCalculator,
+                folderSizeProperties,
+                new SimpleMeterRegistry(),
+                unavailable,
+                TestProperties.jobStore(),
+                TestProperties.virtualThreads());
+        try {
+            service.heartbeat();
+        } finally {
+            service.shutdown();
+        }
     }
 
     @Test
@@ -165,11 +403,187 @@ class StorageServiceIntegrationTest {
         assertThat(finalEvent[0].job().totalSizeBytes()).isGreaterThan(0);
     }
 
+    @Test
+    void folderSizeResultIsReusedUntilPrefixChanges() throws Exception {
+        put("cached/a.txt", "aaaa");
+        FolderSizeJobLaunchResponse first = folderSizeJobService.start(config.id(), "cached/");
+        awaitFolderSize(first.job().id());
+
+        FolderSizeJobLaunchResponse repeat = folderSizeJobService.start(config.id(), "cached");
+        assertThat(repeat.reused()).isTrue();
+        assertThat(repeat.job().id()).isEqualTo(first.job().id());
+        assertThat(repeat.job().totalSizeBytes()).isEqualTo(4);
+
+        storageService.copy(config.id(), new CopyMoveRequest("cached/a.txt", "cached/b.txt", true));
+        FolderSizeJobLaunchResponse rescan = folderSizeJobService.start(config.id(), "cached/");
+        assertThat(rescan.reused()).isFalse();
+        assertThat(awaitFolderSize(rescan.job().id()).totalSizeBytes()).isEqualTo(8);
+
+        FolderSizeJobLaunchResponse refreshed = folderSizeJobService.start(config.id(), "cached/", true);
+        assertThat(refreshed.reused()).isFalse();
+        assertThat(refreshed.job().id()).isNotEqualTo(rescan.job().id());
+    }
+
+    @Test
+    void cancelingASharedFolderSizeScanOnlyStopsItOnceEveryRequesterLeft() {
+        put("shared-scan/a.txt", "a");
+        CountDownLatch release = new CountDownLatch(1);
+        // Holds the scan open until it is canceled, so both requesters see it running
+        FolderSizeCalculator blocking = new FolderSizeCalculator(null, null) {
+            @Override
+            public FolderSizeComputation compute(
+                    String bucketId,
+                    String prefix,
+                    FolderSizeLimits limits,
+                    BooleanSupplier cancelRequested,
+                    Consumer<FolderSizeComputation> progressConsumer,
+                    int progressPageInterval,
+                    ScanAggregators aggregators) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new FolderSizeCancelledException("Canceled");
+            }
+        };
+        FolderSizeJobService service = new FolderSizeJobService(
+                blocking,
+                folderSizeProperties,
+                new SimpleMeterRegistry(),
+                new MemoryJobStore<>(),
+                TestProperties.jobStore(),
+                TestProperties.virtualThreads());
+        try {
+            String jobId = as("alice", () -> service.start(config.id(), "shared-scan/")).job().id();
+            FolderSizeJobLaunchResponse joined = as("bob", () -> service.start(config.id(), "shared-scan/"));
+            assertThat(joined.reused()).isTrue();
+            assertThat(joined.job().id()).isEqualTo(jobId);
+
+            assertThat(as("alice", () -> service.cancel(config.id(), jobId)).status())
+                    .isNotEqualTo(FolderSizeStatus.CANCELED);
+            assertThat(as("mallory", () -> service.cancel(config.id(), jobId)).status())
+                    .isNotEqualTo(FolderSizeStatus.CANCELED);
+            assertThat(as("bob", () -> service.cancel(config.id(), jobId)).status())
+                    .isEqualTo(FolderSizeStatus.CANCELED);
+
+            FolderSizeJobLaunchResponse fresh = as("alice", () -> service.start(config.id(), "shared-scan/"));
+            assertThat(fresh.reused()).isFalse();
+            assertThat(fresh.job().id()).isNotEqualTo(jobId);
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    private static <T> T as(String user, Supplier<T> action) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null));
+        try {
+            return action.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private FolderSizeJobView awaitFolderSize(String jobId) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        folderSizeJobService.attachListener(jobId, "await-" + jobId, event -> {
+            if (event.job().status() == FolderSizeStatus.COMPLETED) {
+                done.countDown();
+            }
+        });
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        return folderSizeJobService.get(config.id(), jobId);
+    }
+
+    @Test
+    void sharesFolderSizeJobsThroughStoreAndAdoptsOrphans(@TempDir Path storeDir) throws Exception {
+        put("shared-store/a.txt", "abc");
+        put("shared-store/b/c.txt", "de");
+        FileJobStore<StoredJob> store =
+                new FileJobStore<>(storeDir, new ObjectMapper().findAndRegisterModules(), StoredJob.class);
+        FolderSizeJobService nodeA = new FolderSizeJobService(
+                folderSizeCalculator, folderSizeProperties, new SimpleMeterRegistry(), store, nodeStore("node-a"),
+                TestProperties.virtualThreads());
+        FolderSizeJobService nodeB = new FolderSizeJobService(
+                folderSizeCalculator, folderSizeProperties, new SimpleMeterRegistry(), store, nodeStore("node-b"),
+                TestProperties.virtualThreads());
+        try {
+            String jobId = nodeA.start(config.id(), "shared-store/").job().id();
+            FolderSizeJobView seenByB = awaitTerminal(nodeB, jobId);
+            assertThat(seenByB.status()).isEqualTo(FolderSizeStatus.COMPLETED);
+            assertThat(seenByB.totalSizeBytes()).isEqualTo(5);
+
+            // A job left RUNNING by a node that stopped renewing its lease
+            Instant now = Instant.now();
+            store.save(new StoredJob(
+                    new FolderSizeJobView("orphan-job", config.id(), "shared-store/", FolderSizeStatus.RUNNING,
+                            1, 3, false, null, null, now, null, 0, List.of(), false, null),
+                    false,
+                    "alice",
+                    JobPriority.BATCH,
+                    "node-gone",
+                    now.minusSeconds(1),
+                    false,
+                    Set.of(),
+                    now));
+            nodeB.heartbeat();
+            FolderSizeJobView adopted = awaitTerminal(nodeA, "orphan-job");
+            assertThat(adopted.status()).isEqualTo(FolderSizeStatus.COMPLETED);
+            assertThat(adopted.objectsScanned()).isEqualTo(2);
+            assertThat(store.find("orphan-job")).get().extracting(StoredJob::owner).isEqualTo("node-b");
+        } finally {
+            nodeA.shutdown();
+            nodeB.shutdown();
+        }
+    }
+
+    private static JobStoreProperties nodeStore(String nodeId) {
+        return new JobStoreProperties(
+                JobStoreProperties.Type.FILE, null, null, null, Duration.ofSeconds(30), Duration.ofSeconds(5), nodeId);
+    }
+
+    private FolderSizeJobView awaitTerminal(FolderSizeJobService service, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        FolderSizeJobView view = service.get(config.id(), jobId);
+        while (view.finishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            view = service.get(config.id(), jobId);
+        }
+        return view;
+    }
+
+    @Test
+    void parallelFolderSizeMatchesSequentialScan() {
+        // s3mock returns only the first CommonPrefix of a delimiter listing, so nest one folder per level
+        for (int i = 0; i < 5; i++) {
+            put("sized/a/" + i + ".txt", "aaaa");
+            put("sized/a/deep/er/" + i + ".txt", "bb");
+        }
+        put("sized/top.txt", "t");
+        FolderSizeComputation sequential = folderSizeCalculator.compute(
+                config.id(), "sized/", FolderSizeLimits.unbounded(), () -> false, null, 1);
+        List<FolderSizeComputation> progress = new CopyOnWriteArrayList<>();
+        FolderSizeComputation parallel = folderSizeCalculator.computeParallel(
+                config.id(), "sized/", FolderSizeLimits.unbounded(), () -> false, progress::add, 1, 4, 2, null);
+        assertThat(parallel.objectsScanned()).isEqualTo(11).isEqualTo(sequential.objectsScanned());
+        assertThat(parallel.totalSizeBytes()).isEqualTo(31).isEqualTo(sequential.totalSizeBytes());
+        assertThat(parallel.partial()).isFalse();
+        assertThat(progress).isNotEmpty().last().matches(FolderSizeComputation::finished);
+    }
+
     @Test
     void folderSizeJobStopsWhenCapEnabled() throws Exception {
         FolderSizeProperties capped =
-                new FolderSizeProperties(1, 1, 1, Duration.ZERO, Duration.ofMinutes(5), false);
-        FolderSizeJobService cappedService = new FolderSizeJobService(folderSizeCalculator, capped);
+                new FolderSizeProperties(
+                        1, 1, 1, Duration.ZERO, Duration.ofMinutes(5), false, 0, 0, Duration.ofMinutes(5), null, 0, 0, 0);
+        FolderSizeJobService cappedService = new FolderSizeJobService(
+                folderSizeCalculator,
+                capped,
+                new SimpleMeterRegistry(),
+                new MemoryJobStore<>(),
+                TestProperties.jobStore(),
+                TestProperties.virtualThreads());
         FolderSizeJobLaunchResponse launch = cappedService.start(config.id(), "logs/app/");
         CountDownLatch done = new CountDownLatch(1);
         final FolderSizeEvent[] finalEvent = new FolderSizeEvent[1];
@@ -185,20 +599,414 @@ class StorageServiceIntegrationTest {
         assertThat(finalEvent[0].job().objectsScanned()).isEqualTo(1);
     }
 
+    @Test
+    void folderCopyJobRunsInBackgroundAndRetainsResult() throws Exception {
+        JobLaunchResponse launch = operationJobService.copyFolder(
+                config.id(), new FolderCopyRequest("logs/app/2025/01/02/", "job-copy/", true));
+        assertThat(launch.websocketPath()).endsWith(launch.job().id());
+        CountDownLatch done = new CountDownLatch(1);
+        final JobEvent[] finalEvent = new JobEvent[1];
+        jobService.attachListener(launch.job().id(), "job-listener", event -> {
+            if (event.job().status() == JobStatus.COMPLETED) {
+                finalEvent[0] = event;
+                done.countDown();
+            }
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(finalEvent[0].job().progress().objectsProcessed()).isEqualTo(2);
+        assertThat(finalEvent[0].job().progress().bytesTotal()).isGreaterThan(0);
+        assertThat(jobService.get(config.id(), launch.job().id()).result())
+                .isInstanceOfSatisfying(FolderOperationResult.class, r -> assertThat(r.copied()).isEqualTo(2));
+    }
+
+    @Test
+    void sharesOperationJobsThroughStoreAndFailsOrphans(@TempDir Path storeDir) throws Exception {
+        put("shared-ops/src/a.txt", "alpha");
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        FileJobStore<StoredOperationJob> store = new FileJobStore<>(storeDir, mapper, StoredOperationJob.class);
+        JobService nodeA = operationNode(store, "node-a");
+        JobService nodeB = operationNode(store, "node-b");
+        try {
+            OperationJobService operationsOnA = new OperationJobService(
+                    nodeA,
+                    storageService,
+                    transferService,
+                    syncService,
+                    versionPurger,
+                    new BucketRegistry(new S3Properties(List.of(config))),
+                    mapper);
+            String jobId = operationsOnA.copyFolder(
+                            config.id(), new FolderCopyRequest("shared-ops/src/", "shared-ops/dst/", true))
+                    .job()
+                    .id();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            JobView seenByB = nodeB.get(config.id(), jobId);
+            while (seenByB.finishedAt() == null && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+                seenByB = nodeB.get(config.id(), jobId);
+            }
+            assertThat(seenByB.status()).isEqualTo(JobStatus.COMPLETED);
+            assertThat(seenByB.progress().objectsProcessed()).isEqualTo(1);
+            assertThat(nodeB.list(config.id())).extracting(JobView::id).contains(jobId);
+
+            // A job left RUNNING by a node that stopped renewing its record
+            Instant now = Instant.now();
+            store.save(new StoredOperationJob(
+                    new JobView("orphan-op", JobType.COPY_FOLDER, config.id(), "orphan", JobStatus.RUNNING,
+                            null, null, null, now, now, null),
+                    "node-gone",
+                    now.minusSeconds(1),
+                    false,
+                    now));
+            nodeB.heartbeat();
+            JobView orphan = nodeA.get(config.id(), "orphan-op");
+            assertThat(orphan.status()).isEqualTo(JobStatus.FAILED);
+            assertThat(orphan.message()).contains("node-gone");
+        } finally {
+            nodeA.shutdown();
+            nodeB.shutdown();
+        }
+    }
+
+    private static JobService operationNode(JobStore<StoredOperationJob> store, String nodeId) {
+        return new JobService(
+                TestProperties.jobs(),
+                new JobJournal(TestProperties.jobs(), new ObjectMapper()),
+                store,
+                nodeStore(nodeId),
+                TestProperties.virtualThreads(),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void resumesInterruptedFolderCopyFromJournal(@TempDir Path journalDir) throws Exception {
+        put("resume/src/a.txt", "alpha");
+        put("resume/src/b.txt", "beta");
+        ObjectMapper mapper = new ObjectMapper();
+        FolderCopyRequest request = new FolderCopyRequest("resume/src/", "resume/dst/", true);
+        JobPlan plan = new JobPlan(JobType.COPY_FOLDER, config.id(), "resume", mapper.valueToTree(request));
+        Files.writeString(
+                journalDir.resolve("interrupted.journal"),
+                "P " + mapper.writeValueAsString(plan) + "\nD resume%2Fsrc%2Fa.txt\n");
+        JobProperties properties = new JobProperties(
+                0, 0, null, null, new JobProperties.Journal(journalDir.toString(), 0, null), 0, 0);
+        JobService recovering = new JobService(
+                properties,
+                new JobJournal(properties, mapper),
+                new MemoryJobStore<>(),
+                TestProperties.jobStore(),
+                TestProperties.virtualThreads(),
+                new SimpleMeterRegistry());
+        recovering.recoverInterrupted();
+        assertThat(recovering.get(config.id(), "interrupted").status()).isEqualTo(JobStatus.INTERRUPTED);
+
+        OperationJobService resuming = new OperationJobService(
+                recovering,
+                storageService,
+                transferService,
+                syncService,
+                versionPurger,
+                new BucketRegistry(new S3Properties(List.of(config))),
+                mapper);
+        resuming.resume(config.id(), "interrupted");
+        CountDownLatch done = new CountDownLatch(1);
+        recovering.attachListener("interrupted", "resume-listener", event -> {
+            if (event.job().status() == JobStatus.COMPLETED) {
+                done.countDown();
+            }
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(search(config.id(), "resume/dst/", "*"))
+                .extracting("key")
+                .containsExactly("resume/dst/b.txt");
+        assertThat(Files.exists(journalDir.resolve("interrupted.journal"))).isFalse();
+        recovering.shutdown();
+    }
+
+    @Test
+    void plansFolderMoveWithoutTouchingObjects() {
+        put("plan/src/a.txt", "alpha");
+        put("plan/src/b.txt", "beta");
+        put("plan/src/c.txt", "gamma");
+        put("plan/dst/b.txt", "old");
+
+        OperationPlan move = operationPlanner.plan(
+                config.id(),
+                new OperationPlanRequest(OperationPlanRequest.Operation.MOVE, "plan/src", "plan/dst", null, false, null));
+        assertThat(move.objects()).isEqualTo(3);
+        assertThat(move.bytes()).isEqualTo(14);
+        assertThat(move.conflicts()).isEqualTo(1);
+        assertThat(move.conflictSamples()).containsExactly("plan/src/b.txt");
+        assertThat(move.requests()).extracting("operation", "count").contains(
+                tuple("CopyObject", 2L),
+                tuple("HeadObject", 3L),
+                tuple("DeleteObjects", 1L));
+        assertThat(move.estimatedSeconds()).isGreaterThan(0);
+
+        OperationPlan delete = operationPlanner.plan(
+                config.id(),
+                new OperationPlanRequest(OperationPlanRequest.Operation.DELETE, "plan/", null, null, false, 2L));
+        assertThat(delete.truncated()).isTrue();
+        assertThat(delete.objects()).isEqualTo(2);
+        assertThat(search(config.id(), "plan/", "*")).hasSize(4);
+    }
+
+    @Test
+    void deleteFolderStreamsListingIntoConcurrentBatches() {
+        for (int i = 0; i < 7; i++) {
+            put("purge/dir/" + i + ".txt", "x");
+        }
+        put("purge/keep.txt", "keep");
+        BucketRegistry registry = new BucketRegistry(new S3Properties(List.of(config)));
+        StorageService smallBatches = new StorageService(
+                registry,
+                factory,
+                folderSizeCalculator,
+                new BatchDeleter(new OperationsProperties(2, 2, 0, 0), new VirtualThreadProperties(true)),
+                event -> {},
+                asyncStorageService);
+
+        DeleteFolderResult result = smallBatches.deleteFolder(config.id(), new DeleteFolderRequest("purge/dir"));
+
+        assertThat(result.deletedCount()).isEqualTo(7);
+        assertThat(result.failedCount()).isZero();
+        assertThat(result.errors()).isEmpty();
+        assertThat(search(config.id(), "purge/", "*"))
+                .extracting("key")
+                .containsExactly("purge/keep.txt");
+    }
+
+    @Test
+    void syncCopiesOnlyChangedObjectsAndDeletesExtraneous() {
+        put("sync/src/a.txt", "alpha");
+        put("sync/src/b.txt", "beta");
+        put("sync/src/c.txt", "gamma-new");
+        put("sync/dst/b.txt", "beta");
+        put("sync/dst/c.txt", "gamma");
+        put("sync/dst/d.txt", "delta");
+
+        SyncResult result = syncService.sync(
+                config.id(), new SyncRequest(null, "sync/src", "sync/dst", true), OperationProgress.NONE);
+
+        assertThat(result.compared()).isEqualTo(3);
+        assertThat(result.copied()).isEqualTo(2);
+        assertThat(result.unchanged()).isEqualTo(1);
+        assertThat(result.deleted()).isEqualTo(1);
+        assertThat(result.failed()).isZero();
+        assertThat(search(config.id(), "sync/dst/", "*"))
+                .extracting("key", "sizeBytes")
+                .containsExactlyInAnyOrder(
+                        tuple("sync/dst/a.txt", 5L), tuple("sync/dst/b.txt", 4L), tuple("sync/dst/c.txt", 9L));
+    }
+
+    @Test
+    void syncCountsUnexpectedCopyFailuresAndReportsExpectedWork() {
+        put("sync-fail/src/a.txt", "alpha");
+        put("sync-fail/src/b.txt", "beta");
+        ObjectTransfer failing = new ObjectTransfer(factory, new TransferProperties(DataSize.ofMegabytes(5), 1, 1)) {
+            @Override
+            public void transfer(S3Properties.BucketConfig source, String sourceKey, S3Properties.BucketConfig target,
+                    String targetKey) {
+                throw new EndpointUnavailableException("S3 endpoint is unavailable");
+            }
+        };
+        SyncService failingSync = new SyncService(
+                new BucketRegistry(new S3Properties(List.of(config))),
+                factory,
+                failing,
+                new BatchDeleter(TestProperties.operations(), TestProperties.virtualThreads()),
+                TestProperties.operations(),
+                TestProperties.virtualThreads(),
+                event -> {});
+        long[] expected = new long[2];
+        OperationProgress progress = new OperationProgress() {
+            @Override
+            public synchronized void expect(long objects, long bytes) {
+                expected[0] += objects;
+                expected[1] += bytes;
+            }
+        };
+        try {
+            SyncResult result = failingSync.sync(
+                    config.id(), new SyncRequest(null, "sync-fail/src", "sync-fail/dst", false), progress);
+
+            assertThat(result.copied()).isZero();
+            assertThat(result.failed()).isEqualTo(2);
+            assertThat(result.errors()).extracting("message")
+                    .containsOnly("Failed: S3 endpoint is unavailable");
+            assertThat(expected).containsExactly(2, 9);
+        } finally {
+            failingSync.shutdown();
+        }
+    }
+
+    @Test
+    void transfersFolderAcrossEndpointsAndDeletesSources() {
+        put("transfer/src/a.txt", "alpha");
+        put("transfer/src/nested/b.txt", "beta");
+        assertThat(transferService.transferFolder(
+                        config.id(),
+                        new TransferFolderRequest(archive.id(), "transfer/src/", "restored/", true),
+                        true,
+                        OperationProgress.NONE)
+                .copied()).isEqualTo(2);
+
+        assertThat(search(archive.id(), "restored/", "*"))
+                .extracting("key")
+                .containsExactlyInAnyOrder("restored/a.txt", "restored/nested/b.txt");
+        assertThat(search(config.id(), "transfer/src/", "*")).isEmpty();
+    }
+
+    @Test
+    void streamedTransferKeepsMetadataAndHeaders() {
+        client.putObject(
+                PutObjectRequest.builder()
+                        .bucket(config.bucketName())
+                        .key("transfer/meta.txt")
+                        .contentType("text/plain")
+                        .cacheControl("max-age=60")
+                        .metadata(java.util.Map.of("origin", "sensor-7"))
+                        .build(),
+                software.amazon.awssdk.core.sync.RequestBody.fromString("payload"));
+
+        assertThat(transferService.transferObjects(
+                        config.id(),
+                        new TransferItemsRequest(
+                                archive.id(), List.of(new BulkCopyMoveItem("transfer/meta.txt", "meta/meta.txt")), true),
+                        false,
+                        OperationProgress.NONE))
+                .extracting("success")
+                .containsExactly(true);
+
+        var head = client.headObject(
+                HeadObjectRequest.builder().bucket(archive.bucketName()).key("meta/meta.txt").build());
+        assertThat(head.metadata()).containsEntry("origin", "sensor-7");
+        assertThat(head.cacheControl()).isEqualTo("max-age=60");
+        assertThat(head.contentType()).isEqualTo("text/plain");
+    }
+
+    @Test
+    void transfersLargeObjectsWithMultipartAndSameEndpointWithServerSideCopy() {
+        byte[] large = new byte[11 * 1024 * 1024];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) (i % 251);
+        }
+        client.putObject(
+                PutObjectRequest.builder().bucket(config.bucketName()).key("transfer/large.bin").build(),
+                software.amazon.awssdk.core.sync.RequestBody.fromBytes(large));
+        var request = new TransferItemsRequest(
+                archive.id(), List.of(new BulkCopyMoveItem("transfer/large.bin", "large/large.bin")), true);
+        assertThat(transferService.transferObjects(config.id(), request, false, OperationProgress.NONE))
+                .extracting("success")
+                .containsExactly(true);
+        assertThat(client.headObject(HeadObjectRequest.builder()
+                                .bucket(archive.bucketName())
+                                .key("large/large.bin")
+                                .build())
+                        .contentLength())
+                .isEqualTo(large.length);
+
+        var mirrored = transferService.transferObjects(
+                config.id(),
+                new TransferItemsRequest(
+                        mirror.id(), List.of(new BulkCopyMoveItem("root.txt", "copies/root.txt")), true),
+                false,
+                OperationProgress.NONE);
+        assertThat(mirrored).extracting("success").containsExactly(true);
+        assertThat(search(mirror.id(), "copies/", "*"))
+                .extracting("key")
+                .containsExactly("copies/root.txt");
+    }
+
     @Test
     void copiesAndMovesObjects() {
         storageService.copy(config.id(), new CopyMoveRequest("root.txt", "copied/root.txt", true));
         storageService.move(config.id(), new CopyMoveRequest("copied/root.txt", "moved/root.txt", true));
-        ObjectListResponse response = storageService.search(config.id(), "", "moved/root.txt");
-        assertThat(response.objects()).extracting("key").contains("moved/root.txt");
+        List<ObjectItem> response = search(config.id(), "", "moved/root.txt");
+        assertThat(response).extracting("key").contains("moved/root.txt");
     }
 
     @Test
     void deletesObjectsAndComputesSize() {
-        List<String> deleted =
+        DeleteObjectsResult deleted =
                 storageService.deleteObjects(config.id(), new DeleteObjectsRequest(List.of("root.txt"), List.of()));
-        assertThat(deleted).contains("root.txt");
+        assertThat(deleted.deleted()).contains("root.txt");
+        put("prefix-delete/a.txt", "a");
+        put("prefix-delete/b/c.txt", "c");
+        DeleteObjectsResult expanded = storageService.deleteObjects(
+                config.id(), new DeleteObjectsRequest(List.of(), List.of("prefix-delete")));
+        assertThat(expanded.deleted()).containsExactlyInAnyOrder("prefix-delete/a.txt", "prefix-delete/b/c.txt");
+        assertThat(expanded.deletedCount()).isEqualTo(2);
+        assertThat(expanded.failedCount()).isZero();
+        assertThat(expanded.errors()).isEmpty();
+        assertThat(expanded.truncated()).isFalse();
         FolderSizeResponse size = storageService.folderSize(config.id(), "logs/app/");
         assertThat(size.objectCount()).isGreaterThanOrEqualTo(2);
     }
+
+    @Test
+    void answersFolderSizeAndSearchFromLatestInventory() throws Exception {
+        String root = "inventory/mirror-bucket/daily/";
+        putGzip(root + "data/old.csv.gz", "\"mirror-bucket\",\"reports/stale.csv\",\"999\",\"2024-12-31T00:00:00.000Z\"\n");
+        put(root + "2025-01-01T00-00Z/manifest.json", manifest(
+                "2025-01-01T00:00:00Z", "Bucket, Key, Size, LastModifiedDate", List.of(root + "data/old.csv.gz")));
+        putGzip(root + "data/part-1.csv.gz", String.join("\n",
+                "\"mirror-bucket\",\"reports/2025/jan.csv\",\"100\",\"true\",\"false\",\"2025-01-31T00:00:00.000Z\"",
+                "\"mirror-bucket\",\"reports/2025/jan.csv\",\"50\",\"false\",\"false\",\"2025-01-30T00:00:00.000Z\"",
+                "\"mirror-bucket\",\"reports/2025/feb%20final.csv\",\"200\",\"true\",\"false\",\"2025-02-28T00:00:00.000Z\""));
+        putGzip(root + "data/part-2.csv.gz", String.join("\n",
+                "\"mirror-bucket\",\"reports/2025/notes.txt\",\"7\",\"true\",\"false\",\"2025-02-01T00:00:00.000Z\"",
+                "\"mirror-bucket\",\"reports/2025/gone.csv\",\"\",\"true\",\"true\",\"2025-02-02T00:00:00.000Z\"",
+                "\"mirror-bucket\",\"other/x.csv\",\"1000\",\"true\",\"false\",\"2025-02-03T00:00:00.000Z\""));
+        put(root + "2025-03-01T00-00Z/manifest.json", manifest(
+                "2025-03-01T00:00:00Z",
+                "Bucket, Key, Size, IsLatest, IsDeleteMarker, LastModifiedDate",
+                List.of(root + "data/part-1.csv.gz", root + "data/part-2.csv.gz")));
+
+        InventoryFolderSize size = inventoryService.folderSize(mirror.id(), "reports/");
+        assertThat(size.objectCount()).isEqualTo(3);
+        assertThat(size.totalSizeBytes()).isEqualTo(307);
+        assertThat(size.inventoryDate()).isEqualTo(Instant.parse("2025-03-01T00:00:00Z"));
+        assertThat(size.manifestKey()).isEqualTo(root + "2025-03-01T00-00Z/manifest.json");
+
+        InventorySearchResponse csv = inventoryService.search(mirror.id(), "reports/", "*.csv");
+        assertThat(csv.objects())
+                .extracting("key", "sizeBytes")
+                .containsExactly(tuple("reports/2025/feb final.csv", 200L), tuple("reports/2025/jan.csv", 100L));
+        assertThat(csv.truncated()).isFalse();
+        assertThat(inventoryService.search(mirror.id(), "", "*").truncated()).isTrue();
+
+        // Answers are kept per manifest: rewriting a data file changes nothing until a new delivery lands
+        putGzip(root + "data/part-2.csv.gz", "\"mirror-bucket\",\"reports/late.csv\",\"1\",\"true\",\"false\",\"2025-03-02T00:00:00.000Z\"");
+        assertThat(inventoryService.folderSize(mirror.id(), "reports/").totalSizeBytes()).isEqualTo(307);
+        put(root + "2025-04-01T00-00Z/manifest.json", manifest(
+                "2025-04-01T00:00:00Z",
+                "Bucket, Key, Size, IsLatest, IsDeleteMarker, LastModifiedDate",
+                List.of(root + "data/part-2.csv.gz")));
+        assertThat(inventoryService.folderSize(mirror.id(), "reports/").totalSizeBytes()).isEqualTo(1);
+    }
+
+    private void putGzip(String key, String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        client.putObject(
+                PutObjectRequest.builder().bucket(config.bucketName()).key(key).build(),
+                software.amazon.awssdk.core.sync.RequestBody.fromBytes(bytes.toByteArray()));
+    }
+
+    private String manifest(String created, String schema, List<String> files) throws IOException {
+        List<java.util.Map<String, Object>> entries = files.stream()
+                .map(file -> java.util.Map.<String, Object>of("key", file, "size", 0, "MD5checksum", ""))
+                .toList();
+        return new ObjectMapper().writeValueAsString(java.util.Map.of(
+                "sourceBucket", "mirror-bucket",
+                "fileFormat", "CSV",
+                "fileSchema", schema,
+                "creationTimestamp", String.valueOf(Instant.parse(created).toEpochMilli()),
+                "files", entries));
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.s3webapp.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import org.junit.jupiter.api.Test;
+
+class SubfolderBreakdownTest {
+
+    @Test
+    void aggregatesFoldersUpToDepth() {
+        SubfolderBreakdown breakdown = new SubfolderBreakdown("data/", 2, 100, 10);
+        breakdown.add("data/root.txt", 1);
+        breakdown.add("data/a/x.bin", 10);
+        breakdown.add("data/a/b/c/y.bin", 20);
+        breakdown.add("data/d/z.bin", 5);
+
+        assertThat(breakdown.all())
+                .extracting("prefix", "depth", "objectCount", "totalSizeBytes")
+                .containsExactly(
+                        tuple("data/a/", 1, 2L, 30L),
+                        tuple("data/a/b/", 2, 1L, 20L),
+                        tuple("data/d/", 1, 1L, 5L));
+        assertThat(breakdown.truncated()).isFalse();
+    }
+
+    @Test
+    void keepsHeaviestAndFoldsFoldersPastNodeLimit() {
+        SubfolderBreakdown breakdown = new SubfolderBreakdown("", 1, 2, 1);
+        breakdown.add("a/1", 3);
+        breakdown.add("b/1", 7);
+        breakdown.add("c/1", 100);
+
+        assertThat(breakdown.heaviest()).extracting("prefix").containsExactly("b/");
+        assertThat(breakdown.all()).hasSize(2);
+        assertThat(breakdown.truncated()).isTrue();
+    }
+}
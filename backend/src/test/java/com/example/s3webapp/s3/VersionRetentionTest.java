@@ -0,0 +1,29 @@
+package com.example.s3webapp.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class VersionRetentionTest {
+
+    private final Instant now = Instant.parse("2025-06-01T00:00:00Z");
+
+    @Test
+    void keepsLatestVersionsPerKey() {
+        VersionRetention retention = new VersionRetention(2, null, now);
+        assertThat(retention.shouldDelete("a", now.minusSeconds(10))).isFalse();
+        assertThat(retention.shouldDelete("a", now.minusSeconds(20))).isFalse();
+        assertThat(retention.shouldDelete("a", now.minusSeconds(30))).isTrue();
+        assertThat(retention.shouldDelete("b", now.minusSeconds(40))).isFalse();
+    }
+
+    @Test
+    void onlyDeletesVersionsOlderThanCutoff() {
+        VersionRetention retention = new VersionRetention(0, Duration.ofDays(30), now);
+        assertThat(retention.shouldDelete("a", now.minus(Duration.ofDays(1)))).isFalse();
+        assertThat(retention.shouldDelete("a", now.minus(Duration.ofDays(31)))).isTrue();
+        assertThat(retention.shouldDelete("a", null)).isFalse();
+    }
+}
@@ -68,6 +68,10 @@ class SecurityAuthorizationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"sourceKey\":\"a\",\"targetKey\":\"b\",\"overwrite\":true}"))
                 .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/buckets/demo/jobs/folder-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"prefix\":\"a/\"}"))
+                .andExpect(status().isForbidden());
     }
 
     @Test
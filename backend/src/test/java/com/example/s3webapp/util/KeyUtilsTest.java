@@ -31,4 +31,12 @@ class KeyUtilsTest {
         assertThat("trade_2025_file.csv".matches(regex)).isTrue();
         assertThat("trade_2026_file.csv".matches(regex)).isFalse();
     }
+
+    @Test
+    void compareKeysFollowsS3ListingOrder() {
+        assertThat(KeyUtils.compareKeys("a/b", "a/c")).isNegative();
+        assertThat(KeyUtils.compareKeys("a", "a/b")).isNegative();
+        assertThat(KeyUtils.compareKeys("\uFF01", "\uD83D\uDE00")).isNegative();
+        assertThat("\uFF01".compareTo("\uD83D\uDE00")).isPositive();
+    }
 }
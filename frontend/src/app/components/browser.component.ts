@@ -205,8 +205,8 @@ export class BrowserComponent implements OnInit, OnDestroy {
       return;
     }
     this.api.deleteObjects(this.selectedBucketId, [key]).subscribe({
-      next: () => {
-        this.statusMessage = 'Deleted';
+      next: (res: any) => {
+        this.statusMessage = res?.failedCount > 0 ? `Delete failed: ${res.errors?.[0]?.message ?? ''}` : 'Deleted';
         this.loadObjects(this.currentPrefix);
       },
       error: () => this.statusMessage = 'Delete failed'
@@ -273,8 +273,9 @@ export class BrowserComponent implements OnInit, OnDestroy {
     }
     this.api.deleteObjects(this.selectedBucketId, files, folders).subscribe({
       next: (res: any) => {
-        const count = Array.isArray(res) ? res.length : (res?.deleted?.length || 0);
-        this.statusMessage = `Deleted ${count} items`;
+        const count = res?.deletedCount ?? 0;
+        const failed = res?.failedCount ?? 0;
+        this.statusMessage = failed > 0 ? `Deleted ${count} items, ${failed} failed` : `Deleted ${count} items`;
         this.loadObjects(this.currentPrefix);
       },
       error: () => this.statusMessage = 'Bulk delete failed'
@@ -293,7 +294,9 @@ export class BrowserComponent implements OnInit, OnDestroy {
     if (!this.folderSizeJob) return;
     this.api.cancelFolderSize(this.selectedBucketId, this.folderSizeJob.id).subscribe({
       next: job => {
-        this.folderSizeJob = job;
+        const shared = job.status === 'QUEUED' || job.status === 'RUNNING';
+        this.folderSizeJob = shared ? undefined : job;
+        if (shared) this.statusMessage = 'Stopped following the folder size scan; it continues for other requesters';
         this.folderSizeLoading = false;
         this.folderSizeStream?.unsubscribe();
         this.folderSizeStream = undefined;
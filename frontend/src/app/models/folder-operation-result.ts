@@ -6,5 +6,6 @@ export interface FolderOperationResult {
   totalObjects: number;
   copied: number;
   skipped: number;
+  failed: number;
   errors: BulkOperationResult[];
 }
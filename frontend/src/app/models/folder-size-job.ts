@@ -1,3 +1,6 @@
+import { FolderStatistics } from './folder-statistics';
+import { SubfolderSize } from './subfolder-size';
+
 export type FolderSizeStatus = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED' | 'CANCELED';
 
 export interface FolderSizeJob {
@@ -12,4 +15,8 @@ export interface FolderSizeJob {
   message?: string;
   startedAt?: string;
   finishedAt?: string;
+  breakdownDepth: number;
+  subfolders: SubfolderSize[];
+  subfoldersTruncated: boolean;
+  statistics?: FolderStatistics;
 }
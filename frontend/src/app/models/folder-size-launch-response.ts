@@ -3,4 +3,5 @@ import { FolderSizeJob } from './folder-size-job';
 export interface FolderSizeLaunchResponse {
   job: FolderSizeJob;
   websocketPath: string;
+  reused: boolean;
 }
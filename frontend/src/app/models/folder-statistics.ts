@@ -0,0 +1,20 @@
+export interface HistogramBucket {
+  lowerBound: number;
+  upperBound: number;
+  objectCount: number;
+  totalSizeBytes: number;
+}
+
+export interface CategoryCount {
+  name: string;
+  objectCount: number;
+  totalSizeBytes: number;
+}
+
+export interface FolderStatistics {
+  sizeBytes: HistogramBucket[];
+  ageDays: HistogramBucket[];
+  storageClasses: CategoryCount[];
+  extensions: CategoryCount[];
+  extensionsTruncated: boolean;
+}
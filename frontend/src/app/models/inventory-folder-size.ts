@@ -0,0 +1,7 @@
+export interface InventoryFolderSize {
+  prefix: string;
+  totalSizeBytes: number;
+  objectCount: number;
+  inventoryDate?: string | null;
+  manifestKey: string;
+}
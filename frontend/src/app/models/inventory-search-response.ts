@@ -0,0 +1,9 @@
+import { ObjectItem } from './object-item';
+
+export interface InventorySearchResponse {
+  prefix: string;
+  objects: ObjectItem[];
+  truncated: boolean;
+  inventoryDate?: string | null;
+  manifestKey: string;
+}
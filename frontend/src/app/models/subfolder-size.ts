@@ -0,0 +1,6 @@
+export interface SubfolderSize {
+  prefix: string;
+  depth: number;
+  objectCount: number;
+  totalSizeBytes: number;
+}
@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Drives the listing endpoint with many concurrent users so platform and virtual thread runs can be compared.
+# Usage: scripts/load-test-listing.sh <label>   (e.g. "platform" or "virtual")
+# Uses hey when installed, otherwise a python3 driver with one keep-alive connection per client.
+
+LABEL=${1:-run}
+APP_URL=${APP_URL:-http://localhost:9080}
+BUCKET_ID=${BUCKET_ID:-logs}
+PREFIX=${PREFIX:-}
+CONCURRENCY=${CONCURRENCY:-1000}
+REQUESTS=${REQUESTS:-20000}
+LOGIN_USER=${LOGIN_USER:-bob}
+LOGIN_PASSWORD=${LOGIN_PASSWORD:-password1}
+
+if ! command -v hey >/dev/null 2>&1 && ! command -v python3 >/dev/null 2>&1; then
+  echo "hey (https://github.com/rakyll/hey) or python3 is required" >&2
+  exit 1
+fi
+
+COOKIE_JAR=$(mktemp)
+cleanup() { rm -f "$COOKIE_JAR"; }
+trap cleanup EXIT
+
+curl -sf -c "$COOKIE_JAR" -H 'Content-Type: application/json' \
+  -d "{\"username\":\"$LOGIN_USER\",\"password\":\"$LOGIN_PASSWORD\"}" \
+  "$APP_URL/api/auth/login" >/dev/null
+SESSION=$(awk '$6 == "JSESSIONID" { print $7 }' "$COOKIE_JAR")
+if [ -z "$SESSION" ]; then
+  echo "Login as $LOGIN_USER did not return a session cookie" >&2
+  exit 1
+fi
+
+URL="$APP_URL/api/buckets/$BUCKET_ID/objects?prefix=$PREFIX"
+echo "== $LABEL: $REQUESTS listings of $BUCKET_ID/$PREFIX with $CONCURRENCY concurrent clients =="
+if command -v hey >/dev/null 2>&1; then
+  hey -n "$REQUESTS" -c "$CONCURRENCY" -H "Cookie: JSESSIONID=$SESSION" "$URL"
+  exit 0
+fi
+
+python3 - "$URL" "$SESSION" "$REQUESTS" "$CONCURRENCY" <<'PY'
+import http.client, sys, threading, time, urllib.parse
+from collections import Counter
+
+url, session, total, clients = sys.argv[1], sys.argv[2], int(sys.argv[3]), int(sys.argv[4])
+target = urllib.parse.urlsplit(url)
+path = target.path + ("?" + target.query if target.query else "")
+lock = threading.Lock()
+remaining = [total]
+latencies, statuses = [], Counter()
+start = threading.Barrier(clients + 1)
+
+def client():
+    conn = http.client.HTTPConnection(target.hostname, target.port, timeout=120)
+    start.wait()
+    while True:
+        with lock:
+            if remaining[0] == 0:
+                break
+            remaining[0] -= 1
+        began = time.perf_counter()
+        try:
+            conn.request("GET", path, headers={"Cookie": "JSESSIONID=" + session})
+            response = conn.getresponse()
+            response.read()
+            status = str(response.status)
+        except Exception as ex:
+            conn.close()
+            conn = http.client.HTTPConnection(target.hostname, target.port, timeout=120)
+            status = type(ex).__name__
+        with lock:
+            latencies.append(time.perf_counter() - began)
+            statuses[status] += 1
+    conn.close()
+
+threading.stack_size(256 * 1024)
+threads = [threading.Thread(target=client) for _ in range(clients)]
+for t in threads:
+    t.start()
+start.wait()
+began = time.perf_counter()
+for t in threads:
+    t.join()
+elapsed = time.perf_counter() - began
+latencies.sort()
+pct = lambda p: latencies[min(len(latencies) - 1, int(len(latencies) * p))] * 1000
+print(f"Total: {elapsed:.2f} s  Requests/sec: {len(latencies) / elapsed:.1f}")
+print(f"Latency ms: p50 {pct(0.50):.0f}  p90 {pct(0.90):.0f}  p99 {pct(0.99):.0f}  max {latencies[-1] * 1000:.0f}")
+print("Status: " + ", ".join(f"{code}={count}" for code, count in sorted(statuses.items())))
+PY